@@ -0,0 +1,136 @@
+package twitter;
+
+import twitter.exception.NullOrEmptyAuthorException;
+import twitter.exception.UnqualifiedUsernameException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * AuthorIndex answers Filter.writtenBy() queries over a fixed corpus of tweets
+ * in time proportional to the number of tweets found.
+ * <p>
+ * Each case-folded author gets a dense id from a UsernameDictionary, and the
+ * ordinals (input positions) of that author's tweets are stored as one
+ * contiguous run of a single int[], with an int[] of run offsets indexed by
+ * author id.
+ * <p>
+ * An AuthorIndex is immutable, so it is safe for use by multiple threads.
+ */
+public class AuthorIndex {
+
+	private final UsernameDictionary authors = new UsernameDictionary();
+	private final Tweet[] tweets;
+	private final int[] offsets;
+	private final int[] postings;
+	/* Rep invariant:
+	 *    offsets.length == authors.size() + 1, offsets[0] == 0,
+	 *    offsets is non-decreasing and offsets[authors.size()] == postings.length == tweets.length
+	 *    postings[offsets[a]..offsets[a+1]) are the ordinals, ascending, of the
+	 *    tweets whose case-folded author has id a
+	 */
+
+	/**
+	 * Make an index of a list of tweets, checking every author once.
+	 *
+	 * @param tweets a list of tweets with distinct ids, not modified by this method.
+	 * @throws NullOrEmptyAuthorException   if a tweet's author is null or empty
+	 * @throws UnqualifiedUsernameException if a tweet's author is not a valid
+	 *                                      Twitter username
+	 */
+	public AuthorIndex(List<Tweet> tweets) throws NullOrEmptyAuthorException, UnqualifiedUsernameException {
+		int n = tweets.size();
+		this.tweets = tweets.toArray(new Tweet[n]);
+		int[] authorIds = new int[n];
+		int[] counts = new int[16];
+		for (int i = 0; i < n; i++) {
+			String author = this.tweets[i].getAuthor();
+			if (author == null || author.isEmpty()) {
+				throw new NullOrEmptyAuthorException("author name of tweet is null or empty string");
+			}
+			if (!Filter.isRequiredUsername(author)) {
+				throw new UnqualifiedUsernameException("unqualified author name");
+			}
+			int id = authors.intern(author);
+			if (id == counts.length) {
+				counts = Arrays.copyOf(counts, 2 * counts.length);
+			}
+			counts[id]++;
+			authorIds[i] = id;
+		}
+
+		int numberOfAuthors = authors.size();
+		offsets = new int[numberOfAuthors + 1];
+		for (int a = 0; a < numberOfAuthors; a++) {
+			offsets[a + 1] = offsets[a] + counts[a];
+		}
+		postings = new int[n];
+		int[] next = Arrays.copyOf(offsets, numberOfAuthors);
+		for (int i = 0; i < n; i++) {
+			postings[next[authorIds[i]]++] = i;
+		}
+	}
+
+	/**
+	 * Find tweets written by a particular user.
+	 *
+	 * @param username Twitter username, required to be a valid Twitter username as
+	 *                 defined by Tweet.getAuthor()'s spec.
+	 * @return all and only the indexed tweets whose author is username, in the
+	 * same order as in the list the index was built from.
+	 * @throws UnqualifiedUsernameException if username is not a valid Twitter username
+	 */
+	public List<Tweet> writtenBy(String username) throws UnqualifiedUsernameException {
+		if (!Filter.isRequiredUsername(username)) {
+			throw new UnqualifiedUsernameException("unqualified username");
+		}
+		int id = authors.lookup(username);
+		if (id < 0) {
+			return new ArrayList<>();
+		}
+		List<Tweet> result = new ArrayList<>(offsets[id + 1] - offsets[id]);
+		for (int p = offsets[id]; p < offsets[id + 1]; p++) {
+			result.add(tweets[postings[p]]);
+		}
+		return result;
+	}
+
+	/**
+	 * @param username Twitter username
+	 * @return the ordinals of the indexed tweets written by username
+	 */
+	CompressedBitmap ordinalsWrittenBy(String username) {
+		CompressedBitmap result = new CompressedBitmap();
+		int id = authors.lookup(username);
+		if (id >= 0) {
+			for (int p = offsets[id]; p < offsets[id + 1]; p++) {
+				result.add(postings[p]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param username Twitter username
+	 * @return number of indexed tweets written by username
+	 */
+	public int countWrittenBy(String username) {
+		int id = authors.lookup(username);
+		return id < 0 ? 0 : offsets[id + 1] - offsets[id];
+	}
+
+	/**
+	 * @return number of distinct authors, ignoring case
+	 */
+	public int getAuthorCount() {
+		return authors.size();
+	}
+
+	/**
+	 * @return number of indexed tweets
+	 */
+	public int size() {
+		return tweets.length;
+	}
+}
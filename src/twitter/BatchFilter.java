@@ -0,0 +1,151 @@
+package twitter;
+
+import twitter.exception.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BatchFilter runs many Filter.containing() and Filter.writtenBy() queries
+ * over the same tweets in one shared pass.
+ * <p>
+ * The queries are compiled into two tables: from each upper-cased query word
+ * to the ids of the containing queries that use it, and from each case-folded
+ * username to the ids of the writtenBy queries that ask for it. filter() then
+ * splits each tweet's text into words once and probes the tables with the
+ * words and the author, so its cost grows with the number of tweets plus the
+ * number of matches, instead of with queries times tweets.
+ * <p>
+ * A BatchFilter is not safe for use by multiple threads at once while queries
+ * are being added.
+ */
+public class BatchFilter {
+
+	private static final int[] NO_QUERIES = new int[0];
+
+	private final Map<String, int[]> queriesOfWord = new HashMap<>();
+	private final Map<String, int[]> queriesOfAuthor = new HashMap<>();
+	private int numberOfQueries = 0;
+	private int numberOfContainingQueries = 0;
+	/* Rep invariant:
+	 *    query ids are 0..numberOfQueries-1, in order of adding
+	 *    queriesOfWord maps each upper-cased word of a containing query to the
+	 *    ids, ascending and distinct, of the containing queries holding it
+	 *    queriesOfAuthor maps each case-folded username of a writtenBy query to
+	 *    the ids, ascending, of the writtenBy queries asking for it
+	 *    numberOfContainingQueries is the number of containing queries
+	 */
+
+	/**
+	 * Make a batch with no queries.
+	 */
+	public BatchFilter() {
+	}
+
+	/**
+	 * Add a query for the tweets that contain certain words.
+	 *
+	 * @param words a list of words, as for Filter.containing()
+	 * @return the id of the query, the index of its result in filter()
+	 * @throws NullOrEmptyWordException if a word is null, empty or contains a space
+	 */
+	public int addContaining(List<String> words) throws NullOrEmptyWordException {
+		if (Filter.isWordsNullOrEmpty(words)) {
+			throw new NullOrEmptyWordException("words contain null or empty string");
+		}
+		int id = numberOfQueries++;
+		numberOfContainingQueries++;
+		for (String word : Filter.convertToUppercase(new HashSet<>(words))) {
+			append(queriesOfWord, word, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Add a query for the tweets written by a particular user.
+	 *
+	 * @param username Twitter username, as for Filter.writtenBy()
+	 * @return the id of the query, the index of its result in filter()
+	 * @throws UnqualifiedUsernameException if username is not a valid Twitter username
+	 */
+	public int addWrittenBy(String username) throws UnqualifiedUsernameException {
+		if (!Filter.isRequiredUsername(username)) {
+			throw new UnqualifiedUsernameException("unqualified username");
+		}
+		int id = numberOfQueries++;
+		append(queriesOfAuthor, UsernameDictionary.fold(username), id);
+		return id;
+	}
+
+	/**
+	 * @return number of queries added
+	 */
+	public int getQueryCount() {
+		return numberOfQueries;
+	}
+
+	/**
+	 * Run every query over a list of tweets.
+	 *
+	 * @param tweets a list of tweets with distinct ids, not modified by this method.
+	 * @return a list holding, at the id of each query, the list the matching
+	 * Filter method would return for it
+	 * @throws NullOrEmptyAuthorException      if there is a writtenBy query and a tweet's author is null or empty
+	 * @throws UnqualifiedUsernameException    if there is a writtenBy query and a tweet's author is not valid
+	 * @throws NullOrEmptyTextOfTweetException if there is a containing query and a tweet's text is empty
+	 */
+	public List<List<Tweet>> filter(List<Tweet> tweets) throws NullOrEmptyAuthorException, UnqualifiedUsernameException,
+			NullOrEmptyTextOfTweetException {
+		List<List<Tweet>> results = new ArrayList<>(numberOfQueries);
+		for (int id = 0; id < numberOfQueries; id++) {
+			results.add(new ArrayList<>());
+		}
+		boolean readAuthors = numberOfQueries > numberOfContainingQueries;
+		boolean readTexts = numberOfContainingQueries > 0;
+
+		// lastMatch[id] is the ordinal of the last tweet added to query id's result
+		int[] lastMatch = new int[numberOfQueries];
+		Arrays.fill(lastMatch, -1);
+		int ordinal = 0;
+		for (Tweet tweet : tweets) {
+			if (readAuthors) {
+				String author = tweet.getAuthor();
+				if (author == null || author.isEmpty()) {
+					throw new NullOrEmptyAuthorException("author name of tweet is null or empty string");
+				}
+				if (!Filter.isRequiredUsername(author)) {
+					throw new UnqualifiedUsernameException("unqualified author name");
+				}
+				for (int id : queriesOfAuthor.getOrDefault(UsernameDictionary.fold(author), NO_QUERIES)) {
+					results.get(id).add(tweet);
+				}
+			}
+			if (readTexts) {
+				if (tweet.getText().isEmpty()) {
+					throw new NullOrEmptyTextOfTweetException("text of tweet is empty string");
+				}
+				for (String word : Filter.getUppercaseWordsOfText(tweet.getText())) {
+					for (int id : queriesOfWord.getOrDefault(word, NO_QUERIES)) {
+						if (lastMatch[id] != ordinal) {
+							lastMatch[id] = ordinal;
+							results.get(id).add(tweet);
+						}
+					}
+				}
+			}
+			ordinal++;
+		}
+		return results;
+	}
+
+	private static void append(Map<String, int[]> table, String key, int id) {
+		int[] ids = table.getOrDefault(key, NO_QUERIES);
+		ids = Arrays.copyOf(ids, ids.length + 1);
+		ids[ids.length - 1] = id;
+		table.put(key, ids);
+	}
+}
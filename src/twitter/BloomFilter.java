@@ -0,0 +1,64 @@
+package twitter;
+
+/**
+ * BloomFilter is a set of strings that may answer "maybe" for a string never
+ * added, but never answers "no" for one that was.
+ * <p>
+ * It holds about 10 bits per expected string and sets 7 of them per string,
+ * chosen by double hashing of HyperLogLog.hashIgnoreCase(); with the expected
+ * number of strings added, about 1% of other strings are reported as maybe
+ * present. a..z are treated the same as A..Z.
+ */
+class BloomFilter {
+
+	private static final int BITS_PER_ITEM = 10;
+	private static final int HASHES = 7;
+
+	private final long[] bits;
+	private final long numberOfBits;
+	/* Rep invariant:
+	 *    numberOfBits == 64 * bits.length > 0
+	 *    for every string s added, bit index(hash(s), i) is set for 0 <= i < HASHES
+	 */
+
+	/**
+	 * Make an empty filter.
+	 *
+	 * @param expectedItems number of strings expected to be added, >= 0
+	 */
+	BloomFilter(int expectedItems) {
+		bits = new long[(int) Math.max(1, ((long) expectedItems * BITS_PER_ITEM + 63) / 64)];
+		numberOfBits = 64L * bits.length;
+	}
+
+	/**
+	 * Add a string.
+	 */
+	void add(String item) {
+		long hash = HyperLogLog.hashIgnoreCase(item, 0, item.length());
+		for (int i = 0; i < HASHES; i++) {
+			long index = index(hash, i);
+			bits[(int) (index >>> 6)] |= 1L << index;
+		}
+	}
+
+	/**
+	 * @return false if item was certainly never added; true if it may have been
+	 */
+	boolean mightContain(String item) {
+		long hash = HyperLogLog.hashIgnoreCase(item, 0, item.length());
+		for (int i = 0; i < HASHES; i++) {
+			long index = index(hash, i);
+			if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private long index(long hash, int i) {
+		long h1 = hash >>> 32;
+		long h2 = hash & 0xFFFFFFFFL;
+		return (h1 + i * h2) % numberOfBits;
+	}
+}
@@ -0,0 +1,427 @@
+package twitter;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * CompressedBitmap is a mutable set of non-negative ints stored in the style of
+ * a Roaring bitmap.
+ * <p>
+ * The ints are split by their high 16 bits into chunks of 65536. A chunk with
+ * at most 4096 members is a sorted char[] of the low 16 bits; a denser chunk is
+ * a plain 8 KB bitmap. Sparse sets therefore cost about two bytes per member,
+ * dense ones about one bit, and or/and/andNot work a chunk at a time, on whole
+ * 64-bit words where chunks are dense.
+ * <p>
+ * A CompressedBitmap is not safe for use by multiple threads at once.
+ */
+public class CompressedBitmap {
+
+	private static final int ARRAY_MAX = 4096;
+	private static final int BITMAP_WORDS = 1 << 10;
+
+	private char[] keys = new char[4];
+	private Container[] containers = new Container[4];
+	private int size = 0;
+	/* Rep invariant:
+	 *    keys[0..size) is strictly ascending
+	 *    containers[i] holds the members whose high 16 bits are keys[i], and is
+	 *    nonempty
+	 */
+
+	/**
+	 * Add an int to the set. Adding ints in ascending order is fastest.
+	 *
+	 * @param x an int >= 0
+	 */
+	public void add(int x) {
+		if (x < 0) {
+			throw new IllegalArgumentException("requires x >= 0");
+		}
+		char high = (char) (x >>> 16);
+		int index;
+		if (size > 0 && keys[size - 1] == high) {
+			index = size - 1;
+		} else {
+			index = Arrays.binarySearch(keys, 0, size, high);
+			if (index < 0) {
+				index = -index - 1;
+				insertContainer(index, high, new Container());
+			}
+		}
+		containers[index].add((char) x);
+	}
+
+	/**
+	 * @param x an int
+	 * @return true if x is in the set
+	 */
+	public boolean contains(int x) {
+		if (x < 0) {
+			return false;
+		}
+		int index = Arrays.binarySearch(keys, 0, size, (char) (x >>> 16));
+		return index >= 0 && containers[index].contains((char) x);
+	}
+
+	/**
+	 * @return number of ints in the set
+	 */
+	public int cardinality() {
+		int cardinality = 0;
+		for (int i = 0; i < size; i++) {
+			cardinality += containers[i].cardinality;
+		}
+		return cardinality;
+	}
+
+	/**
+	 * @return true if the set has no members
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param other a bitmap, not modified by this method.
+	 * @return a new bitmap holding the ints in this set or in other
+	 */
+	public CompressedBitmap or(CompressedBitmap other) {
+		CompressedBitmap result = new CompressedBitmap();
+		int i = 0;
+		int j = 0;
+		while (i < size || j < other.size) {
+			if (j >= other.size || (i < size && keys[i] < other.keys[j])) {
+				result.appendContainer(keys[i], containers[i].copy());
+				i++;
+			} else if (i >= size || other.keys[j] < keys[i]) {
+				result.appendContainer(other.keys[j], other.containers[j].copy());
+				j++;
+			} else {
+				result.appendContainer(keys[i], containers[i].or(other.containers[j]));
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param other a bitmap, not modified by this method.
+	 * @return a new bitmap holding the ints in both this set and other
+	 */
+	public CompressedBitmap and(CompressedBitmap other) {
+		CompressedBitmap result = new CompressedBitmap();
+		int i = 0;
+		int j = 0;
+		while (i < size && j < other.size) {
+			if (keys[i] < other.keys[j]) {
+				i++;
+			} else if (other.keys[j] < keys[i]) {
+				j++;
+			} else {
+				result.appendContainer(keys[i], containers[i].and(other.containers[j]));
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param other a bitmap, not modified by this method.
+	 * @return a new bitmap holding the ints in this set but not in other
+	 */
+	public CompressedBitmap andNot(CompressedBitmap other) {
+		CompressedBitmap result = new CompressedBitmap();
+		int j = 0;
+		for (int i = 0; i < size; i++) {
+			while (j < other.size && other.keys[j] < keys[i]) {
+				j++;
+			}
+			if (j < other.size && other.keys[j] == keys[i]) {
+				result.appendContainer(keys[i], containers[i].andNot(other.containers[j]));
+			} else {
+				result.appendContainer(keys[i], containers[i].copy());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Pass every member to an action, in ascending order.
+	 *
+	 * @param action receives each member
+	 */
+	public void forEach(IntConsumer action) {
+		for (int i = 0; i < size; i++) {
+			containers[i].forEach(keys[i] << 16, action);
+		}
+	}
+
+	/**
+	 * @return the members in ascending order
+	 */
+	public int[] toArray() {
+		int[] result = new int[cardinality()];
+		int[] next = {0};
+		forEach(x -> result[next[0]++] = x);
+		return result;
+	}
+
+	/**
+	 * @return approximate number of bytes used by the members
+	 */
+	public long sizeInBytes() {
+		long bytes = 3L * keys.length;
+		for (int i = 0; i < size; i++) {
+			bytes += containers[i].bits != null ? 8L * BITMAP_WORDS : 2L * containers[i].array.length;
+		}
+		return bytes;
+	}
+
+	private void insertContainer(int index, char key, Container container) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, 2 * size);
+			containers = Arrays.copyOf(containers, 2 * size);
+		}
+		System.arraycopy(keys, index, keys, index + 1, size - index);
+		System.arraycopy(containers, index, containers, index + 1, size - index);
+		keys[index] = key;
+		containers[index] = container;
+		size++;
+	}
+
+	private void appendContainer(char key, Container container) {
+		if (container != null && container.cardinality > 0) {
+			insertContainer(size, key, container);
+		}
+	}
+
+	@Override
+	public boolean equals(Object thatObject) {
+		if (!(thatObject instanceof CompressedBitmap)) {
+			return false;
+		}
+		return Arrays.equals(toArray(), ((CompressedBitmap) thatObject).toArray());
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(toArray());
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+	/**
+	 * The members of one 65536-int chunk, as a sorted array or a bitmap.
+	 */
+	private static class Container {
+		private char[] array = new char[4];
+		private long[] bits = null;
+		private int cardinality = 0;
+		/* Rep invariant:
+		 *    exactly one of array, bits is in use: bits == null means the members
+		 *    are array[0..cardinality), strictly ascending, and cardinality <= ARRAY_MAX;
+		 *    otherwise they are the set bits of bits and cardinality > ARRAY_MAX
+		 */
+
+		void add(char value) {
+			if (bits != null) {
+				long mask = 1L << value;
+				if ((bits[value >>> 6] & mask) == 0) {
+					bits[value >>> 6] |= mask;
+					cardinality++;
+				}
+				return;
+			}
+			int index;
+			if (cardinality == 0 || array[cardinality - 1] < value) {
+				index = cardinality;
+			} else {
+				index = Arrays.binarySearch(array, 0, cardinality, value);
+				if (index >= 0) {
+					return;
+				}
+				index = -index - 1;
+			}
+			if (cardinality == ARRAY_MAX) {
+				toBitmap();
+				add(value);
+				return;
+			}
+			if (cardinality == array.length) {
+				array = Arrays.copyOf(array, Math.min(ARRAY_MAX, 2 * array.length));
+			}
+			System.arraycopy(array, index, array, index + 1, cardinality - index);
+			array[index] = value;
+			cardinality++;
+		}
+
+		boolean contains(char value) {
+			if (bits != null) {
+				return (bits[value >>> 6] & (1L << value)) != 0;
+			}
+			return Arrays.binarySearch(array, 0, cardinality, value) >= 0;
+		}
+
+		Container copy() {
+			Container copy = new Container();
+			copy.cardinality = cardinality;
+			if (bits != null) {
+				copy.bits = bits.clone();
+				copy.array = null;
+			} else {
+				copy.array = Arrays.copyOf(array, Math.max(1, cardinality));
+			}
+			return copy;
+		}
+
+		Container or(Container other) {
+			if (bits == null && other.bits == null && cardinality + other.cardinality <= ARRAY_MAX) {
+				char[] merged = new char[cardinality + other.cardinality];
+				int i = 0;
+				int j = 0;
+				int k = 0;
+				while (i < cardinality || j < other.cardinality) {
+					if (j >= other.cardinality || (i < cardinality && array[i] < other.array[j])) {
+						merged[k++] = array[i++];
+					} else if (i >= cardinality || other.array[j] < array[i]) {
+						merged[k++] = other.array[j++];
+					} else {
+						merged[k++] = array[i++];
+						j++;
+					}
+				}
+				return fromArray(merged, k);
+			}
+			long[] words = toWords();
+			other.orInto(words);
+			return fromWords(words);
+		}
+
+		Container and(Container other) {
+			if (bits == null || other.bits == null) {
+				// walk the array side and probe the other
+				Container small = bits == null ? this : other;
+				Container large = small == this ? other : this;
+				char[] result = new char[small.cardinality];
+				int k = 0;
+				for (int i = 0; i < small.cardinality; i++) {
+					if (large.contains(small.array[i])) {
+						result[k++] = small.array[i];
+					}
+				}
+				return fromArray(result, k);
+			}
+			long[] words = new long[BITMAP_WORDS];
+			for (int w = 0; w < BITMAP_WORDS; w++) {
+				words[w] = bits[w] & other.bits[w];
+			}
+			return fromWords(words);
+		}
+
+		Container andNot(Container other) {
+			if (bits == null) {
+				char[] result = new char[cardinality];
+				int k = 0;
+				for (int i = 0; i < cardinality; i++) {
+					if (!other.contains(array[i])) {
+						result[k++] = array[i];
+					}
+				}
+				return fromArray(result, k);
+			}
+			long[] words = bits.clone();
+			if (other.bits != null) {
+				for (int w = 0; w < BITMAP_WORDS; w++) {
+					words[w] &= ~other.bits[w];
+				}
+			} else {
+				for (int i = 0; i < other.cardinality; i++) {
+					char value = other.array[i];
+					words[value >>> 6] &= ~(1L << value);
+				}
+			}
+			return fromWords(words);
+		}
+
+		void forEach(int base, IntConsumer action) {
+			if (bits == null) {
+				for (int i = 0; i < cardinality; i++) {
+					action.accept(base | array[i]);
+				}
+				return;
+			}
+			for (int w = 0; w < BITMAP_WORDS; w++) {
+				long word = bits[w];
+				while (word != 0) {
+					action.accept(base | (w << 6) | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+		}
+
+		private long[] toWords() {
+			if (bits != null) {
+				return bits.clone();
+			}
+			long[] words = new long[BITMAP_WORDS];
+			for (int i = 0; i < cardinality; i++) {
+				words[array[i] >>> 6] |= 1L << array[i];
+			}
+			return words;
+		}
+
+		private void orInto(long[] words) {
+			if (bits != null) {
+				for (int w = 0; w < BITMAP_WORDS; w++) {
+					words[w] |= bits[w];
+				}
+			} else {
+				for (int i = 0; i < cardinality; i++) {
+					words[array[i] >>> 6] |= 1L << array[i];
+				}
+			}
+		}
+
+		private void toBitmap() {
+			bits = toWords();
+			array = null;
+		}
+
+		private static Container fromArray(char[] values, int length) {
+			Container container = new Container();
+			container.array = length == values.length ? values : Arrays.copyOf(values, Math.max(1, length));
+			container.cardinality = length;
+			return container;
+		}
+
+		private static Container fromWords(long[] words) {
+			int cardinality = 0;
+			for (long word : words) {
+				cardinality += Long.bitCount(word);
+			}
+			Container container = new Container();
+			container.cardinality = cardinality;
+			if (cardinality > ARRAY_MAX) {
+				container.bits = words;
+				container.array = null;
+				return container;
+			}
+			container.array = new char[Math.max(1, cardinality)];
+			int k = 0;
+			for (int w = 0; w < BITMAP_WORDS; w++) {
+				long word = words[w];
+				while (word != 0) {
+					container.array[k++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			return container;
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package twitter;
+
+import java.util.Arrays;
+
+/**
+ * EdgeBuffer is a growable array of follow edges packed into longs, as by
+ * TriadicClosure.pack(), so buffering an edge allocates nothing.
+ * <p>
+ * An EdgeBuffer is not safe for use by multiple threads at once.
+ */
+class EdgeBuffer {
+
+	/** Largest number of edges a buffer can hold. */
+	static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+	private long[] edges = new long[16];
+	private int size = 0;
+	/* Rep invariant:
+	 *    0 <= size <= edges.length
+	 *    edges[0..size) are the buffered edges
+	 */
+
+	/**
+	 * @param edge a packed edge
+	 */
+	void add(long edge) {
+		if (size == edges.length) {
+			ensureCapacity(size + 1L);
+		}
+		edges[size++] = edge;
+	}
+
+	/**
+	 * @param other a buffer whose edges are appended to this one
+	 */
+	void addAll(EdgeBuffer other) {
+		ensureCapacity(size + (long) other.size);
+		System.arraycopy(other.edges, 0, edges, size, other.size);
+		size += other.size;
+	}
+
+	/**
+	 * Make room for capacity edges in all.
+	 *
+	 * @throws IllegalStateException if capacity is too large for an array
+	 */
+	void ensureCapacity(long capacity) {
+		if (capacity > MAX_SIZE) {
+			throw new IllegalStateException("too many edges");
+		}
+		if (capacity > edges.length) {
+			edges = Arrays.copyOf(edges, (int) Math.min(MAX_SIZE, Math.max(capacity, 2L * edges.length)));
+		}
+	}
+
+	/**
+	 * @return number of buffered edges
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @param i index of an edge, 0 <= i < size()
+	 * @return the edge at index i
+	 */
+	long get(int i) {
+		return edges[i];
+	}
+
+	/**
+	 * Sort the buffered edges, ascending, dropping duplicates.
+	 */
+	void sortDistinct() {
+		Arrays.sort(edges, 0, size);
+		int distinct = 0;
+		for (int e = 0; e < size; e++) {
+			if (distinct == 0 || edges[e] != edges[distinct - 1]) {
+				edges[distinct++] = edges[e];
+			}
+		}
+		size = distinct;
+	}
+
+	/**
+	 * @return a copy of the buffered edges
+	 */
+	long[] toArray() {
+		return Arrays.copyOf(edges, size);
+	}
+}
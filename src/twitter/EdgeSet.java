@@ -0,0 +1,91 @@
+package twitter;
+
+import java.util.Arrays;
+
+/**
+ * EdgeSet is a mutable set of follow edges packed into longs, as by
+ * TriadicClosure.pack().
+ * <p>
+ * The edges live in one long[] with open addressing and linear probing, so
+ * unlike a Set<Long> it stores no entry objects and no boxed edges.
+ * <p>
+ * An EdgeSet is not safe for use by multiple threads at once.
+ */
+class EdgeSet {
+
+	private static final int INITIAL_CAPACITY = 16;
+	private static final long EMPTY = -1;
+
+	private long[] slots = newSlots(INITIAL_CAPACITY);
+	private int size = 0;
+	/* Rep invariant:
+	 *    slots.length is a power of two
+	 *    size == number of slots other than EMPTY, size <= slots.length * 3 / 4
+	 *    each edge is stored at the first EMPTY slot probing from its hash slot
+	 *    every edge is >= 0, since ids are
+	 */
+
+	/**
+	 * @param edge a packed edge
+	 * @return true if edge is in the set
+	 */
+	boolean contains(long edge) {
+		return slots[find(edge)] != EMPTY;
+	}
+
+	/**
+	 * @param edge a packed edge
+	 * @return true if edge was not in the set before
+	 */
+	boolean add(long edge) {
+		assert edge >= 0;
+		int slot = find(edge);
+		if (slots[slot] != EMPTY) {
+			return false;
+		}
+		if ((size + 1) > slots.length * 3 / 4) {
+			resize();
+			slot = find(edge);
+		}
+		slots[slot] = edge;
+		size++;
+		return true;
+	}
+
+	/**
+	 * @return number of edges in the set
+	 */
+	int size() {
+		return size;
+	}
+
+	private int find(long edge) {
+		int mask = slots.length - 1;
+		int slot = mix(edge) & mask;
+		while (slots[slot] != EMPTY && slots[slot] != edge) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void resize() {
+		long[] oldSlots = slots;
+		slots = newSlots(2 * oldSlots.length);
+		for (long edge : oldSlots) {
+			if (edge != EMPTY) {
+				slots[find(edge)] = edge;
+			}
+		}
+	}
+
+	private static long[] newSlots(int capacity) {
+		long[] slots = new long[capacity];
+		Arrays.fill(slots, EMPTY);
+		return slots;
+	}
+
+	private static int mix(long edge) {
+		long h = edge * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
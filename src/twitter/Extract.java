@@ -1,6 +1,8 @@
 package twitter;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Extract consists of methods that extract information from a list of tweets.
@@ -19,19 +21,16 @@ public class Extract {
 	 * every tweet in the list.
 	 */
 	public static Timespan getTimespan(List<Tweet> tweets) {
-		List<TimeInterval> timeIntervals = new ArrayList<>(1000);
-
-		Collections.sort(tweets, new SortByTimestamp());
-		int length = tweets.size();
-		for (int i = 0; i < length - 1; i++) {
-			timeIntervals.add(new TimeInterval(tweets.get(i), tweets.get(i + 1)));
+		if (tweets.isEmpty()) {
+			throw new IllegalArgumentException("requires at least one tweet");
 		}
 
-		Collections.sort(timeIntervals);
-		TimeInterval timeInterval = timeIntervals.get(0);
-		Timespan timespan = new Timespan(timeInterval.getTweet1().getTimestamp(), timeInterval.getTweet2().getTimestamp());
+		TimespanAccumulator accumulator = new TimespanAccumulator();
+		for (Tweet tweet : tweets) {
+			accumulator.accept(tweet);
+		}
 
-		return timespan;
+		return accumulator.toTimespan();
 	}
 
 	/**
@@ -49,76 +48,278 @@ public class Extract {
 	 * include a username at most once.
 	 */
 	public static Set<String> getMentionedUsers(List<Tweet> tweets) {
-		Set<String> mentionedUsernames = new HashSet<>();
+		Map<String, String> mentionedUsernames = new HashMap<>();
+		MentionScanner scanner = new MentionScanner();
 
 		for (Tweet tweet : tweets) {
-			mentionedUsernames.addAll(getMentionedUsersOfSingleTweet(tweet));
+			addMentionedUsers(scanner, tweet.getText(), mentionedUsernames);
 		}
 
-		return mentionedUsernames;
+		return new HashSet<>(mentionedUsernames.values());
 	}
 
-	public static Set<String> getMentionedUsersOfSingleTweet(Tweet tweet) {
-		Set<String> mentionedUsernames = new HashSet<>();
-		List<Integer> locationOfAtSymbol = getLocationOfAtSymbol(tweet);
-		String text = tweet.getText();
-		int sizeOfLocationOfAtSymbol = locationOfAtSymbol.size();
-		int start, end;
-
-		for (int i = 0; i < sizeOfLocationOfAtSymbol; i++) {
-			start = locationOfAtSymbol.get(i);
-			end = text.length();
-			if (i != sizeOfLocationOfAtSymbol - 1) {
-				end = locationOfAtSymbol.get(i + 1);
-			}
-			String mentionedUsername = generateMentionedUsernameBySingleIndex(text, start, end);
-			if (!mentionedUsername.isEmpty()) {
-				mentionedUsernames.add(mentionedUsername);
+	/**
+	 * Get the time period spanned by the tweets of a store, reading the
+	 * timestamp columns directly.
+	 *
+	 * @param store store of tweets with distinct ids, not modified by this method.
+	 * @return the same timespan as getTimespan(store.asList())
+	 */
+	public static Timespan getTimespan(TweetStore store) {
+		return getTimespanOfColumns(store);
+	}
+
+	/**
+	 * Get the time period spanned by the tweets of a segment, reading the
+	 * mapped timestamp columns directly.
+	 *
+	 * @param segment segment of tweets with distinct ids.
+	 * @return the same timespan as getTimespan(segment.asList())
+	 */
+	public static Timespan getTimespan(TweetSegment segment) {
+		return getTimespanOfColumns(segment);
+	}
+
+	private static Timespan getTimespanOfColumns(TweetColumns columns) {
+		if (columns.size() == 0) {
+			throw new IllegalArgumentException("requires at least one tweet");
+		}
+
+		TimespanAccumulator accumulator = new TimespanAccumulator();
+		for (int i = 0; i < columns.size(); i++) {
+			if (!columns.hasTimestamp(i)) {
+				throw new NullPointerException("timestamp of tweet is null");
 			}
+			accumulator.accept(columns.getEpochSecond(i), columns.getNano(i));
+		}
+
+		return accumulator.toTimespan();
+	}
+
+	/**
+	 * Get usernames mentioned in the tweets of a store, scanning the stored
+	 * UTF-8 text without decoding it.
+	 *
+	 * @param store store of tweets with distinct ids, not modified by this method.
+	 * @return the same set as getMentionedUsers(store.asList())
+	 */
+	public static Set<String> getMentionedUsers(TweetStore store) {
+		return getMentionedUsersOfColumns(store);
+	}
+
+	/**
+	 * Get usernames mentioned in the tweets of a segment, scanning the mapped
+	 * UTF-8 text without copying or decoding it.
+	 *
+	 * @param segment segment of tweets with distinct ids.
+	 * @return the same set as getMentionedUsers(segment.asList())
+	 */
+	public static Set<String> getMentionedUsers(TweetSegment segment) {
+		return getMentionedUsersOfColumns(segment);
+	}
+
+	private static Set<String> getMentionedUsersOfColumns(TweetColumns columns) {
+		Map<String, String> mentionedUsernames = new HashMap<>();
+		MentionScanner scanner = new MentionScanner();
+		Utf8Text text = new Utf8Text();
+
+		for (int i = 0; i < columns.size(); i++) {
+			addMentionedUsers(scanner, columns.rawText(i, text), mentionedUsernames);
 		}
-		return mentionedUsernames;
+
+		return new HashSet<>(mentionedUsernames.values());
 	}
 
+	/**
+	 * Get usernames mentioned in a list of tweets, splitting the work across the
+	 * threads of a fork-join pool.
+	 *
+	 * @param tweets list of tweets with distinct ids, not modified by this method.
+	 * @param pool   pool that runs the extraction
+	 * @return the same set as getMentionedUsers(tweets)
+	 */
+	public static Set<String> getMentionedUsersParallel(List<Tweet> tweets, ForkJoinPool pool) {
+		return getMentionedUsersParallel(tweets, pool, DEFAULT_SEQUENTIAL_CUTOFF);
+	}
 
-	private static String generateMentionedUsernameBySingleIndex(String text, Integer start, Integer end) {
-		StringBuilder mentionedUsername = new StringBuilder();
-		if (start + 1 == text.length() - 1) {
-			return mentionedUsername.toString();
+	/**
+	 * Get usernames mentioned in a list of tweets, splitting the work across the
+	 * threads of a fork-join pool.
+	 *
+	 * @param tweets           list of tweets with distinct ids, not modified by this method.
+	 * @param pool             pool that runs the extraction
+	 * @param sequentialCutoff number of tweets at or below which a chunk is
+	 *                         scanned on one thread, requires sequentialCutoff > 0
+	 * @return the same set as getMentionedUsers(tweets)
+	 */
+	public static Set<String> getMentionedUsersParallel(List<Tweet> tweets, ForkJoinPool pool, int sequentialCutoff) {
+		if (sequentialCutoff <= 0) {
+			throw new IllegalArgumentException("requires sequentialCutoff > 0");
 		}
+		List<Tweet> randomAccessTweets = tweets instanceof RandomAccess ? tweets : new ArrayList<>(tweets);
+		Map<String, String> mentionedUsernames = pool.invoke(
+				new MentionedUsersTask(randomAccessTweets, 0, randomAccessTweets.size(), sequentialCutoff));
+		return new HashSet<>(mentionedUsernames.values());
+	}
 
-		for (int i = start + 1; i < end; i++) {
-			char character = text.charAt(i);
-			if (isRequiredCharacter(character)) {
-				mentionedUsername.append(character);
-			}
-			if (!isRequiredCharacter(character) && character == ' ') {
-				break;
-			}
-			if (!isRequiredCharacter(character) && character != ' ') {
-				mentionedUsername = new StringBuilder();
-				break;
+	public static Set<String> getMentionedUsersOfSingleTweet(Tweet tweet) {
+		Map<String, String> mentionedUsernames = new HashMap<>();
+		addMentionedUsers(new MentionScanner(), tweet.getText(), mentionedUsernames);
+		return new HashSet<>(mentionedUsernames.values());
+	}
+
+	/**
+	 * Add the mentions in a tweet text to a map from case-folded username to
+	 * the spelling it was first mentioned with.
+	 */
+	private static void addMentionedUsers(MentionScanner scanner, CharSequence text, Map<String, String> mentionedUsernames) {
+		int numberOfMentions = scanner.scan(text);
+		for (int i = 0; i < numberOfMentions; i++) {
+			String mentionedUsername = scanner.getMention(i);
+			mentionedUsernames.putIfAbsent(UsernameDictionary.fold(mentionedUsername), mentionedUsername);
+		}
+	}
+
+	/**
+	 * Estimate how many distinct usernames are mentioned in a list of tweets,
+	 * using a fixed amount of memory.
+	 *
+	 * @param tweets list of tweets with distinct ids, not modified by this method.
+	 * @return an estimate of getMentionedUsers(tweets).size(), with a standard
+	 * error of about 1.6%
+	 */
+	public static long estimateMentionedUserCount(List<Tweet> tweets) {
+		return estimateMentionedUserCount(tweets, HyperLogLog.DEFAULT_PRECISION);
+	}
+
+	/**
+	 * Estimate how many distinct usernames are mentioned in a list of tweets,
+	 * using a fixed amount of memory.
+	 *
+	 * @param tweets    list of tweets with distinct ids, not modified by this method.
+	 * @param precision precision of the HyperLogLog sketch used, see HyperLogLog
+	 * @return an estimate of getMentionedUsers(tweets).size()
+	 */
+	public static long estimateMentionedUserCount(List<Tweet> tweets, int precision) {
+		HyperLogLog sketch = new HyperLogLog(precision);
+		sketchMentionedUsers(tweets, sketch);
+		return sketch.estimate();
+	}
+
+	/**
+	 * Add the usernames mentioned in a list of tweets to a sketch, so counts
+	 * can be kept over a stream or across shards and merged later.
+	 *
+	 * @param tweets list of tweets with distinct ids, not modified by this method.
+	 * @param sketch sketch the case-folded usernames are added to
+	 */
+	public static void sketchMentionedUsers(List<Tweet> tweets, HyperLogLog sketch) {
+		MentionScanner.SpanConsumer addToSketch = (text, offset, length) ->
+				sketch.addHash(HyperLogLog.hashIgnoreCase(text, offset, length));
+		for (Tweet tweet : tweets) {
+			MentionScanner.scan(tweet.getText(), addToSketch);
+		}
+	}
+
+	/**
+	 * Get hashtags used in a list of tweets.
+	 *
+	 * @param tweets list of tweets with distinct ids, not modified by this method.
+	 * @return the set of tags (without the "#") used in the text of the tweets,
+	 * as defined by MentionScanner. Hashtags are case-insensitive, and the
+	 * returned set includes a tag at most once, spelled as it first appears.
+	 */
+	public static Set<String> getHashtags(List<Tweet> tweets) {
+		Map<String, String> hashtags = new HashMap<>();
+		MentionScanner scanner = new MentionScanner();
+
+		for (Tweet tweet : tweets) {
+			scanner.scanWithHashtags(tweet.getText());
+			int numberOfHashtags = scanner.hashtagCount();
+			for (int i = 0; i < numberOfHashtags; i++) {
+				String hashtag = scanner.getHashtag(i);
+				hashtags.putIfAbsent(TextScanner.toUpperCase(hashtag), hashtag);
 			}
 		}
 
-		return mentionedUsername.toString();
+		return new HashSet<>(hashtags.values());
 	}
 
-	private static List<Integer> getLocationOfAtSymbol(Tweet tweet) {
-		List<Integer> locationOfAtSymbol = new ArrayList<>(1000);
+	/**
+	 * Count the uses of each hashtag in a list of tweets.
+	 *
+	 * @param tweets list of tweets with distinct ids, not modified by this method.
+	 * @return map from each upper-cased tag (without the "#") used in the text of
+	 * the tweets to the number of times it is used, counting every occurrence.
+	 */
+	public static StringIntMap countHashtags(List<Tweet> tweets) {
+		StringIntMap counts = new StringIntMap();
+		MentionScanner scanner = new MentionScanner();
 
-		for (int i = 0; i < tweet.getText().length(); i++) {
-			char character = tweet.getText().charAt(i);
-			if (character == '@') {
-				locationOfAtSymbol.add(i);
+		for (Tweet tweet : tweets) {
+			scanner.scanWithHashtags(tweet.getText());
+			int numberOfHashtags = scanner.hashtagCount();
+			for (int i = 0; i < numberOfHashtags; i++) {
+				counts.addTo(TextScanner.toUpperCase(scanner.getHashtag(i)), 1);
 			}
 		}
-		return locationOfAtSymbol;
+
+		return counts;
 	}
 
-	private static boolean isRequiredCharacter(char c) {
-		if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_')
-			return true;
-		return false;
+	private static final int DEFAULT_SEQUENTIAL_CUTOFF = 1024;
+
+	/**
+	 * Extracts the mentions of tweets[start..end) into a map from case-folded
+	 * username to first spelling, forking halves until a chunk is no larger than
+	 * the cutoff. Halves are merged so that the left (earlier) spelling wins,
+	 * which gives the same map as a sequential scan.
+	 */
+	private static class MentionedUsersTask extends RecursiveTask<Map<String, String>> {
+		private static final long serialVersionUID = 1L;
+
+		private final List<Tweet> tweets;
+		private final int start;
+		private final int end;
+		private final int sequentialCutoff;
+
+		MentionedUsersTask(List<Tweet> tweets, int start, int end, int sequentialCutoff) {
+			this.tweets = tweets;
+			this.start = start;
+			this.end = end;
+			this.sequentialCutoff = sequentialCutoff;
+		}
+
+		@Override
+		protected Map<String, String> compute() {
+			if (end - start <= sequentialCutoff) {
+				Map<String, String> mentionedUsernames = new HashMap<>();
+				MentionScanner scanner = new MentionScanner();
+				for (int i = start; i < end; i++) {
+					addMentionedUsers(scanner, tweets.get(i).getText(), mentionedUsernames);
+				}
+				return mentionedUsernames;
+			}
+
+			int middle = (start + end) >>> 1;
+			MentionedUsersTask left = new MentionedUsersTask(tweets, start, middle, sequentialCutoff);
+			MentionedUsersTask right = new MentionedUsersTask(tweets, middle, end, sequentialCutoff);
+			left.fork();
+			Map<String, String> rightResult = right.compute();
+			Map<String, String> leftResult = left.join();
+			return merge(leftResult, rightResult);
+		}
+
+		private static Map<String, String> merge(Map<String, String> left, Map<String, String> right) {
+			if (left.size() >= right.size()) {
+				for (Map.Entry<String, String> entry : right.entrySet()) {
+					left.putIfAbsent(entry.getKey(), entry.getValue());
+				}
+				return left;
+			}
+			right.putAll(left);
+			return right;
+		}
 	}
 
 	/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
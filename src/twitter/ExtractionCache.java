@@ -0,0 +1,192 @@
+package twitter;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ExtractionCache remembers, per tweet id, the results of parsing a tweet's
+ * text: its case-folded mentioned usernames and its case-folded words.
+ * <p>
+ * Passing the same cache to SocialNetwork.guessFollowsGraph() or
+ * Filter.containing() on overlapping lists of tweets means each tweet is only
+ * parsed once while it stays cached.
+ * <p>
+ * The cache holds at most maxEntries tweets. It is split into segments, each
+ * holding an access-ordered LinkedHashMap guarded by its own lock, and a segment evicts
+ * its least recently used tweet when it is full; eviction is therefore LRU
+ * within a segment and approximately LRU overall.
+ * <p>
+ * An ExtractionCache is safe for use by multiple threads.
+ */
+public class ExtractionCache {
+
+	private static final int MAX_SEGMENTS = 16;
+
+	private final Segment[] segments;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Make an empty cache.
+	 *
+	 * @param maxEntries maximum number of tweets to remember, > 0
+	 */
+	public ExtractionCache(int maxEntries) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("requires maxEntries > 0");
+		}
+		int numberOfSegments = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maxEntries));
+		segments = new Segment[numberOfSegments];
+		for (int i = 0; i < numberOfSegments; i++) {
+			int capacity = maxEntries / numberOfSegments + (i < maxEntries % numberOfSegments ? 1 : 0);
+			segments[i] = new Segment(capacity);
+		}
+	}
+
+	/**
+	 * Get the usernames mentioned in a tweet.
+	 *
+	 * @param tweet a tweet
+	 * @return unmodifiable set of the upper-cased usernames mentioned in the
+	 * tweet's text, as found by Extract.getMentionedUsersOfSingleTweet().
+	 */
+	public Set<String> getMentionedUsers(Tweet tweet) {
+		Parsed entry = entryFor(tweet);
+		Set<String> mentionedUsers = entry.mentionedUsers;
+		if (mentionedUsers == null) {
+			misses.increment();
+			mentionedUsers = Collections.unmodifiableSet(extractMentionedUsers(tweet.getText()));
+			entry.mentionedUsers = mentionedUsers;
+		} else {
+			hits.increment();
+		}
+		return mentionedUsers;
+	}
+
+	/**
+	 * Get the words of a tweet, as compared by Filter.containing().
+	 *
+	 * @param tweet a tweet with nonempty text
+	 * @return unmodifiable set of the upper-cased words of the tweet's text
+	 */
+	public Set<String> getWords(Tweet tweet) {
+		Parsed entry = entryFor(tweet);
+		Set<String> words = entry.words;
+		if (words == null) {
+			misses.increment();
+			words = Collections.unmodifiableSet(Filter.getUppercaseWordsOfText(tweet.getText()));
+			entry.words = words;
+		} else {
+			hits.increment();
+		}
+		return words;
+	}
+
+	/**
+	 * @return number of lookups answered from the cache
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return number of lookups that had to parse the tweet
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return number of tweets dropped from the cache to make room
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * @return number of tweets currently cached
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.entries.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Drop every cached tweet. The counters are kept.
+	 */
+	public void clear() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.entries.clear();
+			}
+		}
+	}
+
+	private Parsed entryFor(Tweet tweet) {
+		long id = tweet.getId();
+		Segment segment = segments[(int) (mix(id) & (segments.length - 1))];
+		String text = tweet.getText();
+		synchronized (segment) {
+			Parsed entry = segment.entries.get(id);
+			// a different text under the same id means the caller reused an id; don't trust the old entry
+			if (entry == null || !(entry.text == text || entry.text.equals(text))) {
+				entry = new Parsed(text);
+				segment.entries.put(id, entry);
+				if (segment.entries.size() > segment.capacity) {
+					Iterator<Parsed> eldest = segment.entries.values().iterator();
+					eldest.next();
+					eldest.remove();
+					evictions.increment();
+				}
+			}
+			return entry;
+		}
+	}
+
+	private static Set<String> extractMentionedUsers(String text) {
+		Set<String> mentionedUsers = new HashSet<>();
+		MentionScanner.scan(text, (scanned, offset, length) ->
+				mentionedUsers.add(UsernameDictionary.fold(scanned.subSequence(offset, offset + length).toString())));
+		return mentionedUsers;
+	}
+
+	private static long mix(long id) {
+		long h = id * 0x9E3779B97F4A7C15L;
+		return h ^ (h >>> 32);
+	}
+
+	/**
+	 * Parsed parts of one tweet, each filled in on first use.
+	 */
+	private static class Parsed {
+		private final String text;
+		private volatile Set<String> mentionedUsers;
+		private volatile Set<String> words;
+
+		Parsed(String text) {
+			this.text = text;
+		}
+	}
+
+	/**
+	 * The tweets of one lock stripe, least recently used first.
+	 */
+	private static class Segment {
+		private final LinkedHashMap<Long, Parsed> entries = new LinkedHashMap<>(16, 0.75f, true);
+		private final int capacity;
+
+		Segment(int capacity) {
+			this.capacity = capacity;
+		}
+	}
+}
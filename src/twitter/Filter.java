@@ -4,6 +4,9 @@ import twitter.exception.*;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Filter consists of methods that filter a list of tweets for those matching a
@@ -15,6 +18,9 @@ import java.util.*;
  */
 public class Filter {
 
+	private static final Comparator<Tweet> BY_TIME_THEN_ID =
+			Comparator.comparing(Tweet::getTimestamp).thenComparingLong(Tweet::getId);
+
 	/**
 	 * Find tweets written by a particular user.
 	 *
@@ -32,21 +38,61 @@ public class Filter {
 		}
 
 		for (Tweet tweet : tweets) {
-			String author = tweet.getAuthor();
-			if (author == null || author.isEmpty()) {
-				throw new NullOrEmptyAuthorException("author name of tweet is null or empty string");
+			if (isWrittenBy(tweet, username)) {
+				result.add(tweet);
 			}
+		}
 
-			if (!isRequiredUsername(author)) {
-				throw new UnqualifiedUsernameException("unqualified author name");
-			}
+		return result;
+	}
 
-			if (author.equalsIgnoreCase(username)) {
-				result.add(tweet);
+	/**
+	 * Find tweets written by a particular user, lazily.
+	 *
+	 * @param tweets   a stream of tweets with distinct ids
+	 * @param username Twitter username, required to be a valid Twitter username as
+	 *                 defined by Tweet.getAuthor()'s spec.
+	 * @return a stream of all and only the tweets of the input stream whose
+	 * author is username, in the same order. An author that is null, empty or
+	 * not a valid username raises UncheckedTweetException, wrapping the
+	 * exception writtenBy(List, String) would throw, when the stream reaches
+	 * that tweet.
+	 */
+	public static Stream<Tweet> writtenBy(Stream<Tweet> tweets, String username) throws UnqualifiedUsernameException {
+		if (!isRequiredUsername(username)) {
+			throw new UnqualifiedUsernameException("unqualified username");
+		}
+		return tweets.filter(tweet -> {
+			try {
+				return isWrittenBy(tweet, username);
+			} catch (NullOrEmptyAuthorException | UnqualifiedUsernameException e) {
+				throw new UncheckedTweetException(e);
 			}
+		});
+	}
+
+	/**
+	 * Find tweets written by a particular user, lazily.
+	 *
+	 * @param tweets   an iterator of tweets with distinct ids
+	 * @param username Twitter username, as for writtenBy(Stream, String)
+	 * @return an iterator of the tweets writtenBy(Stream, String) would stream
+	 */
+	public static Iterator<Tweet> writtenBy(Iterator<Tweet> tweets, String username) throws UnqualifiedUsernameException {
+		return writtenBy(streamOf(tweets), username).iterator();
+	}
+
+	private static boolean isWrittenBy(Tweet tweet, String username) throws NullOrEmptyAuthorException, UnqualifiedUsernameException {
+		String author = tweet.getAuthor();
+		if (author == null || author.isEmpty()) {
+			throw new NullOrEmptyAuthorException("author name of tweet is null or empty string");
 		}
 
-		return result;
+		if (!isRequiredUsername(author)) {
+			throw new UnqualifiedUsernameException("unqualified author name");
+		}
+
+		return author.equalsIgnoreCase(username);
 	}
 
 	public static boolean isRequiredUsername(String username) {
@@ -79,23 +125,58 @@ public class Filter {
 		}
 
 		for (Tweet tweet : tweets) {
-			Instant timestamp = tweet.getTimestamp();
-			Instant start = timespan.getStart();
-			Instant end = timespan.getEnd();
-			if (timestamp == null) {
-				throw new NullTimestampException("timestamp of tweet is null");
-			}
-
-			if (timestamp.equals(start) || timestamp.equals(end)) {
+			if (isInTimespan(tweet, timespan)) {
 				result.add(tweet);
 			}
+		}
 
-			if (timestamp.isAfter(start) && timestamp.isBefore(end)) {
-				result.add(tweet);
+		return result;
+	}
+
+	/**
+	 * Find tweets that were sent during a particular timespan, lazily.
+	 *
+	 * @param tweets   a stream of tweets with distinct ids
+	 * @param timespan timespan
+	 * @return a stream of all and only the tweets of the input stream that were
+	 * sent during the timespan, in the same order. A null timestamp raises
+	 * UncheckedTweetException, wrapping a NullTimestampException, when the
+	 * stream reaches that tweet.
+	 */
+	public static Stream<Tweet> inTimespan(Stream<Tweet> tweets, Timespan timespan) throws NullTimestampException {
+		if (timespan == null) {
+			throw new NullTimestampException("timestamp of timespan is null");
+		}
+		return tweets.filter(tweet -> {
+			try {
+				return isInTimespan(tweet, timespan);
+			} catch (NullTimestampException e) {
+				throw new UncheckedTweetException(e);
 			}
+		});
+	}
+
+	/**
+	 * Find tweets that were sent during a particular timespan, lazily.
+	 *
+	 * @param tweets   an iterator of tweets with distinct ids
+	 * @param timespan timespan
+	 * @return an iterator of the tweets inTimespan(Stream, Timespan) would stream
+	 */
+	public static Iterator<Tweet> inTimespan(Iterator<Tweet> tweets, Timespan timespan) throws NullTimestampException {
+		return inTimespan(streamOf(tweets), timespan).iterator();
+	}
+
+	private static boolean isInTimespan(Tweet tweet, Timespan timespan) throws NullTimestampException {
+		Instant timestamp = tweet.getTimestamp();
+		Instant start = timespan.getStart();
+		Instant end = timespan.getEnd();
+		if (timestamp == null) {
+			throw new NullTimestampException("timestamp of tweet is null");
 		}
 
-		return result;
+		return timestamp.equals(start) || timestamp.equals(end)
+				|| (timestamp.isAfter(start) && timestamp.isBefore(end));
 	}
 
 	/**
@@ -112,27 +193,40 @@ public class Filter {
 	 * same order as in the input list.
 	 */
 	public static List<Tweet> containing(List<Tweet> tweets, List<String> words) throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		return containing(tweets, words, null);
+	}
+
+	/**
+	 * Find tweets that contain certain words, taking the words of each tweet
+	 * from a cache when it has them.
+	 *
+	 * @param tweets a list of tweets with distinct ids, not modified by this method.
+	 * @param words  a list of words to search for in the tweets.
+	 *               A word is a nonempty sequence of nonspace characters.
+	 * @param cache  cache of tweet words, or null to parse every tweet
+	 * @return the same list as containing(tweets, words)
+	 */
+	public static List<Tweet> containing(List<Tweet> tweets, List<String> words, ExtractionCache cache) throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
 		if (isWordsNullOrEmpty(words)) {
 			throw new NullOrEmptyWordException("words contain null or empty string");
 		}
 
+		if (cache == null) {
+			// scan each text once instead of splitting it into words
+			return new WordMatcher(words).filter(tweets);
+		}
+
 		List<Tweet> result = new ArrayList<Tweet>();
 		// convert the List<String> words to Set<String>
-		Set<String> wordsSet = new HashSet<String>(words);
-
+		Set<String> wordsSet = convertToUppercase(new HashSet<String>(words));
 
 		for (Tweet tweet : tweets) {
 			String text = tweet.getText();
 			if (text.isEmpty()) {
 				throw new NullOrEmptyTextOfTweetException("text of tweet is empty string");
 			}
-			List<String> splitedWords = getWordsFromText(text);
-			Set<String> wordsOfText = new HashSet<String>(splitedWords);
-			wordsOfText = convertToUppercase(wordsOfText);
-			wordsSet = convertToUppercase(wordsSet);
-			Set<String> intersection = new HashSet<String>(wordsOfText); // use the copy constructor
-			intersection.retainAll(wordsSet);
-			if (!intersection.isEmpty()) {
+			Set<String> wordsOfText = cache.getWords(tweet);
+			if (!Collections.disjoint(wordsOfText, wordsSet)) {
 				result.add(tweet);
 			}
 		}
@@ -140,7 +234,373 @@ public class Filter {
 		return result;
 	}
 
-	private static boolean isWordsNullOrEmpty(List<String> words) throws NullOrEmptyWordException {
+	/**
+	 * Find tweets that contain certain words, lazily.
+	 *
+	 * @param tweets a stream of tweets with distinct ids
+	 * @param words  a list of words to search for in the tweets.
+	 *               A word is a nonempty sequence of nonspace characters.
+	 * @return a stream of all and only the tweets of the input stream that
+	 * containing(List, List) would return, in the same order. An empty text
+	 * raises UncheckedTweetException, wrapping a
+	 * NullOrEmptyTextOfTweetException, when the stream reaches that tweet.
+	 */
+	public static Stream<Tweet> containing(Stream<Tweet> tweets, List<String> words) throws NullOrEmptyWordException {
+		WordMatcher matcher = new WordMatcher(words);
+		return tweets.filter(tweet -> {
+			try {
+				return matcher.matches(tweet);
+			} catch (NullOrEmptyTextOfTweetException e) {
+				throw new UncheckedTweetException(e);
+			}
+		});
+	}
+
+	/**
+	 * Find tweets that contain certain words, lazily.
+	 *
+	 * @param tweets an iterator of tweets with distinct ids
+	 * @param words  a list of words, as for containing(Stream, List)
+	 * @return an iterator of the tweets containing(Stream, List) would stream
+	 */
+	public static Iterator<Tweet> containing(Iterator<Tweet> tweets, List<String> words) throws NullOrEmptyWordException {
+		return containing(streamOf(tweets), words).iterator();
+	}
+
+	private static Stream<Tweet> streamOf(Iterator<Tweet> tweets) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(tweets, Spliterator.ORDERED), false);
+	}
+
+	/**
+	 * Find tweets of a store written by a particular user, checking each
+	 * distinct author spelling only once.
+	 *
+	 * @param store    store of tweets with distinct ids, not modified by this method.
+	 * @param username Twitter username, required to be a valid Twitter username as
+	 *                 defined by Tweet.getAuthor()'s spec.
+	 * @return the same list as writtenBy(store.asList(), username)
+	 */
+	public static List<Tweet> writtenBy(TweetStore store, String username) throws UnqualifiedUsernameException, NullOrEmptyAuthorException {
+		return writtenByColumns(store, username);
+	}
+
+	/**
+	 * Find tweets of a segment written by a particular user, checking each
+	 * distinct author spelling only once.
+	 *
+	 * @param segment  segment of tweets with distinct ids.
+	 * @param username Twitter username, required to be a valid Twitter username as
+	 *                 defined by Tweet.getAuthor()'s spec.
+	 * @return the same list as writtenBy(segment.asList(), username)
+	 */
+	public static List<Tweet> writtenBy(TweetSegment segment, String username) throws UnqualifiedUsernameException, NullOrEmptyAuthorException {
+		return writtenByColumns(segment, username);
+	}
+
+	private static List<Tweet> writtenByColumns(TweetColumns columns, String username) throws UnqualifiedUsernameException, NullOrEmptyAuthorException {
+		if (!isRequiredUsername(username)) {
+			throw new UnqualifiedUsernameException("unqualified username");
+		}
+
+		boolean[] qualified = new boolean[columns.getAuthorCount()];
+		for (int a = 0; a < qualified.length; a++) {
+			qualified[a] = isRequiredUsername(columns.getAuthorName(a));
+		}
+		int wanted = columns.lookupFoldedAuthorId(username);
+
+		List<Tweet> result = new ArrayList<>();
+		for (int i = 0; i < columns.size(); i++) {
+			int authorId = columns.getAuthorId(i);
+			if (authorId < 0 || columns.getAuthorName(authorId).isEmpty()) {
+				throw new NullOrEmptyAuthorException("author name of tweet is null or empty string");
+			}
+			if (!qualified[authorId]) {
+				throw new UnqualifiedUsernameException("unqualified author name");
+			}
+			if (columns.getFoldedAuthorId(authorId) == wanted) {
+				result.add(columns.get(i));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Find tweets of a store that were sent during a particular timespan,
+	 * comparing the timestamp columns directly.
+	 *
+	 * @param store    store of tweets with distinct ids, not modified by this method.
+	 * @param timespan timespan
+	 * @return the same list as inTimespan(store.asList(), timespan)
+	 */
+	public static List<Tweet> inTimespan(TweetStore store, Timespan timespan) throws NullTimestampException {
+		return inTimespanOfColumns(store, timespan);
+	}
+
+	/**
+	 * Find tweets of a segment that were sent during a particular timespan,
+	 * comparing the mapped timestamp columns directly.
+	 *
+	 * @param segment  segment of tweets with distinct ids.
+	 * @param timespan timespan
+	 * @return the same list as inTimespan(segment.asList(), timespan)
+	 */
+	public static List<Tweet> inTimespan(TweetSegment segment, Timespan timespan) throws NullTimestampException {
+		return inTimespanOfColumns(segment, timespan);
+	}
+
+	private static List<Tweet> inTimespanOfColumns(TweetColumns columns, Timespan timespan) throws NullTimestampException {
+		if (timespan == null) {
+			throw new NullTimestampException("timestamp of timespan is null");
+		}
+		long startSecond = timespan.getStart().getEpochSecond();
+		int startNano = timespan.getStart().getNano();
+		long endSecond = timespan.getEnd().getEpochSecond();
+		int endNano = timespan.getEnd().getNano();
+
+		List<Tweet> result = new ArrayList<>();
+		for (int i = 0; i < columns.size(); i++) {
+			if (!columns.hasTimestamp(i)) {
+				throw new NullTimestampException("timestamp of tweet is null");
+			}
+			long second = columns.getEpochSecond(i);
+			int nano = columns.getNano(i);
+			boolean afterStart = second > startSecond || (second == startSecond && nano >= startNano);
+			boolean beforeEnd = second < endSecond || (second == endSecond && nano <= endNano);
+			if (afterStart && beforeEnd) {
+				result.add(columns.get(i));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Find tweets of a store that contain certain words, scanning the stored
+	 * UTF-8 text without decoding it when it is ASCII.
+	 *
+	 * @param store store of tweets with distinct ids, not modified by this method.
+	 * @param words a list of words to search for in the tweets.
+	 *              A word is a nonempty sequence of nonspace characters.
+	 * @return the same list as containing(store.asList(), words)
+	 */
+	public static List<Tweet> containing(TweetStore store, List<String> words) throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		return containingOfColumns(store, words);
+	}
+
+	/**
+	 * Find tweets of a segment that contain certain words, scanning the mapped
+	 * UTF-8 text without copying or decoding it when it is ASCII.
+	 *
+	 * @param segment segment of tweets with distinct ids.
+	 * @param words   a list of words to search for in the tweets.
+	 *                A word is a nonempty sequence of nonspace characters.
+	 * @return the same list as containing(segment.asList(), words)
+	 */
+	public static List<Tweet> containing(TweetSegment segment, List<String> words) throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		return containingOfColumns(segment, words);
+	}
+
+	private static List<Tweet> containingOfColumns(TweetColumns columns, List<String> words) throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		WordMatcher matcher = new WordMatcher(words);
+		Utf8Text text = new Utf8Text();
+
+		List<Tweet> result = new ArrayList<>();
+		for (int i = 0; i < columns.size(); i++) {
+			columns.rawText(i, text);
+			if (text.length() == 0) {
+				throw new NullOrEmptyTextOfTweetException("text of tweet is empty string");
+			}
+			if (matcher.matches(columns.isAsciiText(i) ? text : columns.getText(i))) {
+				result.add(columns.get(i));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Find the most recent tweets satisfying a condition, newest first.
+	 * <p>
+	 * If the list is in time order (oldest or newest first), it is walked from
+	 * its newest end and the walk stops once n tweets satisfy the condition, so
+	 * the condition only runs on the newest tweets. Otherwise every tweet is
+	 * tested and the n newest matches are kept in a bounded heap.
+	 * <p>
+	 * Either way the list is first read once from end to end, to check its
+	 * timestamps and find whether it is in time order, so the cost stays linear
+	 * in the size of the list; the walk only saves calls of the condition. To
+	 * read only the newest tweets, use latest(TimeIndex, Predicate, int).
+	 *
+	 * @param tweets    a list of tweets with distinct ids, not modified by this method.
+	 * @param predicate condition on tweets
+	 * @param n         maximum number of tweets to return, >= 0
+	 * @return the min(n, m) newest of the m tweets in the list that satisfy
+	 * predicate, ordered by timestamp, newest first, and among equal timestamps
+	 * by id, greatest first
+	 * @throws NullTimestampException if a tweet's timestamp is null
+	 */
+	public static List<Tweet> latest(List<Tweet> tweets, Predicate<Tweet> predicate, int n) throws NullTimestampException {
+		if (n < 0) {
+			throw new IllegalArgumentException("requires n >= 0");
+		}
+		List<Tweet> list = tweets instanceof RandomAccess ? tweets : new ArrayList<>(tweets);
+		boolean ascending = true;
+		boolean descending = true;
+		for (int i = 0; i < list.size(); i++) {
+			if (list.get(i).getTimestamp() == null) {
+				throw new NullTimestampException("timestamp of tweet is null");
+			}
+			if (i > 0) {
+				int order = list.get(i - 1).getTimestamp().compareTo(list.get(i).getTimestamp());
+				ascending &= order <= 0;
+				descending &= order >= 0;
+			}
+		}
+		if (n == 0) {
+			return new ArrayList<>();
+		}
+		if (ascending || descending) {
+			return latestInTimeOrder(descending ? list.iterator() : reversed(list), predicate, n);
+		}
+
+		// min-heap of the n newest matches so far, oldest on top
+		PriorityQueue<Tweet> newest = new PriorityQueue<>(Math.max(1, Math.min(n, list.size())), BY_TIME_THEN_ID);
+		for (Tweet tweet : list) {
+			if (newest.size() < n) {
+				if (predicate.test(tweet)) {
+					newest.add(tweet);
+				}
+			} else if (BY_TIME_THEN_ID.compare(tweet, newest.peek()) > 0 && predicate.test(tweet)) {
+				newest.poll();
+				newest.add(tweet);
+			}
+		}
+		List<Tweet> result = new ArrayList<>(newest);
+		result.sort(BY_TIME_THEN_ID.reversed());
+		return result;
+	}
+
+	/**
+	 * Find the most recent indexed tweets satisfying a condition, newest first.
+	 * <p>
+	 * The index is walked from its newest tweet and the walk stops once n
+	 * tweets satisfy the condition, so only the newest tweets are read, not
+	 * the whole index.
+	 *
+	 * @param index     index of tweets with distinct ids, not modified by this method.
+	 * @param predicate condition on tweets
+	 * @param n         maximum number of tweets to return, >= 0
+	 * @return latest(tweets, predicate, n) for the list of tweets in the index
+	 */
+	public static List<Tweet> latest(TimeIndex index, Predicate<Tweet> predicate, int n) {
+		if (n < 0) {
+			throw new IllegalArgumentException("requires n >= 0");
+		}
+		return latestInTimeOrder(index.newestFirst(), predicate, n);
+	}
+
+	/**
+	 * Find the most recent tweets written by a particular user, newest first,
+	 * as latest() finds them.
+	 *
+	 * @param tweets   a list of tweets with distinct ids, not modified by this method.
+	 * @param username Twitter username, required to be a valid Twitter username as
+	 *                 defined by Tweet.getAuthor()'s spec.
+	 * @param n        maximum number of tweets to return, >= 0
+	 * @return the min(n, m) newest of the m tweets of writtenBy(tweets, username),
+	 * in the order of latest(). Only the authors of the tweets tested are
+	 * checked, so a list in time order may hold invalid authors among its older
+	 * tweets.
+	 */
+	public static List<Tweet> latestWrittenBy(List<Tweet> tweets, String username, int n) throws UnqualifiedUsernameException,
+			NullOrEmptyAuthorException, NullTimestampException {
+		if (!isRequiredUsername(username)) {
+			throw new UnqualifiedUsernameException("unqualified username");
+		}
+		try {
+			return latest(tweets, tweet -> {
+				try {
+					return isWrittenBy(tweet, username);
+				} catch (NullOrEmptyAuthorException | UnqualifiedUsernameException e) {
+					throw new UncheckedTweetException(e);
+				}
+			}, n);
+		} catch (UncheckedTweetException e) {
+			if (e.getCause() instanceof NullOrEmptyAuthorException) {
+				throw (NullOrEmptyAuthorException) e.getCause();
+			}
+			throw (UnqualifiedUsernameException) e.getCause();
+		}
+	}
+
+	/**
+	 * Find the most recent tweets that contain certain words, newest first,
+	 * as latest() finds them.
+	 *
+	 * @param tweets a list of tweets with distinct ids, not modified by this method.
+	 * @param words  a list of words to search for in the tweets.
+	 *               A word is a nonempty sequence of nonspace characters.
+	 * @param n      maximum number of tweets to return, >= 0
+	 * @return the min(n, m) newest of the m tweets of containing(tweets, words),
+	 * in the order of latest(). Only the texts of the tweets tested are checked.
+	 */
+	public static List<Tweet> latestContaining(List<Tweet> tweets, List<String> words, int n) throws NullOrEmptyWordException,
+			NullOrEmptyTextOfTweetException, NullTimestampException {
+		WordMatcher matcher = new WordMatcher(words);
+		try {
+			return latest(tweets, tweet -> {
+				try {
+					return matcher.matches(tweet);
+				} catch (NullOrEmptyTextOfTweetException e) {
+					throw new UncheckedTweetException(e);
+				}
+			}, n);
+		} catch (UncheckedTweetException e) {
+			throw (NullOrEmptyTextOfTweetException) e.getCause();
+		}
+	}
+
+	/**
+	 * Walk tweets in descending order of timestamp until n tweets match.
+	 * Tweets with equal timestamps are tested together, so they can be ordered
+	 * by id.
+	 */
+	private static List<Tweet> latestInTimeOrder(Iterator<Tweet> newestFirst, Predicate<Tweet> predicate, int n) {
+		List<Tweet> result = new ArrayList<>();
+		List<Tweet> sameTime = new ArrayList<>();
+		Tweet next = newestFirst.hasNext() ? newestFirst.next() : null;
+		while (next != null && result.size() < n) {
+			Instant timestamp = next.getTimestamp();
+			sameTime.clear();
+			while (next != null && next.getTimestamp().equals(timestamp)) {
+				if (predicate.test(next)) {
+					sameTime.add(next);
+				}
+				next = newestFirst.hasNext() ? newestFirst.next() : null;
+			}
+			sameTime.sort(BY_TIME_THEN_ID.reversed());
+			result.addAll(sameTime.subList(0, Math.min(sameTime.size(), n - result.size())));
+		}
+		return result;
+	}
+
+	/**
+	 * @return an iterator over list from its last element to its first
+	 */
+	private static Iterator<Tweet> reversed(List<Tweet> list) {
+		ListIterator<Tweet> previous = list.listIterator(list.size());
+		return new Iterator<Tweet>() {
+			@Override
+			public boolean hasNext() {
+				return previous.hasPrevious();
+			}
+
+			@Override
+			public Tweet next() {
+				return previous.previous();
+			}
+		};
+	}
+
+	static boolean isWordsNullOrEmpty(List<String> words) {
 		for (String word : words) {
 			if (word == null || word.isEmpty()) {
 				return true;
@@ -154,13 +614,18 @@ public class Filter {
 		return false;
 	}
 
+	/**
+	 * @param text text of a tweet
+	 * @return the upper-cased words of text, as compared by containing()
+	 */
+	static Set<String> getUppercaseWordsOfText(String text) {
+		return convertToUppercase(new HashSet<String>(getWordsFromText(text)));
+	}
+
 	private static List<String> getWordsFromText(String text) {
 		List<String> result = new ArrayList<>();
-		String[] splitedWords = text.trim().split("\\s+");
-		int length = splitedWords.length;
-		if (length == 0) {
-			return null;
-		}
+		List<String> splitedWords = new ArrayList<>();
+		TextScanner.splitWords(text, splitedWords);
 		for (String word : splitedWords) {
 			String wordAfterExtracting = extractWord(word);
 			result.add(wordAfterExtracting);
@@ -185,7 +650,7 @@ public class Filter {
 	public static Set<String> convertToUppercase(Set<String> words) {
 		Set<String> result = new HashSet<>();
 		for (String word : words) {
-			result.add(word.toUpperCase());
+			result.add(TextScanner.toUpperCase(word));
 		}
 		return result;
 	}
@@ -0,0 +1,408 @@
+package twitter;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * FollowsGraph is an immutable social network, as defined in SocialNetwork,
+ * stored in compressed sparse rows.
+ * <p>
+ * Each person gets a dense int id from a UsernameDictionary, the authors first,
+ * so the people with ids below getAuthorCount() are the keys of the social
+ * network. The people author a follows are the ids
+ * targets[offsets[a] .. offsets[a + 1]), in ascending order, and a transposed
+ * copy of the rows lists the followers of every person the same way. An edge
+ * thus costs two ints instead of the boxed entries of a Map<String, Set<String>>,
+ * and the sorted rows let neighbour sets be intersected by merging them.
+ * <p>
+ * asMap() gives a read-only Map<String, Set<String>> view for callers of the
+ * social network, such as SocialNetwork.influencers(), that do not need the
+ * mutable copy SocialNetwork.guessFollowsGraph() returns.
+ * <p>
+ * A FollowsGraph is immutable, so it is safe for use by multiple threads.
+ */
+public class FollowsGraph {
+
+	private final UsernameDictionary names;
+	private final int numberOfPeople;
+	private final int numberOfAuthors;
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] followerOffsets;
+	private final int[] followers;
+	/* Rep invariant:
+	 *    the people of the graph have ids 0..numberOfPeople-1 of names, which
+	 *    may hold later ids of no concern to the graph, and the authors,
+	 *    the keys of the social network, are ids 0..numberOfAuthors-1
+	 *    offsets.length == numberOfAuthors + 1, offsets[0] == 0,
+	 *    offsets is non-decreasing, offsets[numberOfAuthors] == targets.length
+	 *    targets[offsets[a]..offsets[a+1]) are strictly ascending ids, none a
+	 *    followerOffsets.length == numberOfPeople + 1, and
+	 *    followers[followerOffsets[p]..followerOffsets[p+1]) are, ascending,
+	 *    the authors a whose row holds p
+	 */
+
+	/**
+	 * Make a graph from its rows.
+	 *
+	 * @param names           dictionary holding the ids of the people of the graph
+	 *                        and no others, authors first
+	 * @param numberOfAuthors number of authors
+	 * @param offsets         row offsets, as in the rep invariant; not copied
+	 * @param targets         rows, as in the rep invariant; not copied
+	 */
+	FollowsGraph(UsernameDictionary names, int numberOfAuthors, int[] offsets, int[] targets) {
+		this.names = names;
+		this.numberOfPeople = names.size();
+		this.numberOfAuthors = numberOfAuthors;
+		this.offsets = offsets;
+		this.targets = targets;
+
+		// transpose by counting sort; rows are visited in id order, so each
+		// person's followers come out ascending
+		followerOffsets = new int[numberOfPeople + 1];
+		for (int target : targets) {
+			followerOffsets[target + 1]++;
+		}
+		for (int p = 0; p < numberOfPeople; p++) {
+			followerOffsets[p + 1] += followerOffsets[p];
+		}
+		followers = new int[targets.length];
+		int[] next = Arrays.copyOf(followerOffsets, numberOfPeople);
+		for (int a = 0; a < numberOfAuthors; a++) {
+			for (int e = offsets[a]; e < offsets[a + 1]; e++) {
+				followers[next[targets[e]]++] = a;
+			}
+		}
+	}
+
+	/**
+	 * @return number of people in the graph, authors and people they follow
+	 */
+	public int size() {
+		return numberOfPeople;
+	}
+
+	/**
+	 * @return number of authors, the keys of the social network
+	 */
+	public int getAuthorCount() {
+		return numberOfAuthors;
+	}
+
+	/**
+	 * @return number of follow edges
+	 */
+	public int getEdgeCount() {
+		return targets.length;
+	}
+
+	/**
+	 * @param username Twitter username
+	 * @return the id of username, ignoring case, or -1 if it is not in the graph
+	 */
+	public int getId(String username) {
+		int id = names.lookup(username);
+		return id < numberOfPeople ? id : -1;
+	}
+
+	/**
+	 * @param id id of a person, 0 <= id < size()
+	 * @return the case-folded username of the person
+	 */
+	public String getName(int id) {
+		if (id < 0 || id >= numberOfPeople) {
+			throw new IndexOutOfBoundsException("person id " + id + " out of range 0.." + numberOfPeople);
+		}
+		return names.nameOf(id);
+	}
+
+	/**
+	 * @param follower Twitter username
+	 * @param followee Twitter username
+	 * @return true if follower follows followee, ignoring case
+	 */
+	public boolean follows(String follower, String followee) {
+		int a = getId(follower);
+		int b = getId(followee);
+		return a >= 0 && a < numberOfAuthors && b >= 0
+				&& Arrays.binarySearch(targets, offsets[a], offsets[a + 1], b) >= 0;
+	}
+
+	/**
+	 * @param id id of a person, 0 <= id < size()
+	 * @return number of authors following the person
+	 */
+	public int getFollowerCount(int id) {
+		return followerOffsets[id + 1] - followerOffsets[id];
+	}
+
+	/**
+	 * @param id id of a person, 0 <= id < size()
+	 * @return ids, ascending, of the people the person follows and who follow
+	 * the person back; empty if the person is not an author
+	 */
+	public int[] getMutualFollowers(int id) {
+		int[] result = new int[id < numberOfAuthors ? Math.min(offsets[id + 1] - offsets[id], getFollowerCount(id)) : 0];
+		return Arrays.copyOf(result, getMutualFollowers(id, result));
+	}
+
+	/**
+	 * @param id     id of a person, 0 <= id < size()
+	 * @param result array to hold the mutual followers, with room for at
+	 *               least min(number followed, number of followers) ids
+	 * @return number of mutual followers of the person, which are written
+	 * ascending to the start of result
+	 */
+	int getMutualFollowers(int id, int[] result) {
+		if (id >= numberOfAuthors) {
+			return 0;
+		}
+		return intersect(targets, offsets[id], offsets[id + 1],
+				followers, followerOffsets[id], followerOffsets[id + 1], result);
+	}
+
+	/**
+	 * @return a read-only view of this graph as a social network; its keys are
+	 * the case-folded usernames of the authors
+	 */
+	public Map<String, Set<String>> asMap() {
+		return new MapView();
+	}
+
+	@Override
+	public String toString() {
+		return asMap().toString();
+	}
+
+	/**
+	 * Intersect two ascending runs of ids by merging them.
+	 *
+	 * @return number of ids common to a[aFrom..aTo) and b[bFrom..bTo), which are
+	 * written ascending to the start of result
+	 */
+	static int intersect(int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo, int[] result) {
+		int count = 0;
+		while (aFrom < aTo && bFrom < bTo) {
+			if (a[aFrom] < b[bFrom]) {
+				aFrom++;
+			} else if (a[aFrom] > b[bFrom]) {
+				bFrom++;
+			} else {
+				result[count++] = a[aFrom];
+				aFrom++;
+				bFrom++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return the id of an exact case-folded key of the social network, or -1
+	 */
+	private int authorId(Object key) {
+		if (!(key instanceof String)) {
+			return -1;
+		}
+		int id = names.lookup((String) key);
+		return id >= 0 && id < numberOfAuthors && names.nameOf(id).equals(key) ? id : -1;
+	}
+
+	/**
+	 * Accumulates the follow edges of a FollowsGraph.
+	 * <p>
+	 * Every author must be added before the first edge, so the authors get the
+	 * lowest ids. Edges are buffered as (follower, followee) pairs packed into
+	 * longs, and sorted, with duplicates dropped, by build(). A Builder may go
+	 * on taking edges after build(), e.g. to add closure edges found in the
+	 * graph just built.
+	 */
+	static class Builder {
+		private final UsernameDictionary names = new UsernameDictionary();
+		private int numberOfAuthors = 0;
+		private final EdgeBuffer edges = new EdgeBuffer();
+		/* Rep invariant:
+		 *    the authors are ids 0..numberOfAuthors-1 of names
+		 *    edges are packed as by TriadicClosure.pack(), each from an author
+		 *    to a different id of names
+		 */
+
+		/**
+		 * @param username Twitter username of an author
+		 * @return the id of the author
+		 * @throws IllegalStateException if an edge to a non-author was added before
+		 */
+		int addAuthor(String username) {
+			if (names.size() > numberOfAuthors) {
+				throw new IllegalStateException("authors must be added before the people they follow");
+			}
+			int id = names.intern(username);
+			numberOfAuthors = names.size();
+			return id;
+		}
+
+		/**
+		 * @return number of authors added
+		 */
+		int getAuthorCount() {
+			return numberOfAuthors;
+		}
+
+		/**
+		 * Add an edge, unless follower and followee are the same person.
+		 *
+		 * @param follower id of an author
+		 * @param followee Twitter username
+		 */
+		void addFollows(int follower, String followee) {
+			addFollows(follower, names.intern(followee));
+		}
+
+		/**
+		 * Add an edge, unless follower and followee are the same person.
+		 *
+		 * @param follower id of an author
+		 * @param followee id of a person
+		 */
+		void addFollows(int follower, int followee) {
+			assert follower >= 0 && follower < numberOfAuthors && followee >= 0 && followee < names.size();
+			if (follower == followee) {
+				return;
+			}
+			edges.add(TriadicClosure.pack(follower, followee));
+		}
+
+		/**
+		 * Add edges packed as by TriadicClosure.pack(), skipping any from a
+		 * person to the same person.
+		 *
+		 * @param packedEdges edges between ids of this builder, follower an author
+		 */
+		void addFollows(long[] packedEdges) {
+			for (long edge : packedEdges) {
+				addFollows(TriadicClosure.getFollower(edge), TriadicClosure.getFollowee(edge));
+			}
+		}
+
+		/**
+		 * @return a graph of the authors and edges added so far
+		 */
+		FollowsGraph build() {
+			edges.sortDistinct();
+			int[] offsets = new int[numberOfAuthors + 1];
+			int[] targets = new int[edges.size()];
+			for (int e = 0; e < edges.size(); e++) {
+				offsets[TriadicClosure.getFollower(edges.get(e)) + 1]++;
+				targets[e] = TriadicClosure.getFollowee(edges.get(e));
+			}
+			for (int a = 0; a < numberOfAuthors; a++) {
+				offsets[a + 1] += offsets[a];
+			}
+			return new FollowsGraph(names, numberOfAuthors, offsets, targets);
+		}
+	}
+
+	/**
+	 * Read-only social network view of the graph.
+	 */
+	private class MapView extends AbstractMap<String, Set<String>> {
+
+		@Override
+		public int size() {
+			return numberOfAuthors;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return authorId(key) >= 0;
+		}
+
+		@Override
+		public Set<String> get(Object key) {
+			int id = authorId(key);
+			return id < 0 ? null : new Row(id);
+		}
+
+		@Override
+		public Set<Entry<String, Set<String>>> entrySet() {
+			return new AbstractSet<Entry<String, Set<String>>>() {
+				@Override
+				public int size() {
+					return numberOfAuthors;
+				}
+
+				@Override
+				public Iterator<Entry<String, Set<String>>> iterator() {
+					return new Iterator<Entry<String, Set<String>>>() {
+						private int next = 0;
+
+						@Override
+						public boolean hasNext() {
+							return next < numberOfAuthors;
+						}
+
+						@Override
+						public Entry<String, Set<String>> next() {
+							if (!hasNext()) {
+								throw new NoSuchElementException();
+							}
+							int id = next++;
+							return new SimpleImmutableEntry<>(names.nameOf(id), new Row(id));
+						}
+					};
+				}
+			};
+		}
+	}
+
+	/**
+	 * Read-only set view of the people an author follows.
+	 */
+	private class Row extends AbstractSet<String> {
+		private final int author;
+
+		Row(int author) {
+			this.author = author;
+		}
+
+		@Override
+		public int size() {
+			return offsets[author + 1] - offsets[author];
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof String)) {
+				return false;
+			}
+			int id = getId((String) o);
+			return id >= 0 && names.nameOf(id).equals(o)
+					&& Arrays.binarySearch(targets, offsets[author], offsets[author + 1], id) >= 0;
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			return new Iterator<String>() {
+				private int next = offsets[author];
+
+				@Override
+				public boolean hasNext() {
+					return next < offsets[author + 1];
+				}
+
+				@Override
+				public String next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					return names.nameOf(targets[next++]);
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package twitter;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog is a fixed-size sketch that estimates the number of distinct
+ * items added to it.
+ * <p>
+ * A sketch with precision p keeps 2^p one-byte registers, so memory does not
+ * grow with the number of items, and the standard error of the estimate is
+ * about 1.04 / sqrt(2^p): 1.6% for the default precision 12 (4 KB).
+ * <p>
+ * Sketches with the same precision can be merged, so separate threads or
+ * shards can each fill their own sketch and combine them afterwards, and a
+ * sketch can be saved to and restored from a byte array.
+ * <p>
+ * A HyperLogLog is not safe for use by multiple threads at once.
+ */
+public class HyperLogLog {
+
+	public static final int MIN_PRECISION = 4;
+	public static final int MAX_PRECISION = 16;
+	public static final int DEFAULT_PRECISION = 12;
+
+	private static final byte FORMAT_VERSION = 1;
+	private static final int HEADER_LENGTH = 2;
+
+	private final int precision;
+	private final byte[] registers;
+	/* Rep invariant:
+	 *    MIN_PRECISION <= precision <= MAX_PRECISION
+	 *    registers.length == 2^precision
+	 *    0 <= registers[i] <= 64 - precision + 1
+	 */
+
+	/**
+	 * Make an empty sketch with the default precision.
+	 */
+	public HyperLogLog() {
+		this(DEFAULT_PRECISION);
+	}
+
+	/**
+	 * Make an empty sketch.
+	 *
+	 * @param precision number of index bits, MIN_PRECISION <= precision <= MAX_PRECISION
+	 */
+	public HyperLogLog(int precision) {
+		if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+			throw new IllegalArgumentException("requires " + MIN_PRECISION + " <= precision <= " + MAX_PRECISION);
+		}
+		this.precision = precision;
+		this.registers = new byte[1 << precision];
+	}
+
+	/**
+	 * Add an item, given by a well-mixed 64-bit hash of it.
+	 *
+	 * @param hash hash of the item, e.g. from hashIgnoreCase()
+	 */
+	public void addHash(long hash) {
+		int index = (int) (hash >>> (64 - precision));
+		// rank of the first 1 bit in the remaining bits; the sentinel bit bounds it
+		long remaining = (hash << precision) | (1L << (precision - 1));
+		byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+		if (rank > registers[index]) {
+			registers[index] = rank;
+		}
+	}
+
+	/**
+	 * Add a Twitter username; usernames differing only in case count once.
+	 *
+	 * @param username Twitter username
+	 */
+	public void add(CharSequence username) {
+		addHash(hashIgnoreCase(username, 0, username.length()));
+	}
+
+	/**
+	 * Combine the items of another sketch into this one.
+	 *
+	 * @param other sketch with the same precision, not modified by this method.
+	 * @return this sketch
+	 */
+	public HyperLogLog merge(HyperLogLog other) {
+		if (other.precision != precision) {
+			throw new IllegalArgumentException("requires sketches of equal precision");
+		}
+		for (int i = 0; i < registers.length; i++) {
+			if (other.registers[i] > registers[i]) {
+				registers[i] = other.registers[i];
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * @return estimated number of distinct items added so far
+	 */
+	public long estimate() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (byte register : registers) {
+			sum += 1.0 / (1L << register);
+			if (register == 0) {
+				zeros++;
+			}
+		}
+		double estimate = alpha(m) * m * m / sum;
+		if (estimate <= 2.5 * m && zeros > 0) {
+			// small range: linear counting is more accurate
+			estimate = m * Math.log((double) m / zeros);
+		}
+		return Math.round(estimate);
+	}
+
+	/**
+	 * @return the precision this sketch was made with
+	 */
+	public int getPrecision() {
+		return precision;
+	}
+
+	/**
+	 * @return this sketch as a byte array that fromByteArray() accepts
+	 */
+	public byte[] toByteArray() {
+		byte[] bytes = new byte[HEADER_LENGTH + registers.length];
+		bytes[0] = FORMAT_VERSION;
+		bytes[1] = (byte) precision;
+		System.arraycopy(registers, 0, bytes, HEADER_LENGTH, registers.length);
+		return bytes;
+	}
+
+	/**
+	 * Restore a sketch saved by toByteArray().
+	 *
+	 * @param bytes a saved sketch, not modified by this method.
+	 * @return a sketch equal to the saved one
+	 * @throws IllegalArgumentException if bytes is not a saved sketch
+	 */
+	public static HyperLogLog fromByteArray(byte[] bytes) {
+		if (bytes.length < HEADER_LENGTH || bytes[0] != FORMAT_VERSION) {
+			throw new IllegalArgumentException("not a HyperLogLog sketch");
+		}
+		int precision = bytes[1];
+		if (precision < MIN_PRECISION || precision > MAX_PRECISION
+				|| bytes.length != HEADER_LENGTH + (1 << precision)) {
+			throw new IllegalArgumentException("corrupt HyperLogLog sketch");
+		}
+		HyperLogLog sketch = new HyperLogLog(precision);
+		int maxRank = 64 - precision + 1;
+		for (int i = 0; i < sketch.registers.length; i++) {
+			byte register = bytes[HEADER_LENGTH + i];
+			if (register < 0 || register > maxRank) {
+				throw new IllegalArgumentException("corrupt HyperLogLog sketch");
+			}
+			sketch.registers[i] = register;
+		}
+		return sketch;
+	}
+
+	/**
+	 * Hash part of a text, treating a..z the same as A..Z.
+	 *
+	 * @param text   text holding the item
+	 * @param offset index of the first character of the item
+	 * @param length number of characters in the item
+	 * @return a well-mixed 64-bit hash of the upper-cased item
+	 */
+	public static long hashIgnoreCase(CharSequence text, int offset, int length) {
+		long hash = 0xCBF29CE484222325L;
+		for (int i = offset; i < offset + length; i++) {
+			char c = text.charAt(i);
+			if (c >= 'a' && c <= 'z') {
+				c -= 'a' - 'A';
+			}
+			hash = (hash ^ c) * 0x100000001B3L;
+		}
+		// final mix of MurmurHash3, so every input bit affects the high bits
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		hash *= 0xC4CEB9FE1A85EC53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	private static double alpha(int m) {
+		switch (m) {
+			case 16:
+				return 0.673;
+			case 32:
+				return 0.697;
+			case 64:
+				return 0.709;
+			default:
+				return 0.7213 / (1 + 1.079 / m);
+		}
+	}
+
+	@Override
+	public boolean equals(Object thatObject) {
+		if (!(thatObject instanceof HyperLogLog)) {
+			return false;
+		}
+		HyperLogLog that = (HyperLogLog) thatObject;
+		return this.precision == that.precision && Arrays.equals(this.registers, that.registers);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * precision + Arrays.hashCode(registers);
+	}
+}
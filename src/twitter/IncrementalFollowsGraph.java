@@ -0,0 +1,233 @@
+package twitter;
+
+import twitter.exception.UnqualifiedUsernameException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * IncrementalFollowsGraph keeps the social network guessed from a growing
+ * list of tweets up to date as tweets arrive, instead of re-running
+ * SocialNetwork.guessFollowsGraph() over the whole history.
+ * <p>
+ * addTweets() adds the mention edges of new tweets. Tweets only ever add
+ * edges, so a triadic closure edge, once found, stays. When a new edge makes
+ * A and B follow each other, only the closure edges through A and through B
+ * can be new: B is paired up with each earlier mutual follower of A, and A
+ * with each of B's. The cost of an update thus grows with the mutual
+ * followers of the people whose mutual pairs changed, not with the graph.
+ * <p>
+ * The number of followers of every person is kept current, as is a ranking of
+ * the people with followers, so influencers() reads the first k people of
+ * the ranking without counting the edges again.
+ * <p>
+ * An IncrementalFollowsGraph is not safe for use by multiple threads at once.
+ */
+public class IncrementalFollowsGraph {
+
+	private final UsernameDictionary names = new UsernameDictionary();
+	private final List<Person> people = new ArrayList<>();
+	private final EdgeSet mentionEdges = new EdgeSet();
+	private final EdgeSet edges = new EdgeSet();
+	private final TreeSet<Integer> ranking = new TreeSet<>(this::compareInfluence);
+	/* Rep invariant:
+	 *    people.get(id) is the person with id `id` of names, for every id
+	 *    mentionEdges are the edges from each author to the people mentioned in
+	 *    the author's tweets, other than the author
+	 *    edges are mentionEdges and the triadic closure edges of mentionEdges
+	 *    people.get(a).followed are, without repeats, the ids a follows in edges
+	 *    people.get(b).mutualFollowers are, without repeats, the ids p such that
+	 *    b -> p and p -> b are in mentionEdges
+	 *    people.get(p).followers == number of edges to p
+	 *    ranking holds the ids of the people with followers > 0
+	 */
+
+	/**
+	 * Make a graph of no tweets.
+	 */
+	public IncrementalFollowsGraph() {
+	}
+
+	/**
+	 * Add the evidence found in new tweets.
+	 *
+	 * @param tweets a list of tweets, not modified by this method; their ids
+	 *               differ from those of the tweets added before
+	 * @throws UnqualifiedUsernameException if a tweet's author is not a valid
+	 *                                      Twitter username, in which case no tweet is added
+	 */
+	public void addTweets(List<Tweet> tweets) throws UnqualifiedUsernameException {
+		for (Tweet tweet : tweets) {
+			if (!Filter.isRequiredUsername(tweet.getAuthor())) {
+				throw new UnqualifiedUsernameException("author name is not valid");
+			}
+		}
+
+		MentionScanner scanner = new MentionScanner();
+		for (Tweet tweet : tweets) {
+			int author = intern(tweet.getAuthor());
+			people.get(author).author = true;
+			int numberOfMentions = scanner.scan(tweet.getText());
+			for (int m = 0; m < numberOfMentions; m++) {
+				int mentioned = intern(scanner.getMention(m));
+				if (mentioned != author) {
+					addMention(author, mentioned);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return a new social network equal to SocialNetwork.guessFollowsGraph()
+	 * of all the tweets added so far
+	 */
+	public Map<String, Set<String>> getFollowsGraph() {
+		Map<String, Set<String>> result = new HashMap<>();
+		for (int id = 0; id < people.size(); id++) {
+			Person person = people.get(id);
+			if (person.author) {
+				Set<String> followed = new HashSet<>();
+				for (int i = 0; i < person.followed.size; i++) {
+					followed.add(names.nameOf(person.followed.values[i]));
+				}
+				result.put(names.nameOf(id), followed);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return number of follow edges in the social network
+	 */
+	public int getEdgeCount() {
+		return edges.size();
+	}
+
+	/**
+	 * @param username Twitter username
+	 * @return number of people following username, ignoring case
+	 */
+	public int getFollowerCount(String username) {
+		int id = names.lookup(username);
+		return id < 0 ? 0 : people.get(id).followers;
+	}
+
+	/**
+	 * @return SocialNetwork.influencers(getFollowsGraph())
+	 */
+	public List<String> influencers() {
+		return influencers(ranking.size());
+	}
+
+	/**
+	 * Find the k people with the most followers, in O(k + log n) time for n
+	 * people with followers.
+	 *
+	 * @param k number of people wanted, >= 0
+	 * @return the first min(k, number of people with followers) usernames of
+	 * influencers()
+	 */
+	public List<String> influencers(int k) {
+		if (k < 0) {
+			throw new IllegalArgumentException("requires k >= 0");
+		}
+		List<String> result = new ArrayList<>(Math.min(k, ranking.size()));
+		Iterator<Integer> ids = ranking.iterator();
+		while (result.size() < k && ids.hasNext()) {
+			result.add(names.nameOf(ids.next()));
+		}
+		return result;
+	}
+
+	private int intern(String username) {
+		int id = names.intern(username);
+		if (id == people.size()) {
+			people.add(new Person());
+		}
+		return id;
+	}
+
+	/**
+	 * Add a mention edge, and the closure edges of the mutual pair it may make.
+	 */
+	private void addMention(int follower, int followee) {
+		if (!mentionEdges.add(TriadicClosure.pack(follower, followee))) {
+			return;
+		}
+		addEdge(follower, followee);
+		if (!mentionEdges.contains(TriadicClosure.pack(followee, follower))) {
+			return;
+		}
+
+		// follower and followee now follow each other: pair each up with the
+		// other's earlier mutual followers
+		IntList mutualOfFollower = people.get(follower).mutualFollowers;
+		for (int i = 0; i < mutualOfFollower.size; i++) {
+			addEdge(followee, mutualOfFollower.values[i]);
+			addEdge(mutualOfFollower.values[i], followee);
+		}
+		IntList mutualOfFollowee = people.get(followee).mutualFollowers;
+		for (int i = 0; i < mutualOfFollowee.size; i++) {
+			addEdge(follower, mutualOfFollowee.values[i]);
+			addEdge(mutualOfFollowee.values[i], follower);
+		}
+		mutualOfFollower.add(followee);
+		mutualOfFollowee.add(follower);
+	}
+
+	private void addEdge(int follower, int followee) {
+		if (!edges.add(TriadicClosure.pack(follower, followee))) {
+			return;
+		}
+		people.get(follower).followed.add(followee);
+		// re-rank followee: its place in the ranking depends on its count
+		Person person = people.get(followee);
+		if (person.followers > 0) {
+			ranking.remove(followee);
+		}
+		person.followers++;
+		ranking.add(followee);
+	}
+
+	/**
+	 * Order of SocialNetwork.influencers(): most followers first, then by name.
+	 */
+	private int compareInfluence(Integer a, Integer b) {
+		int byFollowers = Integer.compare(people.get(b).followers, people.get(a).followers);
+		return byFollowers != 0 ? byFollowers : names.nameOf(a).compareTo(names.nameOf(b));
+	}
+
+	/**
+	 * What the graph knows about one person.
+	 */
+	private static class Person {
+		private boolean author = false;
+		private final IntList followed = new IntList();
+		private final IntList mutualFollowers = new IntList();
+		private int followers = 0;
+	}
+
+	/**
+	 * Growable array of ids.
+	 */
+	private static class IntList {
+		private static final int[] NONE = new int[0];
+
+		private int[] values = NONE;
+		private int size = 0;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, Math.max(4, 2 * size));
+			}
+			values[size++] = value;
+		}
+	}
+}
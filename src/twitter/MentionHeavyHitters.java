@@ -0,0 +1,309 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * MentionHeavyHitters tracks the most mentioned usernames in a stream of
+ * tweets with a fixed number of counters, using the Space-Saving algorithm.
+ * <p>
+ * With capacity m, after n mentions every reported count overestimates the
+ * true count by at most n / m, and every username mentioned more than n / m
+ * times is reported. A tweet that mentions the same user several times counts
+ * as one mention of that user, as in Extract.getMentionedUsersOfSingleTweet().
+ * <p>
+ * Summaries filled by separate workers can be combined with merge().
+ * <p>
+ * A MentionHeavyHitters is not safe for use by multiple threads at once.
+ */
+public class MentionHeavyHitters {
+
+	/**
+	 * A reported username with its estimated mention count.
+	 */
+	public static class HeavyHitter {
+		private final String username;
+		private final long count;
+		private final long error;
+
+		HeavyHitter(String username, long count, long error) {
+			this.username = username;
+			this.count = count;
+			this.error = error;
+		}
+
+		/**
+		 * @return the upper-cased username
+		 */
+		public String getUsername() {
+			return username;
+		}
+
+		/**
+		 * @return an upper bound on the number of mentions of the username
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * @return the most getCount() can exceed the true number of mentions by
+		 */
+		public long getError() {
+			return error;
+		}
+
+		/**
+		 * @return a lower bound on the number of mentions of the username
+		 */
+		public long getGuaranteedCount() {
+			return count - error;
+		}
+
+		@Override
+		public String toString() {
+			return username + "=" + count + "(+-" + error + ")";
+		}
+	}
+
+	private static final Comparator<Counter> BY_RANK = (a, b) -> {
+		if (a.count != b.count) {
+			return a.count > b.count ? -1 : 1;
+		}
+		return a.username.compareTo(b.username);
+	};
+
+	private final int capacity;
+	private final Map<String, Counter> counters;
+	private final Counter[] heap;
+	private int size = 0;
+	private long total = 0;
+	private final MentionScanner scanner = new MentionScanner();
+	private final Set<String> mentionsOfTweet = new HashSet<>();
+	/* Rep invariant:
+	 *    size == counters.size() <= capacity == heap.length
+	 *    heap[0..size) is a binary min-heap on count holding exactly the values
+	 *    of counters, and heap[c.heapIndex] == c for each of them
+	 *    0 <= c.error <= c.count for each counter c
+	 */
+
+	/**
+	 * Make an empty summary.
+	 *
+	 * @param capacity number of counters, > 0; counts are within total / capacity
+	 */
+	public MentionHeavyHitters(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("requires capacity > 0");
+		}
+		this.capacity = capacity;
+		this.counters = new HashMap<>(2 * capacity);
+		this.heap = new Counter[capacity];
+	}
+
+	/**
+	 * Make an empty summary whose counts are within a fraction of the total.
+	 *
+	 * @param maxErrorFraction largest overestimate allowed, as a fraction of the
+	 *                         total number of mentions, 0 < maxErrorFraction <= 1
+	 * @return a summary with ceil(1 / maxErrorFraction) counters
+	 */
+	public static MentionHeavyHitters withMaxError(double maxErrorFraction) {
+		if (!(maxErrorFraction > 0 && maxErrorFraction <= 1)) {
+			throw new IllegalArgumentException("requires 0 < maxErrorFraction <= 1");
+		}
+		return new MentionHeavyHitters((int) Math.ceil(1 / maxErrorFraction));
+	}
+
+	/**
+	 * Count the mentions of a tweet.
+	 *
+	 * @param tweet a tweet
+	 */
+	public void add(Tweet tweet) {
+		int numberOfMentions = scanner.scan(tweet.getText());
+		mentionsOfTweet.clear();
+		for (int i = 0; i < numberOfMentions; i++) {
+			String username = UsernameDictionary.fold(scanner.getMention(i));
+			if (mentionsOfTweet.add(username)) {
+				offer(username, 1);
+			}
+		}
+	}
+
+	/**
+	 * Count the mentions of a list of tweets.
+	 *
+	 * @param tweets list of tweets, not modified by this method.
+	 */
+	public void addAll(List<Tweet> tweets) {
+		for (Tweet tweet : tweets) {
+			add(tweet);
+		}
+	}
+
+	/**
+	 * Count mentions of one username.
+	 *
+	 * @param username upper-cased Twitter username
+	 * @param count    number of mentions, > 0
+	 */
+	public void offer(String username, long count) {
+		total += count;
+		Counter counter = counters.get(username);
+		if (counter != null) {
+			counter.count += count;
+			siftDown(counter.heapIndex);
+		} else if (size < capacity) {
+			counter = new Counter(username, count, 0);
+			counters.put(username, counter);
+			heap[size] = counter;
+			counter.heapIndex = size;
+			size++;
+			siftUp(counter.heapIndex);
+		} else {
+			// replace the smallest counter; its count bounds how often username was missed
+			Counter smallest = heap[0];
+			counters.remove(smallest.username);
+			smallest.error = smallest.count;
+			smallest.count += count;
+			smallest.username = username;
+			counters.put(username, smallest);
+			siftDown(0);
+		}
+	}
+
+	/**
+	 * Combine another summary into this one. Afterwards this summary holds
+	 * the counts of both streams, within total / capacity of the true counts.
+	 *
+	 * @param other summary to merge, not modified by this method.
+	 * @return this summary
+	 */
+	public MentionHeavyHitters merge(MentionHeavyHitters other) {
+		// a username missing from a full summary may have been counted up to its smallest count
+		long missedHere = size == capacity ? heap[0].count : 0;
+		long missedThere = other.size == other.capacity ? other.heap[0].count : 0;
+
+		Map<String, Counter> merged = new HashMap<>();
+		for (Counter counter : counters.values()) {
+			merged.put(counter.username, new Counter(counter.username, counter.count + missedThere, counter.error + missedThere));
+		}
+		for (Counter counter : other.counters.values()) {
+			Counter mergedCounter = merged.get(counter.username);
+			if (mergedCounter == null) {
+				merged.put(counter.username, new Counter(counter.username, counter.count + missedHere, counter.error + missedHere));
+			} else {
+				mergedCounter.count += counter.count - missedThere;
+				mergedCounter.error += counter.error - missedThere;
+			}
+		}
+
+		Counter[] ranked = merged.values().toArray(new Counter[0]);
+		Arrays.sort(ranked, BY_RANK);
+		counters.clear();
+		size = 0;
+		for (int i = 0; i < ranked.length && i < capacity; i++) {
+			Counter counter = ranked[i];
+			counters.put(counter.username, counter);
+			heap[size] = counter;
+			counter.heapIndex = size;
+			size++;
+			siftUp(counter.heapIndex);
+		}
+		total += other.total;
+		return this;
+	}
+
+	/**
+	 * @param k number of usernames wanted, >= 0
+	 * @return the (at most) k usernames with the highest counts, in descending
+	 * order of count, ties broken by username
+	 */
+	public List<HeavyHitter> top(int k) {
+		Counter[] ranked = Arrays.copyOf(heap, size);
+		Arrays.sort(ranked, BY_RANK);
+		List<HeavyHitter> result = new ArrayList<>();
+		for (int i = 0; i < ranked.length && i < k; i++) {
+			result.add(new HeavyHitter(ranked[i].username, ranked[i].count, ranked[i].error));
+		}
+		return result;
+	}
+
+	/**
+	 * @return total number of mentions counted, including merged summaries
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * @return the most any reported count can exceed the true count by
+	 */
+	public long getMaxError() {
+		return size < capacity ? 0 : heap[0].count;
+	}
+
+	/**
+	 * @return number of counters
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	private void siftUp(int index) {
+		Counter counter = heap[index];
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (heap[parent].count <= counter.count) {
+				break;
+			}
+			place(heap[parent], index);
+			index = parent;
+		}
+		place(counter, index);
+	}
+
+	private void siftDown(int index) {
+		Counter counter = heap[index];
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+				child++;
+			}
+			if (counter.count <= heap[child].count) {
+				break;
+			}
+			place(heap[child], index);
+			index = child;
+		}
+		place(counter, index);
+	}
+
+	private void place(Counter counter, int index) {
+		heap[index] = counter;
+		counter.heapIndex = index;
+	}
+
+	private static class Counter {
+		private String username;
+		private long count;
+		private long error;
+		private int heapIndex;
+
+		Counter(String username, long count, long error) {
+			this.username = username;
+			this.count = count;
+			this.error = error;
+		}
+	}
+}
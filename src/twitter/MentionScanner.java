@@ -0,0 +1,269 @@
+package twitter;
+
+import java.util.Arrays;
+
+/**
+ * MentionScanner finds the username-mentions, and optionally the hashtags, in a
+ * tweet text in a single pass.
+ * <p>
+ * Each mention is recorded as an (offset, length) span of the username that
+ * follows the "@", and each hashtag as the span of the tag that follows the
+ * "#", in primitive int buffers that are reused from one scan to the next.
+ * Strings are only created when getMention() or getHashtag() is called, so
+ * scanning a tweet allocates nothing once the buffers have grown to fit.
+ * <p>
+ * The mention boundary rules are those of Extract.getMentionedUsers(): a
+ * mention starts at "@" and runs over username characters; it ends at a space,
+ * at the next "@" or at the end of the text, and is dropped if any other
+ * character ends it. A single username character at the very end of the text
+ * is not a mention.
+ * <p>
+ * A hashtag is "#" followed by one or more letters, digits or underscores,
+ * ended by any other character or the end of the text. The "#" cannot be
+ * immediately preceded by a letter, digit or underscore, so "a#b" has no
+ * hashtag.
+ * <p>
+ * A MentionScanner is not safe for use by multiple threads at once.
+ */
+public class MentionScanner {
+
+	/**
+	 * Receives the spans found by scan(CharSequence, SpanConsumer).
+	 */
+	public interface SpanConsumer {
+		/**
+		 * @param text   the text being scanned
+		 * @param offset index in text of the first character of the username or tag
+		 * @param length number of characters in the username or tag, > 0
+		 */
+		void accept(CharSequence text, int offset, int length);
+	}
+
+	private final SpanBuffer mentions = new SpanBuffer();
+	private final SpanBuffer hashtags = new SpanBuffer();
+	private CharSequence text = "";
+
+	/**
+	 * Scan a text for mentions, replacing the spans of any previous scan.
+	 *
+	 * @param text text to scan, not null
+	 * @return the number of mentions found
+	 */
+	public int scan(CharSequence text) {
+		this.text = text;
+		mentions.clear();
+		hashtags.clear();
+		scan(text, mentions, null);
+		return mentions.size;
+	}
+
+	/**
+	 * Scan a text for both mentions and hashtags, replacing the spans of any
+	 * previous scan.
+	 *
+	 * @param text text to scan, not null
+	 * @return the number of mentions found
+	 */
+	public int scanWithHashtags(CharSequence text) {
+		this.text = text;
+		mentions.clear();
+		hashtags.clear();
+		scan(text, mentions, hashtags);
+		return mentions.size;
+	}
+
+	/**
+	 * Scan a text and pass every mention to a consumer, without touching any
+	 * scanner's buffer.
+	 *
+	 * @param text     text to scan, not null
+	 * @param mentions receives each mention in order of appearance
+	 */
+	public static void scan(CharSequence text, SpanConsumer mentions) {
+		scan(text, mentions, null);
+	}
+
+	/**
+	 * Scan a text and pass every mention and every hashtag to consumers, in one
+	 * pass and without touching any scanner's buffer.
+	 *
+	 * @param text     text to scan, not null
+	 * @param mentions receives each mention in order of appearance
+	 * @param hashtags receives each hashtag in order of appearance, or null if
+	 *                 hashtags are not wanted
+	 */
+	public static void scan(CharSequence text, SpanConsumer mentions, SpanConsumer hashtags) {
+		int n = text.length();
+		int mentionStart = -1;
+		int tagStart = -1;
+		for (int i = 0; i < n; i++) {
+			if (mentionStart < 0 && tagStart < 0) {
+				// outside a mention or hashtag only the next '@' or '#' matters
+				i = hashtags == null ? TextScanner.indexOf(text, '@', i) : TextScanner.indexOfEither(text, '@', '#', i);
+				if (i < 0) {
+					return;
+				}
+			}
+			char c = text.charAt(i);
+
+			if (c == '@') {
+				if (mentionStart >= 0 && i > mentionStart) {
+					mentions.accept(text, mentionStart, i - mentionStart);
+				}
+				mentionStart = i + 1;
+			} else if (mentionStart >= 0 && !isRequiredCharacter(c)) {
+				if (c == ' ' && i > mentionStart) {
+					mentions.accept(text, mentionStart, i - mentionStart);
+				}
+				mentionStart = -1;
+			}
+
+			if (hashtags != null) {
+				if (tagStart >= 0 && !isHashtagCharacter(c)) {
+					if (i > tagStart) {
+						hashtags.accept(text, tagStart, i - tagStart);
+					}
+					tagStart = -1;
+				}
+				if (c == '#' && (i == 0 || !isHashtagCharacter(text.charAt(i - 1)))) {
+					tagStart = i + 1;
+				}
+			}
+		}
+		if (mentionStart >= 0 && mentionStart < n - 1) {
+			mentions.accept(text, mentionStart, n - mentionStart);
+		}
+		if (tagStart >= 0 && tagStart < n) {
+			hashtags.accept(text, tagStart, n - tagStart);
+		}
+	}
+
+	/**
+	 * @return the number of mentions found by the last scan
+	 */
+	public int size() {
+		return mentions.size;
+	}
+
+	/**
+	 * @param i index of a mention, 0 <= i < size()
+	 * @return offset in the scanned text of the i-th username
+	 */
+	public int getOffset(int i) {
+		return mentions.offset(i);
+	}
+
+	/**
+	 * @param i index of a mention, 0 <= i < size()
+	 * @return length of the i-th username
+	 */
+	public int getLength(int i) {
+		return mentions.length(i);
+	}
+
+	/**
+	 * @param i index of a mention, 0 <= i < size()
+	 * @return the i-th username, as written in the scanned text
+	 */
+	public String getMention(int i) {
+		return mentions.materialize(text, i);
+	}
+
+	/**
+	 * @return the number of hashtags found by the last scanWithHashtags(), or 0
+	 * if the last scan was scan()
+	 */
+	public int hashtagCount() {
+		return hashtags.size;
+	}
+
+	/**
+	 * @param i index of a hashtag, 0 <= i < hashtagCount()
+	 * @return offset in the scanned text of the i-th tag, just after its "#"
+	 */
+	public int getHashtagOffset(int i) {
+		return hashtags.offset(i);
+	}
+
+	/**
+	 * @param i index of a hashtag, 0 <= i < hashtagCount()
+	 * @return length of the i-th tag, not counting its "#"
+	 */
+	public int getHashtagLength(int i) {
+		return hashtags.length(i);
+	}
+
+	/**
+	 * @param i index of a hashtag, 0 <= i < hashtagCount()
+	 * @return the i-th tag without its "#", as written in the scanned text
+	 */
+	public String getHashtag(int i) {
+		return hashtags.materialize(text, i);
+	}
+
+	/**
+	 * @param c a character
+	 * @return true if c may appear in a Twitter username, as defined by
+	 * Tweet.getAuthor()'s spec.
+	 */
+	static boolean isRequiredCharacter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+	}
+
+	/**
+	 * @param c a character
+	 * @return true if c may appear in a hashtag
+	 */
+	static boolean isHashtagCharacter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+	}
+
+	/**
+	 * Growable buffer of (offset, length) spans.
+	 */
+	private static class SpanBuffer implements SpanConsumer {
+		private int[] spans = new int[16];
+		private int size = 0;
+		/* Rep invariant:
+		 *    0 <= size <= spans.length / 2
+		 *    for 0 <= i < size, spans[2i] is the offset and spans[2i+1] the
+		 *    length of the i-th span, in order of appearance
+		 */
+
+		@Override
+		public void accept(CharSequence text, int offset, int length) {
+			if (2 * size == spans.length) {
+				spans = Arrays.copyOf(spans, 2 * spans.length);
+			}
+			spans[2 * size] = offset;
+			spans[2 * size + 1] = length;
+			size++;
+		}
+
+		void clear() {
+			size = 0;
+		}
+
+		int offset(int i) {
+			checkIndex(i);
+			return spans[2 * i];
+		}
+
+		int length(int i) {
+			checkIndex(i);
+			return spans[2 * i + 1];
+		}
+
+		String materialize(CharSequence text, int i) {
+			checkIndex(i);
+			int offset = spans[2 * i];
+			return text.subSequence(offset, offset + spans[2 * i + 1]).toString();
+		}
+
+		private void checkIndex(int i) {
+			if (i < 0 || i >= size) {
+				throw new IndexOutOfBoundsException("span index " + i + " out of range 0.." + size);
+			}
+		}
+	}
+}
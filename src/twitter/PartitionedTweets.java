@@ -0,0 +1,268 @@
+package twitter;
+
+import twitter.exception.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * PartitionedTweets holds a fixed corpus of tweets grouped by time into
+ * partitions, one per bucket of a fixed width (e.g. an hour or a day, aligned
+ * to the epoch in UTC), each a TweetStore with a ZoneMap.
+ * <p>
+ * execute() checks each partition's zone map before reading it: a partition
+ * whose timestamps, authors or words rule the query out is skipped, and one
+ * whose timestamps alone prove the query (e.g. it lies wholly inside the
+ * timespan asked for) is taken whole; only the rest are scanned. A query over
+ * the last few hours of a long corpus thus reads a few partitions. The
+ * returned Scan counts the partitions handled each way.
+ * <p>
+ * Every tweet is checked once when the partitions are built, as the Filter
+ * methods check them, so skipping a partition cannot hide a tweet that would
+ * make a query throw.
+ * <p>
+ * A PartitionedTweets is immutable, so it is safe for use by multiple threads.
+ */
+public class PartitionedTweets {
+
+	/** Width of hourly buckets. */
+	public static final Duration HOURLY = Duration.ofHours(1);
+	/** Width of daily buckets. */
+	public static final Duration DAILY = Duration.ofDays(1);
+
+	private final Duration bucketWidth;
+	private final Partition[] partitions;
+	private final boolean inputOrder;
+	/* Rep invariant:
+	 *    partitions are in ascending order of bucket, none is empty, and
+	 *    together they hold each tweet exactly once
+	 *    partitions[p].ordinals are ascending and are the input positions of
+	 *    the tweets of partitions[p].store, in the same order
+	 *    inputOrder iff the ordinals of all partitions, in order, ascend
+	 */
+
+	/**
+	 * Partition a list of tweets by time.
+	 *
+	 * @param tweets      a list of tweets with distinct ids, not modified by this method.
+	 * @param bucketWidth width of a partition, a positive whole number of seconds,
+	 *                    e.g. HOURLY or DAILY
+	 * @throws NullOrEmptyAuthorException      if a tweet's author is null or empty
+	 * @throws UnqualifiedUsernameException    if a tweet's author is not a valid Twitter username
+	 * @throws NullTimestampException          if a tweet's timestamp is null
+	 * @throws NullOrEmptyTextOfTweetException if a tweet's text is empty
+	 */
+	public PartitionedTweets(List<Tweet> tweets, Duration bucketWidth) throws NullOrEmptyAuthorException,
+			UnqualifiedUsernameException, NullTimestampException, NullOrEmptyTextOfTweetException {
+		if (bucketWidth.isNegative() || bucketWidth.isZero() || bucketWidth.getNano() != 0) {
+			throw new IllegalArgumentException("requires a bucket width of a positive whole number of seconds");
+		}
+		this.bucketWidth = bucketWidth;
+		long width = bucketWidth.getSeconds();
+
+		Map<Long, List<Integer>> buckets = new TreeMap<>();
+		int ordinal = 0;
+		long previousBucket = Long.MIN_VALUE;
+		boolean inputOrder = true;
+		for (Tweet tweet : tweets) {
+			check(tweet);
+			long bucket = Math.floorDiv(tweet.getTimestamp().getEpochSecond(), width);
+			buckets.computeIfAbsent(bucket, key -> new ArrayList<>()).add(ordinal++);
+			inputOrder &= bucket >= previousBucket;
+			previousBucket = bucket;
+		}
+		this.inputOrder = inputOrder;
+
+		List<Tweet> input = tweets instanceof RandomAccess ? tweets : new ArrayList<>(tweets);
+		partitions = new Partition[buckets.size()];
+		int p = 0;
+		for (List<Integer> ordinals : buckets.values()) {
+			partitions[p++] = new Partition(input, ordinals);
+		}
+	}
+
+	/**
+	 * Find the tweets satisfying a query, reading only the partitions whose
+	 * zone maps do not decide it.
+	 *
+	 * @param query a query
+	 * @return the tweets query.execute() would return on the partitioned list,
+	 * in the same order, and how many partitions were read
+	 */
+	public Scan execute(TweetQuery query) {
+		List<Tweet> found = new ArrayList<>();
+		List<Integer> foundOrdinals = new ArrayList<>();
+		int scanned = 0;
+		int skipped = 0;
+		int takenWhole = 0;
+		for (Partition partition : partitions) {
+			if (!query.mayMatch(partition.zone)) {
+				skipped++;
+				continue;
+			}
+			if (query.mustMatch(partition.zone)) {
+				takenWhole++;
+				for (int local = 0; local < partition.ordinals.length; local++) {
+					found.add(partition.store.get(local));
+					foundOrdinals.add(partition.ordinals[local]);
+				}
+				continue;
+			}
+			scanned++;
+			CompressedBitmap matches;
+			try {
+				matches = query.executeOrdinals(new TweetQuery.Indexes(partition.store.asList(), null, null, null));
+			} catch (NullOrEmptyAuthorException | UnqualifiedUsernameException | NullTimestampException
+					| NullOrEmptyTextOfTweetException e) {
+				throw new AssertionError("tweets were checked when partitioned", e);
+			}
+			matches.forEach(local -> {
+				found.add(partition.store.get(local));
+				foundOrdinals.add(partition.ordinals[local]);
+			});
+		}
+		return new Scan(inputOrder ? found : inInputOrder(found, foundOrdinals), scanned, skipped, takenWhole);
+	}
+
+	/**
+	 * @return number of partitions, i.e. of buckets holding at least one tweet
+	 */
+	public int getPartitionCount() {
+		return partitions.length;
+	}
+
+	/**
+	 * @return width of a partition
+	 */
+	public Duration getBucketWidth() {
+		return bucketWidth;
+	}
+
+	private static void check(Tweet tweet) throws NullOrEmptyAuthorException, UnqualifiedUsernameException,
+			NullTimestampException, NullOrEmptyTextOfTweetException {
+		String author = tweet.getAuthor();
+		if (author == null || author.isEmpty()) {
+			throw new NullOrEmptyAuthorException("author name of tweet is null or empty string");
+		}
+		if (!Filter.isRequiredUsername(author)) {
+			throw new UnqualifiedUsernameException("unqualified author name");
+		}
+		if (tweet.getTimestamp() == null) {
+			throw new NullTimestampException("timestamp of tweet is null");
+		}
+		if (tweet.getText().isEmpty()) {
+			throw new NullOrEmptyTextOfTweetException("text of tweet is empty string");
+		}
+	}
+
+	private static List<Tweet> inInputOrder(List<Tweet> tweets, List<Integer> ordinals) {
+		// sort positions by ordinal, packed as (ordinal, position) pairs
+		long[] keys = new long[tweets.size()];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = (long) ordinals.get(i) << 32 | i;
+		}
+		Arrays.sort(keys);
+		List<Tweet> result = new ArrayList<>(keys.length);
+		for (long key : keys) {
+			result.add(tweets.get((int) key));
+		}
+		return result;
+	}
+
+	/**
+	 * The tweets of one bucket, in input order, with their zone map.
+	 */
+	private static class Partition {
+		private final int[] ordinals;
+		private final TweetStore store = new TweetStore();
+		private final ZoneMap zone;
+
+		Partition(List<Tweet> tweets, List<Integer> ordinals) {
+			this.ordinals = new int[ordinals.size()];
+			Set<String> authors = new HashSet<>();
+			Set<String> terms = new HashSet<>();
+			Instant min = Instant.MAX;
+			Instant max = Instant.MIN;
+			for (int i = 0; i < this.ordinals.length; i++) {
+				Tweet tweet = tweets.get(ordinals.get(i));
+				this.ordinals[i] = ordinals.get(i);
+				store.add(tweet);
+				authors.add(UsernameDictionary.fold(tweet.getAuthor()));
+				// a blank text holds no word, and Filter cannot split it into words
+				if (!tweet.getText().trim().isEmpty()) {
+					terms.addAll(Filter.getUppercaseWordsOfText(tweet.getText()));
+				}
+				min = tweet.getTimestamp().isBefore(min) ? tweet.getTimestamp() : min;
+				max = tweet.getTimestamp().isAfter(max) ? tweet.getTimestamp() : max;
+			}
+
+			BloomFilter authorFilter = new BloomFilter(authors.size());
+			authors.forEach(authorFilter::add);
+			BloomFilter termFilter = new BloomFilter(terms.size());
+			terms.forEach(termFilter::add);
+			zone = new ZoneMap(min, max, authorFilter, termFilter);
+		}
+	}
+
+	/**
+	 * The result of one execute(): the tweets found, and how many partitions
+	 * were scanned, skipped by their zone maps, or taken whole by them.
+	 */
+	public static class Scan {
+		private final List<Tweet> tweets;
+		private final int partitionsScanned;
+		private final int partitionsSkipped;
+		private final int partitionsTakenWhole;
+
+		Scan(List<Tweet> tweets, int partitionsScanned, int partitionsSkipped, int partitionsTakenWhole) {
+			this.tweets = Collections.unmodifiableList(tweets);
+			this.partitionsScanned = partitionsScanned;
+			this.partitionsSkipped = partitionsSkipped;
+			this.partitionsTakenWhole = partitionsTakenWhole;
+		}
+
+		/**
+		 * @return the tweets satisfying the query, in input order
+		 */
+		public List<Tweet> getTweets() {
+			return tweets;
+		}
+
+		/**
+		 * @return number of partitions whose tweets were read one by one
+		 */
+		public int getPartitionsScanned() {
+			return partitionsScanned;
+		}
+
+		/**
+		 * @return number of partitions ruled out by their zone maps
+		 */
+		public int getPartitionsSkipped() {
+			return partitionsSkipped;
+		}
+
+		/**
+		 * @return number of partitions wholly satisfying the query by their zone
+		 * maps, returned without checking their tweets
+		 */
+		public int getPartitionsTakenWhole() {
+			return partitionsTakenWhole;
+		}
+
+		@Override
+		public String toString() {
+			return tweets.size() + " tweets; partitions scanned " + partitionsScanned + ", skipped "
+					+ partitionsSkipped + ", taken whole " + partitionsTakenWhole;
+		}
+	}
+}
@@ -0,0 +1,246 @@
+package twitter;
+
+import twitter.exception.UnqualifiedUsernameException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * ShardedFollowsGraphBuilder builds the same FollowsGraph as
+ * SocialNetwork.buildFollowsGraph(), splitting the work across the threads of
+ * a fork-join pool.
+ * <p>
+ * The tweets are split into chunks of at most sequentialCutoff tweets. Each
+ * chunk's worker scans its tweets' mentions into edge buffers of its own, one
+ * per shard, where the shard of an edge is a hash of its author's id; no
+ * buffer is shared between workers. Each shard then gathers its buffers from
+ * every chunk, sorts them, and writes the rows of its authors into the graph,
+ * which no other shard touches. The triadic closure runs shard by shard too:
+ * each shard pairs up the mutual followers of its own people and routes every
+ * edge found to the shard of the edge's follower.
+ * <p>
+ * Only the usernames are shared, in a UsernameDictionary, which is safe for
+ * use by multiple threads. The ids of the people thus depend on scheduling,
+ * but the social network of the graph does not.
+ */
+class ShardedFollowsGraphBuilder {
+
+	private final List<Tweet> tweets;
+	private final ForkJoinPool pool;
+	private final int sequentialCutoff;
+	private final int numberOfShards;
+	private final UsernameDictionary names = new UsernameDictionary();
+	/* Rep invariant:
+	 *    tweets is RandomAccess
+	 *    sequentialCutoff > 0, numberOfShards > 0
+	 */
+
+	/**
+	 * @param tweets           a list of tweets, not modified by this builder
+	 * @param pool             pool that runs the build
+	 * @param sequentialCutoff largest number of tweets scanned by one worker, > 0
+	 */
+	ShardedFollowsGraphBuilder(List<Tweet> tweets, ForkJoinPool pool, int sequentialCutoff) {
+		if (sequentialCutoff <= 0) {
+			throw new IllegalArgumentException("requires sequentialCutoff > 0");
+		}
+		this.tweets = tweets instanceof RandomAccess ? tweets : new ArrayList<>(tweets);
+		this.pool = pool;
+		this.sequentialCutoff = sequentialCutoff;
+		this.numberOfShards = Math.max(1, pool.getParallelism());
+	}
+
+	/**
+	 * @return a graph whose asMap() equals SocialNetwork.guessFollowsGraph(tweets)
+	 * @throws UnqualifiedUsernameException if a tweet's author is not a valid Twitter username
+	 */
+	FollowsGraph build() throws UnqualifiedUsernameException {
+		int numberOfChunks = (tweets.size() + sequentialCutoff - 1) / sequentialCutoff;
+
+		// authors first, so they get the lowest ids
+		int[] authorIds = new int[tweets.size()];
+		int[] firstInvalid = new int[numberOfChunks];
+		forEach(numberOfChunks, chunk -> firstInvalid[chunk] = internAuthors(chunk, authorIds));
+		for (int invalid : firstInvalid) {
+			if (invalid >= 0) {
+				if (tweets.get(invalid).getAuthor() == null) {
+					throw new NullPointerException("author of tweet is null");
+				}
+				throw new UnqualifiedUsernameException("author name is not valid");
+			}
+		}
+		int numberOfAuthors = names.size();
+
+		EdgeBuffer[][] edgesOfChunk = new EdgeBuffer[numberOfChunks][];
+		forEach(numberOfChunks, chunk -> edgesOfChunk[chunk] = scanMentions(chunk, authorIds));
+		EdgeBuffer[] shards = new EdgeBuffer[numberOfShards];
+		forEach(numberOfShards, shard -> {
+			shards[shard] = new EdgeBuffer();
+			for (EdgeBuffer[] edges : edgesOfChunk) {
+				shards[shard].addAll(edges[shard]);
+			}
+		});
+		FollowsGraph graph = toGraph(numberOfAuthors, shards);
+
+		TriadicClosure closure = new TriadicClosure();
+		EdgeBuffer[][] closureEdgesOfShard = new EdgeBuffer[numberOfShards][];
+		forEach(numberOfShards, shard -> closureEdgesOfShard[shard] = findClosureEdges(closure, graph, shard));
+		boolean found = false;
+		for (EdgeBuffer[] edges : closureEdgesOfShard) {
+			for (EdgeBuffer buffer : edges) {
+				found |= buffer.size() > 0;
+			}
+		}
+		if (!found) {
+			return graph;
+		}
+		forEach(numberOfShards, shard -> {
+			for (EdgeBuffer[] edges : closureEdgesOfShard) {
+				shards[shard].addAll(edges[shard]);
+			}
+		});
+		return toGraph(numberOfAuthors, shards);
+	}
+
+	/**
+	 * Intern the authors of one chunk, recording their ids.
+	 *
+	 * @return index of the first tweet of the chunk whose author is null or not
+	 * valid, or -1 if there is none
+	 */
+	private int internAuthors(int chunk, int[] authorIds) {
+		int end = Math.min(tweets.size(), (chunk + 1) * sequentialCutoff);
+		for (int i = chunk * sequentialCutoff; i < end; i++) {
+			String author = tweets.get(i).getAuthor();
+			if (author == null || !Filter.isRequiredUsername(author)) {
+				return i;
+			}
+			authorIds[i] = names.intern(author);
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the mention edges of one chunk, in one buffer per shard
+	 */
+	private EdgeBuffer[] scanMentions(int chunk, int[] authorIds) {
+		EdgeBuffer[] edges = newBuffers();
+		MentionScanner scanner = new MentionScanner();
+		int end = Math.min(tweets.size(), (chunk + 1) * sequentialCutoff);
+		for (int i = chunk * sequentialCutoff; i < end; i++) {
+			int author = authorIds[i];
+			int numberOfMentions = scanner.scan(tweets.get(i).getText());
+			for (int m = 0; m < numberOfMentions; m++) {
+				int mentioned = names.intern(scanner.getMention(m));
+				if (mentioned != author) {
+					edges[shardOf(author)].add(TriadicClosure.pack(author, mentioned));
+				}
+			}
+		}
+		return edges;
+	}
+
+	/**
+	 * @return the triadic closure edges through the people of one shard, in one
+	 * buffer per shard of their followers
+	 */
+	private EdgeBuffer[] findClosureEdges(TriadicClosure closure, FollowsGraph graph, int shard) {
+		EdgeBuffer[] edges = newBuffers();
+		EdgeBuffer found = new EdgeBuffer();
+		int[] mutualFollowers = new int[graph.getAuthorCount()];
+		for (int b = 0; b < graph.getAuthorCount(); b++) {
+			if (shardOf(b) == shard) {
+				closure.addEdges(graph, b, mutualFollowers, found);
+			}
+		}
+		for (int e = 0; e < found.size(); e++) {
+			edges[shardOf(TriadicClosure.getFollower(found.get(e)))].add(found.get(e));
+		}
+		return edges;
+	}
+
+	/**
+	 * Sort and de-duplicate each shard, and write the rows of its authors.
+	 */
+	private FollowsGraph toGraph(int numberOfAuthors, EdgeBuffer[] shards) {
+		int[] offsets = new int[numberOfAuthors + 1];
+		forEach(numberOfShards, shard -> {
+			shards[shard].sortDistinct();
+			for (int e = 0; e < shards[shard].size(); e++) {
+				offsets[TriadicClosure.getFollower(shards[shard].get(e)) + 1]++;
+			}
+		});
+		for (int a = 0; a < numberOfAuthors; a++) {
+			offsets[a + 1] += offsets[a];
+		}
+
+		int[] targets = new int[offsets[numberOfAuthors]];
+		forEach(numberOfShards, shard -> {
+			// the edges of each author are contiguous and ascending in its shard
+			EdgeBuffer edges = shards[shard];
+			int previous = -1;
+			int next = 0;
+			for (int e = 0; e < edges.size(); e++) {
+				int follower = TriadicClosure.getFollower(edges.get(e));
+				if (follower != previous) {
+					previous = follower;
+					next = offsets[follower];
+				}
+				targets[next++] = TriadicClosure.getFollowee(edges.get(e));
+			}
+		});
+		return new FollowsGraph(names, numberOfAuthors, offsets, targets);
+	}
+
+	private EdgeBuffer[] newBuffers() {
+		EdgeBuffer[] buffers = new EdgeBuffer[numberOfShards];
+		for (int shard = 0; shard < numberOfShards; shard++) {
+			buffers[shard] = new EdgeBuffer();
+		}
+		return buffers;
+	}
+
+	private int shardOf(int author) {
+		return Math.floorMod(author * 0x9E3779B9, numberOfShards);
+	}
+
+	/**
+	 * Run body for each of 0..count-1 on the pool, and wait for all of them.
+	 */
+	private void forEach(int count, IntConsumer body) {
+		if (count > 0) {
+			pool.invoke(new ForEachTask(0, count, body));
+		}
+	}
+
+	/**
+	 * Runs body for each of start..end-1, forking halves until one is left.
+	 */
+	private static class ForEachTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int start;
+		private final int end;
+		private final IntConsumer body;
+
+		ForEachTask(int start, int end, IntConsumer body) {
+			this.start = start;
+			this.end = end;
+			this.body = body;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start == 1) {
+				body.accept(start);
+				return;
+			}
+			int middle = (start + end) >>> 1;
+			invokeAll(new ForEachTask(start, middle, body), new ForEachTask(middle, end, body));
+		}
+	}
+}
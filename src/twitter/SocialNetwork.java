@@ -1,9 +1,9 @@
 package twitter;
 
-import javafx.util.Pair;
 import twitter.exception.UnqualifiedUsernameException;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * SocialNetwork provides methods that operate on a social network.
@@ -23,6 +23,8 @@ import java.util.*;
  */
 public class SocialNetwork {
 
+	private static final int DEFAULT_SEQUENTIAL_CUTOFF = 1024;
+
 	/**
 	 * Guess who might follow whom, from evidence found in tweets.
 	 *
@@ -36,139 +38,217 @@ public class SocialNetwork {
 	 * of evidence may be used at the implementor's discretion.
 	 * All the Twitter usernames in the returned social network must be
 	 * either authors or @-mentions in the list of tweets.
+	 * @throws IllegalStateException if the social network would have more follow
+	 *                               edges than an array can hold, about 2^31; a
+	 *                               person with about 46,000 mutual followers
+	 *                               alone gives that many triadic closure edges
 	 */
 	public static Map<String, Set<String>> guessFollowsGraph(List<Tweet> tweets) throws UnqualifiedUsernameException {
-		Map<String, Set<String>> result = new HashMap<>();
-		if (!isTweetAuthorQualified(tweets)) {
-			throw new UnqualifiedUsernameException("author name is not valid");
-		}
+		return guessFollowsGraph(tweets, null);
+	}
+
+	/**
+	 * Guess who might follow whom, from evidence found in tweets, taking the
+	 * mentions of each tweet from a cache when it has them.
+	 *
+	 * @param tweets a list of tweets providing the evidence, not modified by this
+	 *               method.
+	 * @param cache  cache of tweet mentions, or null to parse every tweet
+	 * @return the same social network as guessFollowsGraph(tweets)
+	 * @throws IllegalStateException if the social network would have more follow
+	 *                               edges than an array can hold, as for guessFollowsGraph(tweets)
+	 */
+	public static Map<String, Set<String>> guessFollowsGraph(List<Tweet> tweets, ExtractionCache cache) throws UnqualifiedUsernameException {
+		return toMutableMap(buildFollowsGraph(tweets, cache));
+	}
 
+	/**
+	 * Guess who might follow whom, from evidence found in tweets, into a
+	 * compact graph.
+	 *
+	 * @param tweets a list of tweets providing the evidence, not modified by this
+	 *               method.
+	 * @param cache  cache of tweet mentions, or null to parse every tweet
+	 * @return a graph whose asMap() equals guessFollowsGraph(tweets)
+	 * @throws IllegalStateException if the social network would have more follow
+	 *                               edges than an array can hold, as for guessFollowsGraph(tweets)
+	 */
+	public static FollowsGraph buildFollowsGraph(List<Tweet> tweets, ExtractionCache cache) throws UnqualifiedUsernameException {
+		FollowsGraph.Builder builder = new FollowsGraph.Builder();
+		int[] authorIds = new int[tweets.size()];
+		int i = 0;
 		for (Tweet tweet : tweets) {
-			String author = tweet.getAuthor().toUpperCase();
-			Set<String> mentionedUsers = Extract.getMentionedUsersOfSingleTweet(tweet);
-			mentionedUsers = Filter.convertToUppercase(mentionedUsers);
-			if (mentionedUsers.contains(author)) {
-				mentionedUsers.remove(author);
+			if (!Filter.isRequiredUsername(tweet.getAuthor())) {
+				throw new UnqualifiedUsernameException("author name is not valid");
 			}
-			if (result.keySet().contains(author)) {
-				Set<String> latterMentionedUsers = new HashSet<>();
-				Set<String> previousMentionedUsers = result.get(author);
-				latterMentionedUsers.addAll(previousMentionedUsers);
-				latterMentionedUsers.addAll(mentionedUsers);
-				result.put(author, latterMentionedUsers);
-			} else {
-				result.put(author, mentionedUsers);
+			authorIds[i++] = builder.addAuthor(tweet.getAuthor());
+		}
+
+		i = 0;
+		for (Tweet tweet : tweets) {
+			Set<String> mentionedUsers = cache == null
+					? Extract.getMentionedUsersOfSingleTweet(tweet)
+					: cache.getMentionedUsers(tweet);
+			int author = authorIds[i++];
+			for (String mentionedUser : mentionedUsers) {
+				builder.addFollows(author, mentionedUser);
 			}
 		}
-		addMutualFollowers(result);
-		return result;
+		return addTriadicClosure(builder);
+	}
 
+	/**
+	 * Guess who might follow whom, from evidence found in tweets, splitting the
+	 * work across the threads of a fork-join pool.
+	 *
+	 * @param tweets a list of tweets providing the evidence, not modified by this
+	 *               method.
+	 * @param pool   pool that runs the build
+	 * @return the same social network as guessFollowsGraph(tweets)
+	 * @throws IllegalStateException if the social network would have more follow
+	 *                               edges than an array can hold, as for guessFollowsGraph(tweets)
+	 */
+	public static Map<String, Set<String>> guessFollowsGraphParallel(List<Tweet> tweets, ForkJoinPool pool) throws UnqualifiedUsernameException {
+		return guessFollowsGraphParallel(tweets, pool, DEFAULT_SEQUENTIAL_CUTOFF);
 	}
 
+	/**
+	 * Guess who might follow whom, from evidence found in tweets, splitting the
+	 * work across the threads of a fork-join pool.
+	 *
+	 * @param tweets           a list of tweets providing the evidence, not modified by this
+	 *                         method.
+	 * @param pool             pool that runs the build
+	 * @param sequentialCutoff number of tweets at or below which a chunk is
+	 *                         scanned on one thread, requires sequentialCutoff > 0
+	 * @return the same social network as guessFollowsGraph(tweets)
+	 * @throws IllegalStateException if the social network would have more follow
+	 *                               edges than an array can hold, as for guessFollowsGraph(tweets)
+	 */
+	public static Map<String, Set<String>> guessFollowsGraphParallel(List<Tweet> tweets, ForkJoinPool pool, int sequentialCutoff)
+			throws UnqualifiedUsernameException {
+		return toMutableMap(new ShardedFollowsGraphBuilder(tweets, pool, sequentialCutoff).build());
+	}
 
-	private static Map<String, Set<String>> addMutualFollowers(Map<String, Set<String>> followGraphWithoutMutualFollowers) {
-		Map<String, Set<String>> peopleFollowingPerson = getPeopleFollowingPerson(followGraphWithoutMutualFollowers);
-		Map<String, Set<String>> mutualFollowers = getMutualFollowers(peopleFollowingPerson, followGraphWithoutMutualFollowers);
-		List<Pair<String, String>> triadicClosurePeople = getTriadicClosurePeople(mutualFollowers);
-		Set<String> peopleFollowedByPerson;
-		for (Pair<String, String> triadicClosurePerson : triadicClosurePeople) {
-			String personKey = triadicClosurePerson.getKey();
-			String personValue = triadicClosurePerson.getValue();
-			peopleFollowedByPerson = followGraphWithoutMutualFollowers.get(personKey);
-			peopleFollowedByPerson.add(personValue);
-		}
-		return followGraphWithoutMutualFollowers;
+	/**
+	 * Guess who might follow whom, from evidence found in the tweets of a
+	 * store, scanning the stored UTF-8 text without decoding it.
+	 *
+	 * @param store store of tweets providing the evidence, not modified by this
+	 *              method.
+	 * @return the same social network as guessFollowsGraph(store.asList())
+	 * @throws IllegalStateException if the social network would have more follow
+	 *                               edges than an array can hold, as for guessFollowsGraph(tweets)
+	 */
+	public static Map<String, Set<String>> guessFollowsGraph(TweetStore store) throws UnqualifiedUsernameException {
+		return guessFollowsGraphOfColumns(store);
 	}
 
 	/**
-	 * @param peopleFollowedByPerson Key: A , Value: people who are followed by A.
-	 * @return Key: A , Value: people who follow A.
+	 * Guess who might follow whom, from evidence found in the tweets of a
+	 * segment, scanning the mapped UTF-8 text without copying or decoding it.
+	 *
+	 * @param segment segment of tweets providing the evidence.
+	 * @return the same social network as guessFollowsGraph(segment.asList())
+	 * @throws IllegalStateException if the social network would have more follow
+	 *                               edges than an array can hold, as for guessFollowsGraph(tweets)
 	 */
-	private static Map<String, Set<String>> getPeopleFollowingPerson(Map<String, Set<String>> peopleFollowedByPerson) {
-		Map<String, Set<String>> result = new HashMap<>(1000);
-		Set<String> peopleFollowedBySecondSpecificPerson;
-		Set<String> peopleFollowingFirstSpecificPerson;
-		// traversal followedOfPeople
-		for (String firstSpecificPeople : peopleFollowedByPerson.keySet()) {
-			peopleFollowingFirstSpecificPerson = new HashSet<>(1000);
-			for (String secondSpecificPeople : peopleFollowedByPerson.keySet()) {
-				if (secondSpecificPeople.equals(firstSpecificPeople)) {
-					continue;
-				}
-				peopleFollowedBySecondSpecificPerson = peopleFollowedByPerson.get(secondSpecificPeople);
-				if (peopleFollowedBySecondSpecificPerson.contains(firstSpecificPeople)) {
-					peopleFollowingFirstSpecificPerson.add(secondSpecificPeople);
-				}
+	public static Map<String, Set<String>> guessFollowsGraph(TweetSegment segment) throws UnqualifiedUsernameException {
+		return guessFollowsGraphOfColumns(segment);
+	}
+
+	private static Map<String, Set<String>> guessFollowsGraphOfColumns(TweetColumns columns) throws UnqualifiedUsernameException {
+		boolean[] qualified = new boolean[columns.getAuthorCount()];
+		for (int a = 0; a < qualified.length; a++) {
+			qualified[a] = Filter.isRequiredUsername(columns.getAuthorName(a));
+		}
+		FollowsGraph.Builder builder = new FollowsGraph.Builder();
+		int[] graphIds = new int[columns.getAuthorCount()];
+		Arrays.fill(graphIds, -1);
+		for (int i = 0; i < columns.size(); i++) {
+			int authorId = columns.getAuthorId(i);
+			if (authorId < 0) {
+				throw new NullPointerException("author of tweet is null");
+			}
+			if (!qualified[authorId]) {
+				throw new UnqualifiedUsernameException("author name is not valid");
+			}
+			if (graphIds[authorId] < 0) {
+				graphIds[authorId] = builder.addAuthor(columns.getAuthorName(authorId));
 			}
-			result.put(firstSpecificPeople, peopleFollowingFirstSpecificPerson);
 		}
-		return result;
+
+		MentionScanner scanner = new MentionScanner();
+		Utf8Text text = new Utf8Text();
+		for (int i = 0; i < columns.size(); i++) {
+			int author = graphIds[columns.getAuthorId(i)];
+			int numberOfMentions = scanner.scan(columns.rawText(i, text));
+			for (int m = 0; m < numberOfMentions; m++) {
+				builder.addFollows(author, scanner.getMention(m));
+			}
+		}
+		return toMutableMap(addTriadicClosure(builder));
 	}
 
 	/**
-	 * get the mutual follow relationship from peopleFollowingPerson, peopleFollowedByPerson
-	 *
-	 * @param peopleFollowingPerson  Key: A Value: people who are following A.
-	 * @param peopleFollowedByPerson Key: A Value: people who are followed by A.
-	 * @return Key: A Value: people who follow A and A follow people too.
+	 * Copy a graph into the mutable HashMap of HashSets that guessFollowsGraph()
+	 * has always returned; buildFollowsGraph() gives the graph itself to callers
+	 * that only read it.
 	 */
-	private static Map<String, Set<String>> getMutualFollowers(Map<String, Set<String>> peopleFollowingPerson, Map<String, Set<String>> peopleFollowedByPerson) {
+	private static Map<String, Set<String>> toMutableMap(FollowsGraph graph) {
 		Map<String, Set<String>> result = new HashMap<>();
-		Set<String> mutualFollowersOfSpecificPerson;
-		Set<String> peopleFollowingSpecificPerson;
-		Set<String> peopleFollowedBySpecificPerson;
-		for (String specificPeople : peopleFollowedByPerson.keySet()) {
-			peopleFollowingSpecificPerson = peopleFollowingPerson.get(specificPeople);
-			peopleFollowedBySpecificPerson = peopleFollowedByPerson.get(specificPeople);
-			mutualFollowersOfSpecificPerson = new HashSet<>(peopleFollowedBySpecificPerson);
-			mutualFollowersOfSpecificPerson.retainAll(peopleFollowingSpecificPerson);
-			result.put(specificPeople, mutualFollowersOfSpecificPerson);
+		for (Map.Entry<String, Set<String>> entry : graph.asMap().entrySet()) {
+			result.put(entry.getKey(), new HashSet<>(entry.getValue()));
 		}
 		return result;
 	}
 
+	/**
+	 * Build a graph with the edges added to builder, plus the triadic closure
+	 * edges they give evidence of.
+	 */
+	private static FollowsGraph addTriadicClosure(FollowsGraph.Builder builder) {
+		FollowsGraph graph = builder.build();
+		long[] closureEdges = new TriadicClosure().findEdges(graph);
+		if (closureEdges.length == 0) {
+			return graph;
+		}
+		builder.addFollows(closureEdges);
+		return builder.build();
+	}
+
 	/**
 	 * reference:https://en.wikipedia.org/wiki/Triadic_closure if A->B and B->A and B->C and C->B, A and C become Triadic Closure
+	 * <p>
+	 * Pairs up the mutual followers of each person B, so its cost grows with the
+	 * squares of the numbers of mutual followers, not with the square of the
+	 * number of people; see TriadicClosure, which does the same on a FollowsGraph.
 	 *
-	 * @param mutualFollowersByPerson Key: A Value: people who follow A and A follow people too.
-	 * @return Key: A Value: C | A and C become Triadic Closure
+	 * @param mutualFollowersByPerson Key: B Value: people who follow B and B follow people too.
+	 * @return Key: A Value: every C | A and C become Triadic Closure; people with no such C are absent
 	 */
-	public static List<Pair<String, String>> getTriadicClosurePeople(Map<String, Set<String>> mutualFollowersByPerson) {
-		List<Pair<String, String>> result = new ArrayList<>(1000);
-		Pair<String, String> specificMutualPair;
-		Set<String> mutualFollowersByFirstSpecificPerson;
-		Set<String> mutualFollowersBySecondSpecificPerson;
-		Set<String> intersectionBetweenTwoMutualFollowers;
-		for (String firstSpecificPerson : mutualFollowersByPerson.keySet()) {
-			mutualFollowersByFirstSpecificPerson = mutualFollowersByPerson.get(firstSpecificPerson);
-
-			for (String secondSpecificPerson : mutualFollowersByPerson.keySet()) {
-				if (firstSpecificPerson.equals(secondSpecificPerson)) {
-					continue;
+	public static Map<String, Set<String>> getTriadicClosurePeople(Map<String, Set<String>> mutualFollowersByPerson) {
+		Map<String, Set<String>> result = new HashMap<>();
+		for (Set<String> mutualFollowers : mutualFollowersByPerson.values()) {
+			if (mutualFollowers.size() < 2) {
+				continue;
+			}
+			for (String first : mutualFollowers) {
+				Set<String> closedWithFirst = result.get(first);
+				if (closedWithFirst == null) {
+					closedWithFirst = new HashSet<>();
+					result.put(first, closedWithFirst);
 				}
-				mutualFollowersBySecondSpecificPerson = mutualFollowersByPerson.get(secondSpecificPerson);
-				intersectionBetweenTwoMutualFollowers = new HashSet<>(mutualFollowersByFirstSpecificPerson);
-				intersectionBetweenTwoMutualFollowers.retainAll(mutualFollowersBySecondSpecificPerson);
-				if (!mutualFollowersByFirstSpecificPerson.isEmpty()) {
-					specificMutualPair = new Pair<>(firstSpecificPerson, secondSpecificPerson);
-					result.add(specificMutualPair);
+				for (String second : mutualFollowers) {
+					if (!first.equals(second)) {
+						closedWithFirst.add(second);
+					}
 				}
 			}
 		}
 		return result;
 	}
 
-
-	private static boolean isTweetAuthorQualified(List<Tweet> tweets) throws UnqualifiedUsernameException {
-		for (Tweet tweet : tweets) {
-			if (!Filter.isRequiredUsername(tweet.getAuthor())) {
-				return false;
-			}
-		}
-		return true;
-
-	}
-
 	/**
 	 * Find the people in a social network who have the greatest influence, in
 	 * the sense that they have the most followers.
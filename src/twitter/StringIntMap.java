@@ -0,0 +1,205 @@
+package twitter;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * StringIntMap is a mutable map from String keys to primitive int values.
+ * <p>
+ * Keys and values live in two parallel arrays with open addressing and linear
+ * probing, so unlike a Map<String, Integer> it stores no entry objects and no
+ * boxed values, and counting a key that is already present allocates nothing.
+ * <p>
+ * A StringIntMap is not safe for use by multiple threads at once.
+ */
+public class StringIntMap {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private String[] keys;
+	private int[] values;
+	private int size = 0;
+	/* Rep invariant:
+	 *    keys.length == values.length, a power of two
+	 *    size == number of non-null keys, size <= keys.length * 3 / 4
+	 *    each key is stored at the first free slot probing from its hash slot
+	 */
+
+	/**
+	 * Make an empty map.
+	 */
+	public StringIntMap() {
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Make an empty map that can hold expectedSize keys without resizing.
+	 *
+	 * @param expectedSize expected number of keys, >= 0
+	 */
+	public StringIntMap(int expectedSize) {
+		int capacity = INITIAL_CAPACITY;
+		while (capacity * 3 / 4 < expectedSize) {
+			capacity *= 2;
+		}
+		keys = new String[capacity];
+		values = new int[capacity];
+	}
+
+	/**
+	 * @param key a key, not null
+	 * @return the value of key, or 0 if it is not in the map
+	 */
+	public int get(String key) {
+		int slot = find(key);
+		return keys[slot] == null ? 0 : values[slot];
+	}
+
+	/**
+	 * @param key a key, not null
+	 * @return true if key is in the map
+	 */
+	public boolean containsKey(String key) {
+		return keys[find(key)] != null;
+	}
+
+	/**
+	 * Set the value of a key.
+	 *
+	 * @param key   a key, not null
+	 * @param value new value of key
+	 */
+	public void put(String key, int value) {
+		int slot = insert(key);
+		values[slot] = value;
+	}
+
+	/**
+	 * Add to the value of a key, treating a missing key as 0.
+	 *
+	 * @param key   a key, not null
+	 * @param delta amount to add
+	 * @return the new value of key
+	 */
+	public int addTo(String key, int delta) {
+		int slot = insert(key);
+		values[slot] += delta;
+		return values[slot];
+	}
+
+	/**
+	 * Add every entry of another map to this one.
+	 *
+	 * @param other map whose values are added to the values here, not modified
+	 */
+	public void addAll(StringIntMap other) {
+		other.forEach(this::addTo);
+	}
+
+	/**
+	 * @return number of keys in the map
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return true if the map has no keys
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Pass every entry to an action, in no particular order.
+	 *
+	 * @param action receives each key and its value
+	 */
+	public void forEach(ObjIntConsumer<String> action) {
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != null) {
+				action.accept(keys[i], values[i]);
+			}
+		}
+	}
+
+	private int find(String key) {
+		int mask = keys.length - 1;
+		int slot = mix(key.hashCode()) & mask;
+		while (keys[slot] != null && !keys[slot].equals(key)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private int insert(String key) {
+		int slot = find(key);
+		if (keys[slot] == null) {
+			if ((size + 1) > keys.length * 3 / 4) {
+				resize();
+				slot = find(key);
+			}
+			keys[slot] = key;
+			size++;
+		}
+		return slot;
+	}
+
+	private void resize() {
+		String[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new String[2 * oldKeys.length];
+		values = new int[2 * oldValues.length];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				int slot = find(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private static int mix(int hash) {
+		int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("{");
+		forEach((key, value) -> {
+			if (result.length() > 1) {
+				result.append(", ");
+			}
+			result.append(key).append('=').append(value);
+		});
+		return result.append('}').toString();
+	}
+
+	@Override
+	public boolean equals(Object thatObject) {
+		if (!(thatObject instanceof StringIntMap)) {
+			return false;
+		}
+		StringIntMap that = (StringIntMap) thatObject;
+		if (this.size != that.size) {
+			return false;
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != null && (!that.containsKey(keys[i]) || that.get(keys[i]) != values[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != null) {
+				result += keys[i].hashCode() ^ values[i];
+			}
+		}
+		return result;
+	}
+}
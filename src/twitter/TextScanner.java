@@ -0,0 +1,331 @@
+package twitter;
+
+import java.util.List;
+
+/**
+ * TextScanner holds the character-scanning loops shared by Extract and Filter:
+ * finding the next "@" or "#", splitting a text into whitespace-separated words and
+ * ASCII upper-casing.
+ * <p>
+ * Each operation has two implementations that give identical results:
+ * <ul>
+ * <li>SCALAR looks at one character at a time.</li>
+ * <li>SWAR ("SIMD within a register") packs four 16-bit chars into the lanes
+ * of a long and tests all four lanes with a few arithmetic and bitwise
+ * operations, falling back to one character at a time only to confirm a
+ * candidate lane.</li>
+ * </ul>
+ * The mode is read from the system property "twitter.textscan" ("scalar" or
+ * "swar", default "swar") and can be changed at runtime with setMode().
+ */
+public class TextScanner {
+
+	public enum Mode {
+		SCALAR, SWAR
+	}
+
+	private static final long LANES_ONE = 0x0001000100010001L;
+	private static final long LANES_HIGH = 0x8000800080008000L;
+	private static final long LANES_NON_ASCII = 0xFF80FF80FF80FF80L;
+	private static final int LANES = 4;
+	private static final int LANE_BITS = 16;
+
+	private static final int BLOCK = 64;
+
+	private static final ThreadLocal<char[]> buffers = ThreadLocal.withInitial(() -> new char[BLOCK]);
+
+	private static volatile Mode mode = parseMode(System.getProperty("twitter.textscan", "swar"));
+
+	private static Mode parseMode(String name) {
+		return "scalar".equalsIgnoreCase(name) ? Mode.SCALAR : Mode.SWAR;
+	}
+
+	/**
+	 * @return the implementation currently used by the scanning methods
+	 */
+	public static Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * @param newMode the implementation to use from now on, not null
+	 */
+	public static void setMode(Mode newMode) {
+		if (newMode == null) {
+			throw new NullPointerException("mode is null");
+		}
+		mode = newMode;
+	}
+
+	/**
+	 * Find a character in a text.
+	 *
+	 * @param text text to search
+	 * @param c    character to find
+	 * @param from index to start searching at
+	 * @return the smallest index i >= from such that text.charAt(i) == c,
+	 * or -1 if there is none.
+	 */
+	public static int indexOf(CharSequence text, char c, int from) {
+		if (mode == Mode.SWAR && text instanceof String) {
+			return indexOfSwar((String) text, c, from);
+		}
+		return indexOfScalar(text, c, from);
+	}
+
+	/**
+	 * Find either of two characters in a text.
+	 *
+	 * @param text  text to search
+	 * @param c1    a character to find
+	 * @param c2    another character to find
+	 * @param from  index to start searching at
+	 * @return the smallest index i >= from such that text.charAt(i) is c1 or
+	 * c2, or -1 if there is none.
+	 */
+	public static int indexOfEither(CharSequence text, char c1, char c2, int from) {
+		if (mode == Mode.SWAR && text instanceof String) {
+			return indexOfEitherSwar((String) text, c1, c2, from);
+		}
+		return indexOfEitherScalar(text, c1, c2, from);
+	}
+
+	/**
+	 * Split a text into words the way text.trim().split("\\s+") does.
+	 *
+	 * @param text  text to split
+	 * @param words list the words are appended to, in order
+	 */
+	public static void splitWords(String text, List<String> words) {
+		int length = text.length();
+		int start = 0;
+		int end = length;
+		while (start < end && text.charAt(start) <= ' ') {
+			start++;
+		}
+		while (start < end && text.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (start == end) {
+			// String.split on an empty string yields the empty string itself
+			words.add("");
+			return;
+		}
+
+		// text[start] and text[end - 1] are not whitespace, so there are no
+		// leading or trailing empty words
+		while (start < end) {
+			int boundary = mode == Mode.SWAR
+					? indexOfWhitespaceSwar(text, start, end)
+					: indexOfWhitespaceScalar(text, start, end);
+			words.add(text.substring(start, boundary));
+			start = boundary;
+			while (start < end && isWhitespace(text.charAt(start))) {
+				start++;
+			}
+		}
+	}
+
+	/**
+	 * Convert a word to upper case.
+	 *
+	 * @param word a word
+	 * @return word.toUpperCase()
+	 */
+	public static String toUpperCase(String word) {
+		return mode == Mode.SWAR ? toUpperCaseSwar(word) : toUpperCaseScalar(word);
+	}
+
+	/**
+	 * @param c a character
+	 * @return true if c matches the regular expression \s, i.e. it is one of
+	 * space, tab, line feed, vertical tab, form feed or carriage return.
+	 */
+	public static boolean isWhitespace(char c) {
+		return c == ' ' || (c >= '\t' && c <= '\r');
+	}
+
+	private static int indexOfScalar(CharSequence text, char c, int from) {
+		int length = text.length();
+		for (int i = Math.max(from, 0); i < length; i++) {
+			if (text.charAt(i) == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int indexOfEitherScalar(CharSequence text, char c1, char c2, int from) {
+		int length = text.length();
+		for (int i = Math.max(from, 0); i < length; i++) {
+			char c = text.charAt(i);
+			if (c == c1 || c == c2) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int indexOfWhitespaceScalar(String text, int from, int end) {
+		for (int i = from; i < end; i++) {
+			if (isWhitespace(text.charAt(i))) {
+				return i;
+			}
+		}
+		return end;
+	}
+
+	private static String toUpperCaseScalar(String word) {
+		int length = word.length();
+		for (int i = 0; i < length; i++) {
+			if (word.charAt(i) >= 0x80) {
+				return word.toUpperCase();
+			}
+		}
+		char[] chars = word.toCharArray();
+		boolean changed = false;
+		for (int i = 0; i < length; i++) {
+			char c = chars[i];
+			if (c >= 'a' && c <= 'z') {
+				chars[i] = (char) (c - ('a' - 'A'));
+				changed = true;
+			}
+		}
+		return changed ? new String(chars) : word;
+	}
+
+	private static int indexOfSwar(String text, char c, int from) {
+		long pattern = LANES_ONE * c;
+		int length = text.length();
+		for (int block = Math.max(from, 0); block < length; block += BLOCK) {
+			int n = Math.min(BLOCK, length - block);
+			char[] chars = charsOf(text, block, block + n);
+			int i = 0;
+			for (; i + LANES <= n; i += LANES) {
+				long x = load(chars, i) ^ pattern;
+				long zeroLanes = (x - LANES_ONE) & ~x & LANES_HIGH;
+				if (zeroLanes != 0) {
+					// the lowest flagged lane is exact, higher ones may be borrow artifacts
+					return block + i + Long.numberOfTrailingZeros(zeroLanes) / LANE_BITS;
+				}
+			}
+			for (; i < n; i++) {
+				if (chars[i] == c) {
+					return block + i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	private static int indexOfEitherSwar(String text, char c1, char c2, int from) {
+		long pattern1 = LANES_ONE * c1;
+		long pattern2 = LANES_ONE * c2;
+		int length = text.length();
+		for (int block = Math.max(from, 0); block < length; block += BLOCK) {
+			int n = Math.min(BLOCK, length - block);
+			char[] chars = charsOf(text, block, block + n);
+			int i = 0;
+			for (; i + LANES <= n; i += LANES) {
+				long x = load(chars, i);
+				long x1 = x ^ pattern1;
+				long x2 = x ^ pattern2;
+				long zeroLanes = ((x1 - LANES_ONE) & ~x1 | (x2 - LANES_ONE) & ~x2) & LANES_HIGH;
+				if (zeroLanes != 0) {
+					return block + i + Long.numberOfTrailingZeros(zeroLanes) / LANE_BITS;
+				}
+			}
+			for (; i < n; i++) {
+				if (chars[i] == c1 || chars[i] == c2) {
+					return block + i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	private static int indexOfWhitespaceSwar(String text, int from, int end) {
+		long limit = LANES_ONE * (' ' + 1);
+		for (int block = from; block < end; block += BLOCK) {
+			int n = Math.min(BLOCK, end - block);
+			char[] chars = charsOf(text, block, block + n);
+			int i = 0;
+			while (i + LANES <= n) {
+				long x = load(chars, i);
+				long lowLanes = (x - limit) & ~x & LANES_HIGH;
+				if (lowLanes == 0) {
+					i += LANES;
+					continue;
+				}
+				// the lowest flagged lane holds a char <= ' '; confirm it is \s
+				int lane = i + Long.numberOfTrailingZeros(lowLanes) / LANE_BITS;
+				if (isWhitespace(chars[lane])) {
+					return block + lane;
+				}
+				i = lane + 1;
+			}
+			for (; i < n; i++) {
+				if (isWhitespace(chars[i])) {
+					return block + i;
+				}
+			}
+		}
+		return end;
+	}
+
+	private static String toUpperCaseSwar(String word) {
+		int length = word.length();
+		char[] chars = new char[length];
+		word.getChars(0, length, chars, 0);
+		long lowerBound = LANES_ONE * (0x8000 - 'a');
+		long upperBound = LANES_ONE * (0x8000 - ('z' + 1));
+		boolean changed = false;
+		int i = 0;
+		for (; i + LANES <= length; i += LANES) {
+			long x = load(chars, i);
+			if ((x & LANES_NON_ASCII) != 0) {
+				return word.toUpperCase();
+			}
+			// lanes are < 0x80, so adding the bounds cannot carry between lanes
+			long lowerLanes = (x + lowerBound) & ~(x + upperBound) & LANES_HIGH;
+			if (lowerLanes != 0) {
+				store(chars, i, x - (lowerLanes >>> 10));
+				changed = true;
+			}
+		}
+		for (; i < length; i++) {
+			char c = chars[i];
+			if (c >= 0x80) {
+				return word.toUpperCase();
+			}
+			if (c >= 'a' && c <= 'z') {
+				chars[i] = (char) (c - ('a' - 'A'));
+				changed = true;
+			}
+		}
+		return changed ? new String(chars) : word;
+	}
+
+	/**
+	 * Copy text[from..to), at most BLOCK chars, into this thread's scratch buffer.
+	 */
+	private static char[] charsOf(String text, int from, int to) {
+		char[] chars = buffers.get();
+		text.getChars(from, to, chars, 0);
+		return chars;
+	}
+
+	private static long load(char[] chars, int i) {
+		return chars[i]
+				| (long) chars[i + 1] << LANE_BITS
+				| (long) chars[i + 2] << (2 * LANE_BITS)
+				| (long) chars[i + 3] << (3 * LANE_BITS);
+	}
+
+	private static void store(char[] chars, int i, long x) {
+		chars[i] = (char) x;
+		chars[i + 1] = (char) (x >>> LANE_BITS);
+		chars[i + 2] = (char) (x >>> (2 * LANE_BITS));
+		chars[i + 3] = (char) (x >>> (3 * LANE_BITS));
+	}
+}
@@ -0,0 +1,514 @@
+package twitter;
+
+import twitter.exception.NullTimestampException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * TimeIndex answers Filter.inTimespan() queries over a fixed corpus of tweets
+ * by binary search instead of a linear scan.
+ * <p>
+ * Timestamps are packed into primitive longs (see packTimestamp()) and kept in
+ * sorted order in a long[] with a parallel array of the tweets, so a query
+ * costs O(log n + k) for k matching tweets. Tweets can be added after the
+ * index is built: a tweet no earlier than every indexed tweet is appended in
+ * place, and others go to a small sorted side buffer that is merged into the
+ * main arrays once it grows past an eighth of them.
+ * <p>
+ * The few tweets whose timestamps cannot be packed, more than about 272 years
+ * from 1970, are kept aside in a list that every query scans, so the index
+ * finds the same tweets as Filter.inTimespan() for any timestamp.
+ * <p>
+ * A TimeIndex is not safe for use by multiple threads at once.
+ */
+public class TimeIndex {
+
+	private static final int NANO_BITS = 30;
+	private static final long MAX_PACKED_SECONDS = (1L << (63 - NANO_BITS)) - 1;
+	private static final int MIN_PENDING_CAPACITY = 64;
+
+	private long[] times = new long[16];
+	private Tweet[] tweets = new Tweet[16];
+	private int[] ordinals = new int[16];
+	private int size = 0;
+
+	private long[] pendingTimes = new long[MIN_PENDING_CAPACITY];
+	private Tweet[] pendingTweets = new Tweet[MIN_PENDING_CAPACITY];
+	private int[] pendingOrdinals = new int[MIN_PENDING_CAPACITY];
+	private int pendingSize = 0;
+
+	private final List<Tweet> outliers = new ArrayList<>();
+	private final List<Integer> outlierOrdinals = new ArrayList<>();
+
+	private int nextOrdinal = 0;
+	/* Rep invariant:
+	 *    times[0..size) and pendingTimes[0..pendingSize) are each sorted ascending
+	 *    times[i] == packTimestamp(tweets[i].getTimestamp()), likewise for pending
+	 *    outliers are the tweets whose timestamps are not isPackable(), in the
+	 *    order they were added, and outlierOrdinals.get(i) is that of outliers.get(i)
+	 *    ordinals are the positions at which tweets were added, 0..nextOrdinal-1,
+	 *    each appearing once across the three parts
+	 */
+
+	/**
+	 * Make an empty index.
+	 */
+	public TimeIndex() {
+	}
+
+	/**
+	 * Make an index of a list of tweets.
+	 *
+	 * @param tweets a list of tweets with distinct ids, not modified by this method.
+	 * @throws NullTimestampException if a tweet has a null timestamp
+	 */
+	public TimeIndex(List<Tweet> tweets) throws NullTimestampException {
+		List<Tweet> byOrdinal = tweets instanceof RandomAccess ? tweets : new ArrayList<>(tweets);
+		int n = byOrdinal.size();
+		long[] keys = new long[n];
+		int[] packedOrdinals = new int[n];
+		int packed = 0;
+		for (int ordinal = 0; ordinal < n; ordinal++) {
+			Tweet tweet = byOrdinal.get(ordinal);
+			Instant timestamp = timestampOf(tweet);
+			if (isPackable(timestamp)) {
+				keys[packed] = packTimestamp(timestamp);
+				packedOrdinals[packed++] = ordinal;
+			} else {
+				outliers.add(tweet);
+				outlierOrdinals.add(ordinal);
+			}
+		}
+		int[] order = sortedOrder(Arrays.copyOf(keys, packed));
+
+		ensureCapacity(packed);
+		for (int i = 0; i < packed; i++) {
+			this.times[i] = keys[order[i]];
+			this.tweets[i] = byOrdinal.get(packedOrdinals[order[i]]);
+			this.ordinals[i] = packedOrdinals[order[i]];
+		}
+		size = packed;
+		nextOrdinal = n;
+	}
+
+	/**
+	 * Add a tweet to the index, after all tweets already in it.
+	 *
+	 * @param tweet tweet whose id is distinct from the indexed tweets
+	 * @throws NullTimestampException if the tweet has a null timestamp
+	 */
+	public void add(Tweet tweet) throws NullTimestampException {
+		Instant timestamp = timestampOf(tweet);
+		int ordinal = nextOrdinal++;
+		if (!isPackable(timestamp)) {
+			outliers.add(tweet);
+			outlierOrdinals.add(ordinal);
+			return;
+		}
+		long time = packTimestamp(timestamp);
+		if (size == 0 || time >= times[size - 1]) {
+			ensureCapacity(size + 1);
+			times[size] = time;
+			tweets[size] = tweet;
+			ordinals[size] = ordinal;
+			size++;
+			return;
+		}
+
+		if (pendingSize == pendingTimes.length) {
+			int capacity = 2 * pendingTimes.length;
+			pendingTimes = Arrays.copyOf(pendingTimes, capacity);
+			pendingTweets = Arrays.copyOf(pendingTweets, capacity);
+			pendingOrdinals = Arrays.copyOf(pendingOrdinals, capacity);
+		}
+		int position = upperBound(pendingTimes, pendingSize, time);
+		System.arraycopy(pendingTimes, position, pendingTimes, position + 1, pendingSize - position);
+		System.arraycopy(pendingTweets, position, pendingTweets, position + 1, pendingSize - position);
+		System.arraycopy(pendingOrdinals, position, pendingOrdinals, position + 1, pendingSize - position);
+		pendingTimes[position] = time;
+		pendingTweets[position] = tweet;
+		pendingOrdinals[position] = ordinal;
+		pendingSize++;
+
+		if (pendingSize > Math.max(MIN_PENDING_CAPACITY, size >>> 3)) {
+			mergePending();
+		}
+	}
+
+	/**
+	 * Add tweets to the index, after all tweets already in it.
+	 *
+	 * @param tweets list of tweets whose ids are distinct from the indexed tweets
+	 * @throws NullTimestampException if a tweet has a null timestamp
+	 */
+	public void addAll(List<Tweet> tweets) throws NullTimestampException {
+		for (Tweet tweet : tweets) {
+			add(tweet);
+		}
+	}
+
+	/**
+	 * Find tweets that were sent during a particular timespan.
+	 *
+	 * @param timespan timespan
+	 * @return all and only the indexed tweets that were sent during the
+	 * timespan (endpoints included), in the order they were added.
+	 * @throws NullTimestampException if timespan is null
+	 */
+	public List<Tweet> inTimespan(Timespan timespan) throws NullTimestampException {
+		if (timespan == null) {
+			throw new NullTimestampException("timestamp of timespan is null");
+		}
+		long start = packBound(timespan.getStart());
+		long end = packBound(timespan.getEnd());
+		int from = lowerBound(times, size, start);
+		int to = upperBound(times, size, end);
+		int pendingFrom = lowerBound(pendingTimes, pendingSize, start);
+		int pendingTo = upperBound(pendingTimes, pendingSize, end);
+		List<Integer> outliersIn = outliersIn(timespan);
+
+		// sort (ordinal, position) pairs to restore the order the tweets were added in
+		long[] matches = new long[(to - from) + (pendingTo - pendingFrom) + outliersIn.size()];
+		int k = 0;
+		for (int i = from; i < to; i++) {
+			matches[k++] = (long) ordinals[i] << 32 | i;
+		}
+		for (int i = pendingFrom; i < pendingTo; i++) {
+			matches[k++] = (long) pendingOrdinals[i] << 32 | (size + i);
+		}
+		for (int i : outliersIn) {
+			matches[k++] = (long) outlierOrdinals.get(i) << 32 | (size + pendingSize + i);
+		}
+		Arrays.sort(matches);
+
+		List<Tweet> result = new ArrayList<>(matches.length);
+		for (long match : matches) {
+			int position = (int) match;
+			if (position < size) {
+				result.add(tweets[position]);
+			} else if (position < size + pendingSize) {
+				result.add(pendingTweets[position - size]);
+			} else {
+				result.add(outliers.get(position - size - pendingSize));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Find tweets that were sent during a particular timespan, in time order.
+	 *
+	 * @param timespan timespan
+	 * @return all and only the indexed tweets that were sent during the
+	 * timespan (endpoints included), in ascending order of timestamp.
+	 * @throws NullTimestampException if timespan is null
+	 */
+	public List<Tweet> inTimespanByTime(Timespan timespan) throws NullTimestampException {
+		if (timespan == null) {
+			throw new NullTimestampException("timestamp of timespan is null");
+		}
+		mergePending();
+		int from = lowerBound(times, size, packBound(timespan.getStart()));
+		int to = upperBound(times, size, packBound(timespan.getEnd()));
+		List<Tweet> outliersIn = new ArrayList<>();
+		for (int i : outliersIn(timespan)) {
+			outliersIn.add(outliers.get(i));
+		}
+		// stable, so outliers with equal timestamps stay in the order they were added
+		outliersIn.sort((a, b) -> a.getTimestamp().compareTo(b.getTimestamp()));
+
+		// outliers lie before or after every packed timestamp
+		List<Tweet> result = new ArrayList<>(to - from + outliersIn.size());
+		int after = 0;
+		while (after < outliersIn.size() && outliersIn.get(after).getTimestamp().getEpochSecond() < 0) {
+			after++;
+		}
+		result.addAll(outliersIn.subList(0, after));
+		result.addAll(Arrays.asList(tweets).subList(from, to));
+		result.addAll(outliersIn.subList(after, outliersIn.size()));
+		return result;
+	}
+
+	/**
+	 * @param timespan timespan
+	 * @return the ordinals (positions in the order they were added) of the
+	 * indexed tweets that were sent during the timespan
+	 */
+	CompressedBitmap ordinalsInTimespan(Timespan timespan) {
+		long start = packBound(timespan.getStart());
+		long end = packBound(timespan.getEnd());
+		int from = lowerBound(times, size, start);
+		int to = upperBound(times, size, end);
+		int pendingFrom = lowerBound(pendingTimes, pendingSize, start);
+		int pendingTo = upperBound(pendingTimes, pendingSize, end);
+
+		List<Integer> outliersIn = outliersIn(timespan);
+
+		int[] matches = new int[(to - from) + (pendingTo - pendingFrom) + outliersIn.size()];
+		System.arraycopy(ordinals, from, matches, 0, to - from);
+		System.arraycopy(pendingOrdinals, pendingFrom, matches, to - from, pendingTo - pendingFrom);
+		int k = (to - from) + (pendingTo - pendingFrom);
+		for (int i : outliersIn) {
+			matches[k++] = outlierOrdinals.get(i);
+		}
+		Arrays.sort(matches);
+		CompressedBitmap result = new CompressedBitmap();
+		for (int ordinal : matches) {
+			result.add(ordinal);
+		}
+		return result;
+	}
+
+	/**
+	 * @return number of indexed tweets
+	 */
+	public int size() {
+		return size + pendingSize + outliers.size();
+	}
+
+	/**
+	 * Walk the indexed tweets from the newest, without sorting or copying the
+	 * index; the walk is only valid until the index is next modified.
+	 *
+	 * @return an iterator over the indexed tweets in descending order of
+	 * timestamp, tweets with equal timestamps in no particular order
+	 */
+	Iterator<Tweet> newestFirst() {
+		return new NewestFirst();
+	}
+
+	/**
+	 * @return the indices in outliers of the outliers sent during the timespan
+	 * (endpoints included), ascending
+	 */
+	private List<Integer> outliersIn(Timespan timespan) {
+		List<Integer> result = new ArrayList<>();
+		for (int i = 0; i < outliers.size(); i++) {
+			Instant timestamp = outliers.get(i).getTimestamp();
+			if (!timestamp.isBefore(timespan.getStart()) && !timestamp.isAfter(timespan.getEnd())) {
+				result.add(i);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Pack a timestamp into a long, so that comparing packed values compares
+	 * the timestamps.
+	 *
+	 * @param timestamp a date/time within about 272 years of 1970
+	 * @return epoch seconds shifted left 30 bits, or'ed with the nanos
+	 */
+	static long packTimestamp(Instant timestamp) {
+		if (!isPackable(timestamp)) {
+			throw new IllegalArgumentException("timestamp out of packable range: " + timestamp);
+		}
+		return timestamp.getEpochSecond() << NANO_BITS | timestamp.getNano();
+	}
+
+	/**
+	 * @param timestamp a date/time
+	 * @return true if packTimestamp() can pack timestamp, i.e. it is within
+	 * about 272 years of 1970
+	 */
+	static boolean isPackable(Instant timestamp) {
+		long seconds = timestamp.getEpochSecond();
+		return seconds <= MAX_PACKED_SECONDS && seconds >= -MAX_PACKED_SECONDS - 1;
+	}
+
+	/**
+	 * @param packed a value returned by packTimestamp()
+	 * @return the timestamp that was packed
+	 */
+	static Instant unpackTimestamp(long packed) {
+		return Instant.ofEpochSecond(packed >> NANO_BITS, packed & ((1L << NANO_BITS) - 1));
+	}
+
+	/**
+	 * Pack a query bound, clamping timestamps outside the packable range, which
+	 * no tweet of the packed arrays has.
+	 */
+	private static long packBound(Instant bound) {
+		long seconds = bound.getEpochSecond();
+		if (seconds > MAX_PACKED_SECONDS) {
+			return Long.MAX_VALUE;
+		}
+		if (seconds < -MAX_PACKED_SECONDS - 1) {
+			return Long.MIN_VALUE;
+		}
+		return packTimestamp(bound);
+	}
+
+	private static Instant timestampOf(Tweet tweet) throws NullTimestampException {
+		Instant timestamp = tweet.getTimestamp();
+		if (timestamp == null) {
+			throw new NullTimestampException("timestamp of tweet is null");
+		}
+		return timestamp;
+	}
+
+	private void mergePending() {
+		if (pendingSize == 0) {
+			return;
+		}
+		int total = size + pendingSize;
+		long[] mergedTimes = new long[Math.max(16, total + (total >>> 1))];
+		Tweet[] mergedTweets = new Tweet[mergedTimes.length];
+		int[] mergedOrdinals = new int[mergedTimes.length];
+		int i = 0;
+		int j = 0;
+		for (int k = 0; k < total; k++) {
+			if (j >= pendingSize || (i < size && times[i] <= pendingTimes[j])) {
+				mergedTimes[k] = times[i];
+				mergedTweets[k] = tweets[i];
+				mergedOrdinals[k] = ordinals[i];
+				i++;
+			} else {
+				mergedTimes[k] = pendingTimes[j];
+				mergedTweets[k] = pendingTweets[j];
+				mergedOrdinals[k] = pendingOrdinals[j];
+				j++;
+			}
+		}
+		times = mergedTimes;
+		tweets = mergedTweets;
+		ordinals = mergedOrdinals;
+		size = total;
+		Arrays.fill(pendingTweets, 0, pendingSize, null);
+		pendingSize = 0;
+	}
+
+	/**
+	 * @return the indices 0..keys.length-1 ordered by ascending key, equal keys
+	 * in ascending index order
+	 */
+	private static int[] sortedOrder(long[] keys) {
+		int n = keys.length;
+		int[] order = new int[n];
+		boolean sorted = true;
+		for (int i = 0; i < n; i++) {
+			order[i] = i;
+			if (i > 0 && keys[i - 1] > keys[i]) {
+				sorted = false;
+			}
+		}
+		if (sorted) {
+			return order;
+		}
+
+		// bottom-up merge sort, which is stable
+		int[] buffer = new int[n];
+		for (int width = 1; width < n; width *= 2) {
+			for (int low = 0; low < n; low += 2 * width) {
+				int middle = Math.min(low + width, n);
+				int high = Math.min(low + 2 * width, n);
+				int i = low;
+				int j = middle;
+				for (int k = low; k < high; k++) {
+					if (j >= high || (i < middle && keys[order[i]] <= keys[order[j]])) {
+						buffer[k] = order[i++];
+					} else {
+						buffer[k] = order[j++];
+					}
+				}
+			}
+			int[] swap = order;
+			order = buffer;
+			buffer = swap;
+		}
+		return order;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > times.length) {
+			int newCapacity = Math.max(capacity, times.length + (times.length >>> 1));
+			times = Arrays.copyOf(times, newCapacity);
+			tweets = Arrays.copyOf(tweets, newCapacity);
+			ordinals = Arrays.copyOf(ordinals, newCapacity);
+		}
+	}
+
+	/**
+	 * @return the first index in sorted[0..length) whose value is >= key, or length
+	 */
+	private static int lowerBound(long[] sorted, int length, long key) {
+		int low = 0;
+		int high = length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (sorted[middle] < key) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @return the first index in sorted[0..length) whose value is > key, or length
+	 */
+	private static int upperBound(long[] sorted, int length, long key) {
+		int low = 0;
+		int high = length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (sorted[middle] <= key) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Merges the main arrays and the side buffer from their newest ends, after
+	 * the outliers later than every packed timestamp and before the earlier ones.
+	 */
+	private class NewestFirst implements Iterator<Tweet> {
+		private final List<Tweet> lateOutliers = new ArrayList<>();
+		private final List<Tweet> earlyOutliers = new ArrayList<>();
+		private int nextLate = 0;
+		private int nextMain = size - 1;
+		private int nextPending = pendingSize - 1;
+		private int nextEarly = 0;
+
+		NewestFirst() {
+			for (Tweet outlier : outliers) {
+				(outlier.getTimestamp().getEpochSecond() < 0 ? earlyOutliers : lateOutliers).add(outlier);
+			}
+			lateOutliers.sort((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()));
+			earlyOutliers.sort((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()));
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextLate < lateOutliers.size() || nextMain >= 0 || nextPending >= 0
+					|| nextEarly < earlyOutliers.size();
+		}
+
+		@Override
+		public Tweet next() {
+			if (nextLate < lateOutliers.size()) {
+				return lateOutliers.get(nextLate++);
+			}
+			if (nextMain >= 0 && (nextPending < 0 || times[nextMain] >= pendingTimes[nextPending])) {
+				return tweets[nextMain--];
+			}
+			if (nextPending >= 0) {
+				return pendingTweets[nextPending--];
+			}
+			if (nextEarly < earlyOutliers.size()) {
+				return earlyOutliers.get(nextEarly++);
+			}
+			throw new NoSuchElementException();
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.stream.Collector;
+
+/**
+ * TimespanAccumulator keeps the earliest and latest timestamps of the tweets it
+ * has been given, so the timespan of a list of tweets can be found in one pass
+ * without sorting or modifying the list.
+ * <p>
+ * The bounds are kept as primitive epoch seconds plus nanos, so accepting a
+ * tweet does not allocate. Accumulators filled from different chunks of a list
+ * can be combined with merge().
+ */
+public class TimespanAccumulator {
+
+	private long minSeconds = Long.MAX_VALUE;
+	private int minNanos = 0;
+	private long maxSeconds = Long.MIN_VALUE;
+	private int maxNanos = 0;
+	private long count = 0;
+	/* Rep invariant:
+	 *    count == 0 or (minSeconds, minNanos) <= (maxSeconds, maxNanos)
+	 *    0 <= minNanos, maxNanos < 1,000,000,000
+	 */
+
+	/**
+	 * Add the timestamp of a tweet to this accumulator.
+	 *
+	 * @param tweet tweet whose timestamp is non-null
+	 */
+	public void accept(Tweet tweet) {
+		accept(tweet.getTimestamp());
+	}
+
+	/**
+	 * Add a timestamp to this accumulator.
+	 *
+	 * @param timestamp non-null date/time
+	 */
+	public void accept(Instant timestamp) {
+		accept(timestamp.getEpochSecond(), timestamp.getNano());
+	}
+
+	/**
+	 * Add a timestamp, given as epoch seconds plus nanos, to this accumulator.
+	 *
+	 * @param epochSecond seconds since 1970-01-01T00:00:00Z
+	 * @param nanos       nanosecond adjustment, 0 <= nanos < 1,000,000,000
+	 */
+	public void accept(long epochSecond, int nanos) {
+		if (epochSecond < minSeconds || (epochSecond == minSeconds && nanos < minNanos)) {
+			minSeconds = epochSecond;
+			minNanos = nanos;
+		}
+		if (epochSecond > maxSeconds || (epochSecond == maxSeconds && nanos > maxNanos)) {
+			maxSeconds = epochSecond;
+			maxNanos = nanos;
+		}
+		count++;
+	}
+
+	/**
+	 * Combine the timestamps seen by another accumulator into this one.
+	 *
+	 * @param other accumulator to merge, not modified by this method.
+	 * @return this accumulator
+	 */
+	public TimespanAccumulator merge(TimespanAccumulator other) {
+		if (other.count == 0) {
+			return this;
+		}
+		accept(other.minSeconds, other.minNanos);
+		accept(other.maxSeconds, other.maxNanos);
+		count += other.count - 2;
+		return this;
+	}
+
+	/**
+	 * @return true if no timestamp has been accepted yet
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * @return number of timestamps accepted, including those merged in
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return a minimum-length time interval that contains every timestamp
+	 * accepted so far.
+	 * @throws IllegalStateException if no timestamp has been accepted
+	 */
+	public Timespan toTimespan() {
+		if (count == 0) {
+			throw new IllegalStateException("no timestamps accumulated");
+		}
+		return new Timespan(Instant.ofEpochSecond(minSeconds, minNanos), Instant.ofEpochSecond(maxSeconds, maxNanos));
+	}
+
+	/**
+	 * @return a collector that accumulates the timestamps of a (possibly
+	 * parallel) stream of tweets.
+	 */
+	public static Collector<Tweet, TimespanAccumulator, TimespanAccumulator> collector() {
+		return Collector.of(TimespanAccumulator::new, TimespanAccumulator::accept, TimespanAccumulator::merge,
+				Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+	}
+}
@@ -0,0 +1,136 @@
+package twitter;
+
+/**
+ * TriadicClosure finds the triadic closure edges of a follows graph: if A and
+ * B follow each other, and so do B and C, then A and C are guessed to follow
+ * each other too. reference:https://en.wikipedia.org/wiki/Triadic_closure
+ * <p>
+ * Rather than comparing every pair of people, findEdges() visits each person B
+ * once and pairs up B's mutual followers, found by merging B's sorted follows
+ * and followers rows. Its cost thus grows with the sum over all people of the
+ * square of their number of mutual followers, not with the square of the
+ * number of people. The edges come out packed into longs, with the follower's
+ * id in the high 32 bits and the followee's in the low 32 bits.
+ * <p>
+ * A person with more than maxFanOut mutual followers, e.g. a celebrity who
+ * answers fans, is not used as a B: pairing up k mutual followers adds
+ * k(k - 1) edges, which for such a person say little about who knows whom.
+ * <p>
+ * A TriadicClosure is immutable, so it is safe for use by multiple threads.
+ */
+public class TriadicClosure {
+
+	/** Fan-out cap that never skips a person. */
+	public static final int UNLIMITED = Integer.MAX_VALUE;
+
+	private final int maxFanOut;
+	/* Rep invariant:
+	 *    maxFanOut >= 0
+	 */
+
+	/**
+	 * Make an engine that pairs up the mutual followers of every person.
+	 */
+	public TriadicClosure() {
+		this(UNLIMITED);
+	}
+
+	/**
+	 * Make an engine that skips people with many mutual followers.
+	 *
+	 * @param maxFanOut largest number of mutual followers of a person whose
+	 *                  mutual followers are paired up, >= 0
+	 */
+	public TriadicClosure(int maxFanOut) {
+		if (maxFanOut < 0) {
+			throw new IllegalArgumentException("requires maxFanOut >= 0");
+		}
+		this.maxFanOut = maxFanOut;
+	}
+
+	/**
+	 * @return the largest number of mutual followers of a person whose mutual
+	 * followers are paired up
+	 */
+	public int getMaxFanOut() {
+		return maxFanOut;
+	}
+
+	/**
+	 * Find the triadic closure edges of a graph.
+	 *
+	 * @param graph a follows graph
+	 * @return the distinct edges A -> C, ascending, such that A != C and for
+	 * some person B with at most maxFanOut mutual followers, both A and C
+	 * are mutual followers of B; packed as described above. Edges that are
+	 * already in graph are included.
+	 * @throws IllegalStateException if there are more distinct edges than an
+	 *                               array can hold
+	 */
+	public long[] findEdges(FollowsGraph graph) {
+		EdgeBuffer edges = new EdgeBuffer();
+		int[] mutualFollowers = new int[graph.getAuthorCount()];
+		for (int b = 0; b < graph.getAuthorCount(); b++) {
+			addEdges(graph, b, mutualFollowers, edges);
+		}
+		edges.sortDistinct();
+		return edges.toArray();
+	}
+
+	/**
+	 * Add the closure edges through one person to a buffer, unsorted and
+	 * possibly repeating edges found through other people.
+	 *
+	 * @param graph           a follows graph
+	 * @param b               id of a person of graph
+	 * @param mutualFollowers scratch array with room for graph.getAuthorCount() ids
+	 * @param edges           buffer the edges are appended to; if it is full, its
+	 *                        edges are first sorted and de-duplicated
+	 * @throws IllegalStateException if the edges still do not fit in the buffer
+	 */
+	void addEdges(FollowsGraph graph, int b, int[] mutualFollowers, EdgeBuffer edges) {
+		int k = graph.getMutualFollowers(b, mutualFollowers);
+		if (k < 2 || k > maxFanOut) {
+			return;
+		}
+		long needed = edges.size() + (long) k * (k - 1);
+		if (needed > EdgeBuffer.MAX_SIZE) {
+			// drop the edges also found through earlier people before giving up
+			edges.sortDistinct();
+			needed = edges.size() + (long) k * (k - 1);
+		}
+		edges.ensureCapacity(needed);
+		for (int i = 0; i < k; i++) {
+			for (int j = 0; j < k; j++) {
+				if (i != j) {
+					edges.add(pack(mutualFollowers[i], mutualFollowers[j]));
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param follower id of the follower
+	 * @param followee id of the person followed
+	 * @return the edge follower -> followee, packed
+	 */
+	public static long pack(int follower, int followee) {
+		return (long) follower << 32 | followee;
+	}
+
+	/**
+	 * @param edge a packed edge
+	 * @return id of the follower of edge
+	 */
+	public static int getFollower(long edge) {
+		return (int) (edge >>> 32);
+	}
+
+	/**
+	 * @param edge a packed edge
+	 * @return id of the person followed in edge
+	 */
+	public static int getFollowee(long edge) {
+		return (int) edge;
+	}
+}
@@ -0,0 +1,85 @@
+package twitter;
+
+/**
+ * TweetColumns is the column-by-column read access shared by the in-memory
+ * TweetStore and the memory-mapped TweetSegment, so that the scans in Extract,
+ * Filter and SocialNetwork are written once for both.
+ * <p>
+ * Tweet i has index i, 0 <= i < size(). Only get() and getText() check the
+ * index; the other methods are for scans that already did.
+ */
+abstract class TweetColumns {
+
+	/**
+	 * @return number of tweets
+	 */
+	abstract int size();
+
+	/**
+	 * @return a new Tweet equal in id, author, text and timestamp to the tweet
+	 * at index
+	 */
+	abstract Tweet get(int index);
+
+	/**
+	 * @return decoded text of the tweet
+	 */
+	abstract String getText(int index);
+
+	/**
+	 * @return true iff the tweet has a timestamp
+	 */
+	abstract boolean hasTimestamp(int index);
+
+	/**
+	 * @return epoch second of the tweet's timestamp, if it has one
+	 */
+	abstract long getEpochSecond(int index);
+
+	/**
+	 * @return nanosecond of the tweet's timestamp, if it has one
+	 */
+	abstract int getNano(int index);
+
+	/**
+	 * @return dictionary id of the tweet's author spelling, or -1 if it has none
+	 */
+	abstract int getAuthorId(int index);
+
+	/**
+	 * @return number of distinct author spellings
+	 */
+	abstract int getAuthorCount();
+
+	/**
+	 * @param authorId dictionary id of an author spelling
+	 * @return the spelling
+	 */
+	abstract String getAuthorName(int authorId);
+
+	/**
+	 * @param authorId dictionary id of an author spelling
+	 * @return an id shared by exactly the spellings equal ignoring case
+	 */
+	abstract int getFoldedAuthorId(int authorId);
+
+	/**
+	 * @param username Twitter username
+	 * @return the id getFoldedAuthorId() gives the spellings of username, or -1
+	 * if no tweet was written by username
+	 */
+	abstract int lookupFoldedAuthorId(String username);
+
+	/**
+	 * Point a Utf8Text at the UTF-8 text of a tweet, without copying it.
+	 *
+	 * @return view
+	 */
+	abstract Utf8Text rawText(int index, Utf8Text view);
+
+	/**
+	 * @return true iff the text of the tweet is all ASCII, so rawText() reads
+	 * the same as getText()
+	 */
+	abstract boolean isAsciiText(int index);
+}
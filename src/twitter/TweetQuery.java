@@ -0,0 +1,728 @@
+package twitter;
+
+import twitter.exception.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.RandomAccess;
+import java.util.function.IntConsumer;
+
+/**
+ * TweetQuery is an immutable condition on tweets, built from the conditions of
+ * Filter.writtenBy(), Filter.inTimespan() and Filter.containing() combined
+ * with and(), or() and not().
+ * <p>
+ * Instead of one pass and one intermediate list per condition, execute()
+ * plans the whole query and evaluates it in a single pass:
+ * <ul>
+ * <li>each condition gets an estimated selectivity (fraction of tweets it
+ * accepts), from an index when one is given and otherwise from an evenly
+ * spaced sample of the tweets, and a cost per tweet;</li>
+ * <li>the operands of an and are tried in ascending order of
+ * cost / (1 - selectivity), those of an or in ascending order of
+ * cost / selectivity, so the condition most likely to decide the outcome
+ * cheaply runs first;</li>
+ * <li>conditions answered by an index become bitmaps of tweet ordinals, and
+ * when the top-level condition is an and, the other conditions are only
+ * evaluated on the tweets the bitmaps allow.</li>
+ * </ul>
+ * explain() describes the plan execute() would choose.
+ * <p>
+ * When scanning, every tweet is checked for the fields the query reads, as the
+ * Filter methods check them. Tweets ruled out by an index are not checked
+ * again; the index checked them when it was built.
+ */
+public abstract class TweetQuery {
+
+	private static final int SAMPLE_SIZE = 64;
+	private static final double INDEX_COST = 0.1;
+	private static final double FIELD_COST = 1;
+
+	TweetQuery() {
+	}
+
+	/**
+	 * @param username Twitter username, required to be a valid Twitter username
+	 * @return condition that a tweet's author is username, ignoring case
+	 * @throws UnqualifiedUsernameException if username is not a valid Twitter username
+	 */
+	public static TweetQuery writtenBy(String username) throws UnqualifiedUsernameException {
+		if (!Filter.isRequiredUsername(username)) {
+			throw new UnqualifiedUsernameException("unqualified username");
+		}
+		return new WrittenBy(username);
+	}
+
+	/**
+	 * @param timespan timespan
+	 * @return condition that a tweet was sent during timespan, endpoints included
+	 * @throws NullTimestampException if timespan is null
+	 */
+	public static TweetQuery inTimespan(Timespan timespan) throws NullTimestampException {
+		if (timespan == null) {
+			throw new NullTimestampException("timestamp of timespan is null");
+		}
+		return new InTimespan(timespan);
+	}
+
+	/**
+	 * @param words a list of words. A word is a nonempty sequence of nonspace characters.
+	 * @return condition that a tweet's text includes at least one of the words,
+	 * compared as by Filter.containing()
+	 * @throws NullOrEmptyWordException if a word is null, empty or contains a space
+	 */
+	public static TweetQuery containing(List<String> words) throws NullOrEmptyWordException {
+		return new Containing(new WordMatcher(words), new ArrayList<>(words));
+	}
+
+	/**
+	 * @param other a condition
+	 * @return condition that both this and other hold
+	 */
+	public TweetQuery and(TweetQuery other) {
+		return new Composite(Operator.AND, this, other);
+	}
+
+	/**
+	 * @param other a condition
+	 * @return condition that this or other (or both) hold
+	 */
+	public TweetQuery or(TweetQuery other) {
+		return new Composite(Operator.OR, this, other);
+	}
+
+	/**
+	 * @return condition that this does not hold
+	 */
+	public TweetQuery not() {
+		return new Not(this);
+	}
+
+	/**
+	 * Find the tweets satisfying this query, in one pass.
+	 *
+	 * @param tweets a list of tweets with distinct ids, not modified by this method.
+	 * @return all and only the tweets in the list that satisfy this query, in
+	 * the same order as in the input list.
+	 * @throws NullOrEmptyAuthorException      if the query reads authors and a tweet's author is null or empty
+	 * @throws UnqualifiedUsernameException    if the query reads authors and a tweet's author is not valid
+	 * @throws NullTimestampException          if the query reads timestamps and a tweet's timestamp is null
+	 * @throws NullOrEmptyTextOfTweetException if the query reads texts and a tweet's text is empty
+	 */
+	public List<Tweet> execute(List<Tweet> tweets) throws NullOrEmptyAuthorException, UnqualifiedUsernameException,
+			NullTimestampException, NullOrEmptyTextOfTweetException {
+		return execute(new Indexes(tweets, null, null, null));
+	}
+
+	/**
+	 * Find the indexed tweets satisfying this query, using the indexes.
+	 *
+	 * @param indexes indexes of a list of tweets
+	 * @return the same list as execute() on the indexed list
+	 * @throws NullOrEmptyAuthorException      as for execute(List)
+	 * @throws UnqualifiedUsernameException    as for execute(List)
+	 * @throws NullTimestampException          as for execute(List)
+	 * @throws NullOrEmptyTextOfTweetException as for execute(List)
+	 */
+	public List<Tweet> execute(Indexes indexes) throws NullOrEmptyAuthorException, UnqualifiedUsernameException,
+			NullTimestampException, NullOrEmptyTextOfTweetException {
+		Statistics statistics = new Statistics(indexes);
+		List<Tweet> result = new ArrayList<>();
+		execute(statistics, ordinal -> result.add(statistics.tweets.get(ordinal)));
+		return result;
+	}
+
+	/**
+	 * Find the ordinals of the indexed tweets satisfying this query.
+	 *
+	 * @param indexes indexes of a list of tweets
+	 * @return the ordinals of the tweets execute(indexes) returns
+	 */
+	CompressedBitmap executeOrdinals(Indexes indexes) throws NullOrEmptyAuthorException, UnqualifiedUsernameException,
+			NullTimestampException, NullOrEmptyTextOfTweetException {
+		CompressedBitmap result = new CompressedBitmap();
+		execute(new Statistics(indexes), result::add);
+		return result;
+	}
+
+	/**
+	 * Pass the ordinals of the tweets satisfying this query to matched, in
+	 * ascending order.
+	 */
+	private void execute(Statistics statistics, IntConsumer matched) throws NullOrEmptyAuthorException,
+			UnqualifiedUsernameException, NullTimestampException, NullOrEmptyTextOfTweetException {
+		Plan plan = plan(statistics);
+		List<Tweet> tweets = statistics.tweets;
+
+		if (plan.isIndexed()) {
+			for (int ordinal : plan.ordinals.toArray()) {
+				matched.accept(ordinal);
+			}
+		} else if (plan.operator == Operator.AND && plan.ordinals != null) {
+			// evaluate the rest of the and on the candidates of its indexed operands only
+			for (int ordinal : plan.ordinals.toArray()) {
+				Tweet tweet = tweets.get(ordinal);
+				plan.check(tweet);
+				if (plan.matchesResidual(tweet, ordinal)) {
+					matched.accept(ordinal);
+				}
+			}
+		} else {
+			for (int ordinal = 0; ordinal < tweets.size(); ordinal++) {
+				Tweet tweet = tweets.get(ordinal);
+				plan.check(tweet);
+				if (plan.matches(tweet, ordinal)) {
+					matched.accept(ordinal);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param tweets a list of tweets, not modified by this method.
+	 * @return a description of the plan execute(tweets) would choose
+	 */
+	public String explain(List<Tweet> tweets) {
+		return explain(new Indexes(tweets, null, null, null));
+	}
+
+	/**
+	 * @param indexes indexes of a list of tweets
+	 * @return a description of the plan execute(indexes) would choose
+	 */
+	public String explain(Indexes indexes) {
+		Statistics statistics = new Statistics(indexes);
+		Plan plan = plan(statistics);
+		int n = statistics.tweets.size();
+		StringBuilder out = new StringBuilder();
+		if (plan.isIndexed()) {
+			out.append("index lookup of ").append(plan.ordinals.cardinality()).append(" of ").append(n).append(" tweets\n");
+		} else if (plan.operator == Operator.AND && plan.ordinals != null) {
+			out.append("index lookup, then scan of ").append(plan.ordinals.cardinality())
+					.append(" of ").append(n).append(" tweets\n");
+		} else {
+			out.append("scan of ").append(n).append(" tweets\n");
+		}
+		plan.explain(out, 1);
+		return out.toString();
+	}
+
+	/**
+	 * @return a plan for evaluating this query
+	 */
+	abstract Plan plan(Statistics statistics);
+
+	/**
+	 * @return false if no tweet of a group with this zone map can satisfy this query
+	 */
+	abstract boolean mayMatch(ZoneMap zone);
+
+	/**
+	 * @return true if every tweet of a group with this zone map satisfies this query
+	 */
+	abstract boolean mustMatch(ZoneMap zone);
+
+	/**
+	 * Indexes of one list of tweets that a query may use. Every index given
+	 * must have been built from exactly that list, in the same order.
+	 */
+	public static class Indexes {
+		private final List<Tweet> tweets;
+		private final AuthorIndex authors;
+		private final TimeIndex times;
+		private final WordIndex words;
+
+		/**
+		 * @param tweets  a list of tweets, not modified by this class.
+		 * @param authors an index of the authors of tweets, or null
+		 * @param times   an index of the timestamps of tweets, or null
+		 * @param words   an index of the words of tweets, or null
+		 */
+		public Indexes(List<Tweet> tweets, AuthorIndex authors, TimeIndex times, WordIndex words) {
+			int n = tweets.size();
+			if ((authors != null && authors.size() != n) || (times != null && times.size() != n)
+					|| (words != null && words.size() != n)) {
+				throw new IllegalArgumentException("requires indexes of the same tweets");
+			}
+			this.tweets = tweets;
+			this.authors = authors;
+			this.times = times;
+			this.words = words;
+		}
+	}
+
+	private enum Operator {
+		LEAF, AND, OR, NOT
+	}
+
+	/**
+	 * The tweets a query runs on, with the estimates its plan is based on.
+	 */
+	private static class Statistics {
+		private final Indexes indexes;
+		private final List<Tweet> tweets;
+		private final List<Tweet> sample = new ArrayList<>();
+		private final double averageTextLength;
+
+		Statistics(Indexes indexes) {
+			this.indexes = indexes;
+			this.tweets = indexes.tweets instanceof RandomAccess ? indexes.tweets : new ArrayList<>(indexes.tweets);
+			int n = tweets.size();
+			int k = Math.min(n, SAMPLE_SIZE);
+			long textLength = 0;
+			for (int i = 0; i < k; i++) {
+				Tweet tweet = tweets.get((int) ((long) i * n / k));
+				sample.add(tweet);
+				textLength += tweet.getText().length();
+			}
+			averageTextLength = k == 0 ? 0 : (double) textLength / k;
+		}
+
+		/**
+		 * @return estimated fraction of the tweets accepted by leaf, smoothed so
+		 * it is never 0 or 1
+		 */
+		double sampleSelectivity(Leaf leaf) {
+			int accepted = 0;
+			for (Tweet tweet : sample) {
+				if (leaf.test(tweet)) {
+					accepted++;
+				}
+			}
+			return (accepted + 0.5) / (sample.size() + 1);
+		}
+
+		CompressedBitmap all() {
+			CompressedBitmap result = new CompressedBitmap();
+			for (int i = 0; i < tweets.size(); i++) {
+				result.add(i);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * A node of a query plan. An indexed node has its answer in ordinals; an and
+	 * or or node may have the combined answer of its indexed operands in
+	 * ordinals and the rest of its operands, in evaluation order, in residual.
+	 */
+	private static class Plan {
+		private final Operator operator;
+		private final Leaf leaf;
+		private final String label;
+		private final List<Plan> indexed;
+		private final List<Plan> residual;
+		private final CompressedBitmap ordinals;
+		private final double selectivity;
+		private final double cost;
+
+		Plan(Operator operator, Leaf leaf, String label, List<Plan> indexed, List<Plan> residual,
+			 CompressedBitmap ordinals, double selectivity, double cost) {
+			this.operator = operator;
+			this.leaf = leaf;
+			this.label = label;
+			this.indexed = indexed;
+			this.residual = residual;
+			this.ordinals = ordinals;
+			this.selectivity = selectivity;
+			this.cost = cost;
+		}
+
+		boolean isIndexed() {
+			return ordinals != null && residual.isEmpty();
+		}
+
+		void check(Tweet tweet) throws NullOrEmptyAuthorException, UnqualifiedUsernameException,
+				NullTimestampException, NullOrEmptyTextOfTweetException {
+			if (operator == Operator.LEAF) {
+				if (ordinals == null) {
+					leaf.check(tweet);
+				}
+				return;
+			}
+			for (Plan operand : residual) {
+				operand.check(tweet);
+			}
+		}
+
+		boolean matches(Tweet tweet, int ordinal) {
+			if (isIndexed()) {
+				return ordinals.contains(ordinal);
+			}
+			switch (operator) {
+				case LEAF:
+					return leaf.test(tweet);
+				case AND:
+					return (ordinals == null || ordinals.contains(ordinal)) && matchesResidual(tweet, ordinal);
+				case OR:
+					if (ordinals != null && ordinals.contains(ordinal)) {
+						return true;
+					}
+					for (Plan operand : residual) {
+						if (operand.matches(tweet, ordinal)) {
+							return true;
+						}
+					}
+					return false;
+				default:
+					return !residual.get(0).matches(tweet, ordinal);
+			}
+		}
+
+		/**
+		 * @return true iff every residual operand of this and matches
+		 */
+		boolean matchesResidual(Tweet tweet, int ordinal) {
+			for (Plan operand : residual) {
+				if (!operand.matches(tweet, ordinal)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		void explain(StringBuilder out, int depth) {
+			for (int i = 0; i < depth; i++) {
+				out.append("  ");
+			}
+			out.append(label);
+			if (isIndexed()) {
+				out.append(String.format(Locale.ROOT, " [index, %d tweets]", ordinals.cardinality()));
+			} else {
+				out.append(String.format(Locale.ROOT, " [scan, selectivity %.3f, cost %.2f]", selectivity, cost));
+			}
+			out.append('\n');
+			for (Plan operand : indexed) {
+				operand.explain(out, depth + 1);
+			}
+			for (Plan operand : residual) {
+				operand.explain(out, depth + 1);
+			}
+		}
+	}
+
+	/**
+	 * A condition on one field of a tweet.
+	 */
+	private abstract static class Leaf extends TweetQuery {
+
+		/**
+		 * @return true iff tweet satisfies this condition; false if the field
+		 * this condition reads is missing
+		 */
+		abstract boolean test(Tweet tweet);
+
+		/**
+		 * Check the field this condition reads, as the Filter method does.
+		 */
+		abstract void check(Tweet tweet) throws NullOrEmptyAuthorException, UnqualifiedUsernameException,
+				NullTimestampException, NullOrEmptyTextOfTweetException;
+
+		/**
+		 * @return the ordinals of the tweets satisfying this condition, or null
+		 * if there is no index to find them with
+		 */
+		abstract CompressedBitmap lookup(Indexes indexes);
+
+		/**
+		 * @return estimated cost of test() on one tweet
+		 */
+		abstract double cost(Statistics statistics);
+
+		@Override
+		Plan plan(Statistics statistics) {
+			CompressedBitmap ordinals = lookup(statistics.indexes);
+			if (ordinals != null) {
+				double selectivity = (double) ordinals.cardinality() / Math.max(1, statistics.tweets.size());
+				return new Plan(Operator.LEAF, this, toString(), Collections.emptyList(), Collections.emptyList(),
+						ordinals, selectivity, INDEX_COST);
+			}
+			return new Plan(Operator.LEAF, this, toString(), Collections.emptyList(), Collections.emptyList(),
+					null, statistics.sampleSelectivity(this), cost(statistics));
+		}
+	}
+
+	private static class WrittenBy extends Leaf {
+		private final String username;
+
+		WrittenBy(String username) {
+			this.username = username;
+		}
+
+		@Override
+		boolean test(Tweet tweet) {
+			return username.equalsIgnoreCase(tweet.getAuthor());
+		}
+
+		@Override
+		void check(Tweet tweet) throws NullOrEmptyAuthorException, UnqualifiedUsernameException {
+			String author = tweet.getAuthor();
+			if (author == null || author.isEmpty()) {
+				throw new NullOrEmptyAuthorException("author name of tweet is null or empty string");
+			}
+			if (!Filter.isRequiredUsername(author)) {
+				throw new UnqualifiedUsernameException("unqualified author name");
+			}
+		}
+
+		@Override
+		CompressedBitmap lookup(Indexes indexes) {
+			return indexes.authors == null ? null : indexes.authors.ordinalsWrittenBy(username);
+		}
+
+		@Override
+		double cost(Statistics statistics) {
+			return FIELD_COST;
+		}
+
+		@Override
+		boolean mayMatch(ZoneMap zone) {
+			return zone.mayHaveAuthor(username);
+		}
+
+		@Override
+		boolean mustMatch(ZoneMap zone) {
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return "writtenBy(" + username + ")";
+		}
+	}
+
+	private static class InTimespan extends Leaf {
+		private final Timespan timespan;
+
+		InTimespan(Timespan timespan) {
+			this.timespan = timespan;
+		}
+
+		@Override
+		boolean test(Tweet tweet) {
+			Instant timestamp = tweet.getTimestamp();
+			return timestamp != null && !timestamp.isBefore(timespan.getStart()) && !timestamp.isAfter(timespan.getEnd());
+		}
+
+		@Override
+		void check(Tweet tweet) throws NullTimestampException {
+			if (tweet.getTimestamp() == null) {
+				throw new NullTimestampException("timestamp of tweet is null");
+			}
+		}
+
+		@Override
+		CompressedBitmap lookup(Indexes indexes) {
+			return indexes.times == null ? null : indexes.times.ordinalsInTimespan(timespan);
+		}
+
+		@Override
+		double cost(Statistics statistics) {
+			return FIELD_COST;
+		}
+
+		@Override
+		boolean mayMatch(ZoneMap zone) {
+			return zone.mayOverlap(timespan);
+		}
+
+		@Override
+		boolean mustMatch(ZoneMap zone) {
+			return zone.isWithin(timespan);
+		}
+
+		@Override
+		public String toString() {
+			return "inTimespan(" + timespan + ")";
+		}
+	}
+
+	private static class Containing extends Leaf {
+		private final WordMatcher matcher;
+		private final List<String> words;
+
+		Containing(WordMatcher matcher, List<String> words) {
+			this.matcher = matcher;
+			this.words = words;
+		}
+
+		@Override
+		boolean test(Tweet tweet) {
+			String text = tweet.getText();
+			return !text.isEmpty() && matcher.matches(text);
+		}
+
+		@Override
+		void check(Tweet tweet) throws NullOrEmptyTextOfTweetException {
+			if (tweet.getText().isEmpty()) {
+				throw new NullOrEmptyTextOfTweetException("text of tweet is empty string");
+			}
+		}
+
+		@Override
+		CompressedBitmap lookup(Indexes indexes) {
+			if (indexes.words == null) {
+				return null;
+			}
+			try {
+				return indexes.words.anyOf(words);
+			} catch (NullOrEmptyWordException e) {
+				throw new AssertionError("words were checked by WordMatcher", e);
+			}
+		}
+
+		@Override
+		double cost(Statistics statistics) {
+			// one automaton step per character
+			return FIELD_COST + statistics.averageTextLength / 16;
+		}
+
+		@Override
+		boolean mayMatch(ZoneMap zone) {
+			return zone.mayContainAny(matcher.getWords());
+		}
+
+		@Override
+		boolean mustMatch(ZoneMap zone) {
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return "containing(" + words + ")";
+		}
+	}
+
+	private static class Composite extends TweetQuery {
+		private final Operator operator;
+		private final List<TweetQuery> operands = new ArrayList<>();
+
+		Composite(Operator operator, TweetQuery left, TweetQuery right) {
+			this.operator = operator;
+			for (TweetQuery operand : Arrays.asList(left, right)) {
+				// flatten nested operations of the same kind, so they are ordered together
+				if (operand instanceof Composite && ((Composite) operand).operator == operator) {
+					operands.addAll(((Composite) operand).operands);
+				} else {
+					operands.add(operand);
+				}
+			}
+		}
+
+		@Override
+		Plan plan(Statistics statistics) {
+			List<Plan> indexed = new ArrayList<>();
+			List<Plan> residual = new ArrayList<>();
+			for (TweetQuery operand : operands) {
+				Plan plan = operand.plan(statistics);
+				(plan.isIndexed() ? indexed : residual).add(plan);
+			}
+			boolean and = operator == Operator.AND;
+
+			// combine the indexed operands, smallest first so an and shrinks fast
+			indexed.sort(Comparator.comparingInt(plan -> plan.ordinals.cardinality()));
+			CompressedBitmap ordinals = null;
+			for (Plan plan : indexed) {
+				ordinals = ordinals == null ? plan.ordinals : and ? ordinals.and(plan.ordinals) : ordinals.or(plan.ordinals);
+			}
+
+			// an and rejects sooner with selective operands, an or accepts sooner with unselective ones
+			residual.sort(Comparator.comparingDouble(plan -> and
+					? plan.cost / Math.max(1e-9, 1 - plan.selectivity)
+					: plan.cost / Math.max(1e-9, plan.selectivity)));
+
+			// estimates assume the operands are independent
+			double pass = 1;
+			double cost = 0;
+			if (ordinals != null) {
+				double fraction = (double) ordinals.cardinality() / Math.max(1, statistics.tweets.size());
+				pass = and ? fraction : 1 - fraction;
+				cost = INDEX_COST;
+			}
+			for (Plan plan : residual) {
+				cost += pass * plan.cost;
+				pass *= and ? plan.selectivity : 1 - plan.selectivity;
+			}
+			double selectivity = and ? pass : 1 - pass;
+			return new Plan(operator, null, operator.name(), indexed, residual, ordinals, selectivity, cost);
+		}
+
+		@Override
+		boolean mayMatch(ZoneMap zone) {
+			// an and needs every operand, an or any one
+			boolean and = operator == Operator.AND;
+			for (TweetQuery operand : operands) {
+				if (operand.mayMatch(zone) != and) {
+					return !and;
+				}
+			}
+			return and;
+		}
+
+		@Override
+		boolean mustMatch(ZoneMap zone) {
+			// an and needs every operand, an or any one
+			boolean and = operator == Operator.AND;
+			for (TweetQuery operand : operands) {
+				if (operand.mustMatch(zone) != and) {
+					return !and;
+				}
+			}
+			return and;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder result = new StringBuilder("(");
+			for (int i = 0; i < operands.size(); i++) {
+				result.append(i == 0 ? "" : " " + operator + " ").append(operands.get(i));
+			}
+			return result.append(")").toString();
+		}
+	}
+
+	private static class Not extends TweetQuery {
+		private final TweetQuery operand;
+
+		Not(TweetQuery operand) {
+			this.operand = operand;
+		}
+
+		@Override
+		public TweetQuery not() {
+			return operand;
+		}
+
+		@Override
+		Plan plan(Statistics statistics) {
+			Plan plan = operand.plan(statistics);
+			if (plan.isIndexed()) {
+				CompressedBitmap ordinals = statistics.all().andNot(plan.ordinals);
+				return new Plan(Operator.NOT, null, "NOT", Collections.singletonList(plan), Collections.emptyList(),
+						ordinals, 1 - plan.selectivity, INDEX_COST);
+			}
+			return new Plan(Operator.NOT, null, "NOT", Collections.emptyList(), Collections.singletonList(plan),
+					null, 1 - plan.selectivity, plan.cost);
+		}
+
+		@Override
+		boolean mayMatch(ZoneMap zone) {
+			return !operand.mustMatch(zone);
+		}
+
+		@Override
+		boolean mustMatch(ZoneMap zone) {
+			return !operand.mayMatch(zone);
+		}
+
+		@Override
+		public String toString() {
+			return "NOT " + operand;
+		}
+	}
+}
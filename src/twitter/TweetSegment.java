@@ -0,0 +1,398 @@
+package twitter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * TweetSegment is a read-only corpus of tweets in a segment file, read in
+ * place through memory-mapped regions of the file instead of being loaded
+ * onto the heap.
+ * <p>
+ * A segment file (all numbers big-endian) is laid out as
+ * <pre>
+ *   header        64 bytes: magic "TWSG", int version, int tweet count n,
+ *                 int author count, int longest text in bytes, int 0,
+ *                 long text region start, long text region length,
+ *                 long author dictionary start, long file length, long 0
+ *   ids           n longs
+ *   seconds       n longs, epoch seconds of the timestamps
+ *   text offsets  n + 1 longs, offsets of the texts in the text region
+ *   nanos         n ints, nanoseconds of the timestamps, or -1 if none
+ *   author ids    n ints, indices into the author dictionary, or -1 if none
+ *   flags         n bytes, bit 0 set iff the text is all ASCII
+ *   text region   the UTF-8 texts, one after another
+ *   authors       per author spelling, an int byte length and its UTF-8 bytes
+ * </pre>
+ * A MappedByteBuffer holds at most 2 GB, so the file is mapped as regions of
+ * 1 GB, each also mapping the first bytes of the next region, as many as the
+ * longest text. Every column value and every text thus lies whole within the
+ * region its first byte falls in, and the scans in Extract, Filter and
+ * SocialNetwork (see their TweetSegment overloads) read it there without
+ * copying. Only the small author dictionary is read onto the heap.
+ * <p>
+ * The mapping stays valid until the segment is garbage collected; the file
+ * must not be changed while a segment of it is open. A TweetSegment is
+ * immutable and reads its buffers only by absolute index, so it is safe for
+ * use by multiple threads.
+ */
+public class TweetSegment extends TweetColumns {
+
+	static final int MAGIC = 0x54575347;
+	static final int VERSION = 1;
+	static final long REGION_SIZE = 1L << 30;
+
+	private static final int HEADER_SIZE = 64;
+	private static final int NO_AUTHOR = -1;
+	private static final int NO_TIMESTAMP = -1;
+	private static final int ASCII_TEXT = 1;
+
+	private final ByteBuffer[] regions;
+	private final long regionSize;
+	private final int size;
+	private final long secondsStart;
+	private final long textOffsetsStart;
+	private final long nanosStart;
+	private final long authorIdsStart;
+	private final long flagsStart;
+	private final long textStart;
+	private final String[] authors;
+	private final UsernameDictionary foldedAuthors = new UsernameDictionary();
+	private final int[] foldedAuthorIds;
+	/* Rep invariant:
+	 *    regions[r] maps the file from position r * regionSize, and covers the
+	 *    whole of every column value and text that starts before (r + 1) * regionSize
+	 *    the columns of the file start at HEADER_SIZE, secondsStart, ...,
+	 *    flagsStart, textStart, in the order and sizes given above
+	 *    authors holds the author dictionary of the file, and
+	 *    foldedAuthorIds[a] == foldedAuthors.lookup(authors[a])
+	 */
+
+	private TweetSegment(FileChannel channel, long regionSize) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while (header.hasRemaining()) {
+			if (channel.read(header, header.position()) < 0) {
+				throw new EOFException("not a tweet segment");
+			}
+		}
+		if (header.getInt(0) != MAGIC) {
+			throw new IOException("not a tweet segment");
+		}
+		if (header.getInt(4) != VERSION) {
+			throw new IOException("unsupported tweet segment version " + header.getInt(4));
+		}
+		size = header.getInt(8);
+		int authorCount = header.getInt(12);
+		int longestText = header.getInt(16);
+		secondsStart = HEADER_SIZE + 8L * size;
+		textOffsetsStart = secondsStart + 8L * size;
+		nanosStart = textOffsetsStart + 8L * (size + 1);
+		authorIdsStart = nanosStart + 4L * size;
+		flagsStart = authorIdsStart + 4L * size;
+		textStart = flagsStart + size;
+		long authorsStart = textStart + header.getLong(32);
+		long fileLength = channel.size();
+		if (size < 0 || authorCount < 0 || longestText < 0 || header.getLong(24) != textStart
+				|| header.getLong(40) != authorsStart || header.getLong(48) != fileLength || authorsStart > fileLength) {
+			throw new IOException("corrupt tweet segment");
+		}
+
+		long overlap = Math.max(Long.BYTES, longestText);
+		if (regionSize + overlap > Integer.MAX_VALUE) {
+			throw new IOException("text of a tweet is too long to map");
+		}
+		this.regionSize = regionSize;
+		regions = new ByteBuffer[(int) ((fileLength + regionSize - 1) / regionSize)];
+		for (int r = 0; r < regions.length; r++) {
+			long start = r * regionSize;
+			regions[r] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(fileLength - start, regionSize + overlap));
+		}
+
+		authors = new String[authorCount];
+		foldedAuthorIds = new int[authorCount];
+		long position = authorsStart;
+		for (int a = 0; a < authorCount; a++) {
+			if (position + Integer.BYTES > fileLength) {
+				throw new IOException("corrupt tweet segment");
+			}
+			byte[] bytes = new byte[getInt(position)];
+			position += Integer.BYTES;
+			if (position + bytes.length > fileLength) {
+				throw new IOException("corrupt tweet segment");
+			}
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = region(position + i).get(offset(position + i));
+			}
+			position += bytes.length;
+			authors[a] = new String(bytes, StandardCharsets.UTF_8);
+			foldedAuthorIds[a] = foldedAuthors.intern(authors[a]);
+		}
+	}
+
+	/**
+	 * Open a segment file for reading.
+	 *
+	 * @param path segment file written by write()
+	 * @return the segment
+	 * @throws IOException if the file cannot be read or is not a segment file of
+	 *                     this version
+	 */
+	public static TweetSegment open(Path path) throws IOException {
+		return open(path, REGION_SIZE);
+	}
+
+	/**
+	 * Open a segment file, mapping it as regions of regionSize bytes.
+	 */
+	static TweetSegment open(Path path, long regionSize) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return new TweetSegment(channel, regionSize);
+		}
+	}
+
+	/**
+	 * Write a list of tweets as a segment file.
+	 *
+	 * @param tweets list of tweets with non-null texts, not modified by this method.
+	 * @param path   file to create or replace
+	 */
+	public static void write(List<Tweet> tweets, Path path) throws IOException {
+		write(new TweetStore(tweets), path);
+	}
+
+	/**
+	 * Write the tweets of a store as a segment file.
+	 *
+	 * @param store store of tweets, not modified by this method.
+	 * @param path  file to create or replace
+	 */
+	public static void write(TweetStore store, Path path) throws IOException {
+		int size = store.size();
+		Utf8Text text = new Utf8Text();
+		long textLength = 0;
+		int longestText = 0;
+		for (int i = 0; i < size; i++) {
+			int length = store.rawText(i, text).length();
+			textLength += length;
+			longestText = Math.max(longestText, length);
+		}
+		long textStart = HEADER_SIZE + 33L * size + 8;
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+			byte[][] authors = new byte[store.getAuthorCount()][];
+			long authorsLength = 0;
+			for (int a = 0; a < authors.length; a++) {
+				authors[a] = store.getAuthorName(a).getBytes(StandardCharsets.UTF_8);
+				authorsLength += Integer.BYTES + authors[a].length;
+			}
+
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(size);
+			out.writeInt(authors.length);
+			out.writeInt(longestText);
+			out.writeInt(0);
+			out.writeLong(textStart);
+			out.writeLong(textLength);
+			out.writeLong(textStart + textLength);
+			out.writeLong(textStart + textLength + authorsLength);
+			out.writeLong(0);
+
+			for (int i = 0; i < size; i++) {
+				out.writeLong(store.getId(i));
+			}
+			for (int i = 0; i < size; i++) {
+				out.writeLong(store.hasTimestamp(i) ? store.getEpochSecond(i) : 0);
+			}
+			long offset = 0;
+			out.writeLong(offset);
+			for (int i = 0; i < size; i++) {
+				offset += store.rawText(i, text).length();
+				out.writeLong(offset);
+			}
+			for (int i = 0; i < size; i++) {
+				out.writeInt(store.hasTimestamp(i) ? store.getNano(i) : NO_TIMESTAMP);
+			}
+			for (int i = 0; i < size; i++) {
+				out.writeInt(store.getAuthorId(i));
+			}
+			for (int i = 0; i < size; i++) {
+				out.writeByte(store.isAsciiText(i) ? ASCII_TEXT : 0);
+			}
+			for (int i = 0; i < size; i++) {
+				store.rawText(i, text).writeTo(out);
+			}
+			for (byte[] author : authors) {
+				out.writeInt(author.length);
+				out.write(author);
+			}
+		}
+	}
+
+	/**
+	 * @return number of tweets in the segment
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param index index of a tweet, 0 <= index < size()
+	 * @return a new Tweet equal in id, author, text and timestamp to the tweet
+	 * at index
+	 */
+	@Override
+	public Tweet get(int index) {
+		checkIndex(index);
+		return new Tweet(getId(index), getAuthor(index), getText(index), getTimestamp(index));
+	}
+
+	/**
+	 * @return a read-only list view of the segment; its elements are made on
+	 * demand by get()
+	 */
+	public List<Tweet> asList() {
+		return new TweetList();
+	}
+
+	/**
+	 * @param index index of a tweet, 0 <= index < size()
+	 * @return id of the tweet
+	 */
+	public long getId(int index) {
+		checkIndex(index);
+		return getLong(HEADER_SIZE + 8L * index);
+	}
+
+	/**
+	 * @param index index of a tweet, 0 <= index < size()
+	 * @return author of the tweet, or null
+	 */
+	public String getAuthor(int index) {
+		checkIndex(index);
+		int authorId = getAuthorId(index);
+		return authorId == NO_AUTHOR ? null : authors[authorId];
+	}
+
+	/**
+	 * @param index index of a tweet, 0 <= index < size()
+	 * @return text of the tweet
+	 */
+	@Override
+	public String getText(int index) {
+		checkIndex(index);
+		return rawText(index, new Utf8Text()).decode();
+	}
+
+	/**
+	 * @param index index of a tweet, 0 <= index < size()
+	 * @return timestamp of the tweet, or null
+	 */
+	public Instant getTimestamp(int index) {
+		checkIndex(index);
+		return hasTimestamp(index) ? Instant.ofEpochSecond(getEpochSecond(index), getNano(index)) : null;
+	}
+
+	/*
+	 * Column access for the scanners in this package, see TweetColumns.
+	 */
+
+	@Override
+	boolean hasTimestamp(int index) {
+		return getNano(index) != NO_TIMESTAMP;
+	}
+
+	@Override
+	long getEpochSecond(int index) {
+		return getLong(secondsStart + 8L * index);
+	}
+
+	@Override
+	int getNano(int index) {
+		return getInt(nanosStart + 4L * index);
+	}
+
+	@Override
+	int getAuthorId(int index) {
+		return getInt(authorIdsStart + 4L * index);
+	}
+
+	@Override
+	int getAuthorCount() {
+		return authors.length;
+	}
+
+	@Override
+	String getAuthorName(int authorId) {
+		return authors[authorId];
+	}
+
+	@Override
+	int getFoldedAuthorId(int authorId) {
+		return foldedAuthorIds[authorId];
+	}
+
+	@Override
+	int lookupFoldedAuthorId(String username) {
+		return foldedAuthors.lookup(username);
+	}
+
+	@Override
+	Utf8Text rawText(int index, Utf8Text view) {
+		long start = textStart + getLong(textOffsetsStart + 8L * index);
+		long end = textStart + getLong(textOffsetsStart + 8L * (index + 1));
+		return view.reset(region(start), offset(start), (int) (end - start));
+	}
+
+	@Override
+	boolean isAsciiText(int index) {
+		long position = flagsStart + index;
+		return (region(position).get(offset(position)) & ASCII_TEXT) != 0;
+	}
+
+	private long getLong(long position) {
+		return region(position).getLong(offset(position));
+	}
+
+	private int getInt(long position) {
+		return region(position).getInt(offset(position));
+	}
+
+	private ByteBuffer region(long position) {
+		return regions[(int) (position / regionSize)];
+	}
+
+	private int offset(long position) {
+		return (int) (position % regionSize);
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index " + index + " out of range for size " + size);
+		}
+	}
+
+	private class TweetList extends AbstractList<Tweet> implements RandomAccess {
+		@Override
+		public Tweet get(int index) {
+			return TweetSegment.this.get(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
@@ -0,0 +1,277 @@
+package twitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * TweetStore holds a growing corpus of tweets column by column, in primitive
+ * arrays, instead of as Tweet objects.
+ * <p>
+ * Ids are kept in a long[], timestamps as epoch seconds in a long[] and nanos
+ * in an int[], and authors as ids into a dictionary of distinct spellings.
+ * The texts are encoded as UTF-8 into one shared byte[], with an int[] of
+ * offsets. A tweet therefore costs about 30 bytes plus its text, instead of
+ * several object headers and pointers, and the scanners in Extract, Filter
+ * and SocialNetwork can read the columns directly (see their TweetStore
+ * overloads).
+ * <p>
+ * get() and asList() hand out Tweet objects made on demand from the columns.
+ * <p>
+ * A TweetStore is not safe for use by multiple threads at once while tweets
+ * are being added.
+ */
+public class TweetStore extends TweetColumns {
+
+	private static final int NO_AUTHOR = -1;
+	private static final int NO_TIMESTAMP = -1;
+
+	private long[] ids = new long[16];
+	private long[] seconds = new long[16];
+	private int[] nanos = new int[16];
+	private int[] authorIds = new int[16];
+	private int[] textOffsets = new int[17];
+	private byte[] text = new byte[1024];
+	private boolean[] asciiText = new boolean[16];
+	private int size = 0;
+
+	private final Map<String, Integer> authorIdOf = new HashMap<>();
+	private final List<String> authors = new ArrayList<>();
+	private final UsernameDictionary foldedAuthors = new UsernameDictionary();
+	private int[] foldedAuthorIds = new int[16];
+	/* Rep invariant:
+	 *    tweet i (0 <= i < size) has id ids[i], author authors.get(authorIds[i])
+	 *    or null if authorIds[i] == NO_AUTHOR, timestamp
+	 *    Instant.ofEpochSecond(seconds[i], nanos[i]) or null if nanos[i] == NO_TIMESTAMP,
+	 *    and as text the UTF-8 bytes text[textOffsets[i]..textOffsets[i+1]),
+	 *    which are all ASCII iff asciiText[i]
+	 *    authorIdOf maps each author spelling to its index in authors, and
+	 *    foldedAuthorIds[a] == foldedAuthors.lookup(authors.get(a)) for non-null spellings
+	 */
+
+	/**
+	 * Make an empty store.
+	 */
+	public TweetStore() {
+	}
+
+	/**
+	 * Make a store holding a list of tweets.
+	 *
+	 * @param tweets list of tweets, not modified by this method.
+	 */
+	public TweetStore(List<Tweet> tweets) {
+		addAll(tweets);
+	}
+
+	/**
+	 * Add a tweet after all tweets already in the store.
+	 *
+	 * @param tweet a tweet with non-null text; its author and timestamp may be
+	 *              null. The text is stored as UTF-8, so an unpaired surrogate in
+	 *              it reads back as "?".
+	 * @return the index of the tweet in the store
+	 */
+	public int add(Tweet tweet) {
+		if (tweet.getText() == null) {
+			throw new IllegalArgumentException("requires tweet text");
+		}
+		if (size == ids.length) {
+			int capacity = size + (size >>> 1);
+			ids = Arrays.copyOf(ids, capacity);
+			seconds = Arrays.copyOf(seconds, capacity);
+			nanos = Arrays.copyOf(nanos, capacity);
+			authorIds = Arrays.copyOf(authorIds, capacity);
+			textOffsets = Arrays.copyOf(textOffsets, capacity + 1);
+			asciiText = Arrays.copyOf(asciiText, capacity);
+		}
+
+		ids[size] = tweet.getId();
+		Instant timestamp = tweet.getTimestamp();
+		if (timestamp == null) {
+			nanos[size] = NO_TIMESTAMP;
+		} else {
+			seconds[size] = timestamp.getEpochSecond();
+			nanos[size] = timestamp.getNano();
+		}
+		authorIds[size] = tweet.getAuthor() == null ? NO_AUTHOR : authorIdOf(tweet.getAuthor());
+
+		byte[] bytes = tweet.getText().getBytes(StandardCharsets.UTF_8);
+		int offset = textOffsets[size];
+		if (offset + bytes.length > text.length) {
+			text = Arrays.copyOf(text, Math.max(offset + bytes.length, text.length + (text.length >>> 1)));
+		}
+		System.arraycopy(bytes, 0, text, offset, bytes.length);
+		textOffsets[size + 1] = offset + bytes.length;
+		asciiText[size] = bytes.length == tweet.getText().length();
+		return size++;
+	}
+
+	/**
+	 * Add tweets after all tweets already in the store.
+	 *
+	 * @param tweets list of tweets, not modified by this method.
+	 */
+	public void addAll(List<Tweet> tweets) {
+		for (Tweet tweet : tweets) {
+			add(tweet);
+		}
+	}
+
+	/**
+	 * @return number of tweets in the store
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param index index of a tweet, 0 <= index < size()
+	 * @return a new Tweet equal in id, author, text and timestamp to the tweet
+	 * added at index
+	 */
+	@Override
+	public Tweet get(int index) {
+		checkIndex(index);
+		return new Tweet(ids[index], getAuthor(index), getText(index), getTimestamp(index));
+	}
+
+	/**
+	 * @return a read-only list view of the store; its elements are made on
+	 * demand by get(), and it grows as tweets are added to the store
+	 */
+	public List<Tweet> asList() {
+		return new TweetList();
+	}
+
+	/**
+	 * @param index index of a tweet, 0 <= index < size()
+	 * @return id of the tweet
+	 */
+	public long getId(int index) {
+		checkIndex(index);
+		return ids[index];
+	}
+
+	/**
+	 * @param index index of a tweet, 0 <= index < size()
+	 * @return author of the tweet, or null
+	 */
+	public String getAuthor(int index) {
+		checkIndex(index);
+		return authorIds[index] == NO_AUTHOR ? null : authors.get(authorIds[index]);
+	}
+
+	/**
+	 * @param index index of a tweet, 0 <= index < size()
+	 * @return text of the tweet
+	 */
+	@Override
+	public String getText(int index) {
+		checkIndex(index);
+		return new String(text, textOffsets[index], textOffsets[index + 1] - textOffsets[index], StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @param index index of a tweet, 0 <= index < size()
+	 * @return timestamp of the tweet, or null
+	 */
+	public Instant getTimestamp(int index) {
+		checkIndex(index);
+		return nanos[index] == NO_TIMESTAMP ? null : Instant.ofEpochSecond(seconds[index], nanos[index]);
+	}
+
+	/*
+	 * Column access for the scanners in this package, see TweetColumns.
+	 */
+
+	@Override
+	boolean hasTimestamp(int index) {
+		return nanos[index] != NO_TIMESTAMP;
+	}
+
+	@Override
+	long getEpochSecond(int index) {
+		return seconds[index];
+	}
+
+	@Override
+	int getNano(int index) {
+		return nanos[index];
+	}
+
+	@Override
+	int getAuthorId(int index) {
+		return authorIds[index];
+	}
+
+	@Override
+	int getAuthorCount() {
+		return authors.size();
+	}
+
+	@Override
+	String getAuthorName(int authorId) {
+		return authors.get(authorId);
+	}
+
+	@Override
+	int getFoldedAuthorId(int authorId) {
+		return foldedAuthorIds[authorId];
+	}
+
+	@Override
+	int lookupFoldedAuthorId(String username) {
+		return foldedAuthors.lookup(username);
+	}
+
+	@Override
+	Utf8Text rawText(int index, Utf8Text view) {
+		return view.reset(text, textOffsets[index], textOffsets[index + 1] - textOffsets[index]);
+	}
+
+	@Override
+	boolean isAsciiText(int index) {
+		return asciiText[index];
+	}
+
+	private int authorIdOf(String author) {
+		Integer id = authorIdOf.get(author);
+		if (id != null) {
+			return id;
+		}
+		int newId = authors.size();
+		authors.add(author);
+		authorIdOf.put(author, newId);
+		if (newId == foldedAuthorIds.length) {
+			foldedAuthorIds = Arrays.copyOf(foldedAuthorIds, 2 * newId);
+		}
+		foldedAuthorIds[newId] = foldedAuthors.intern(author);
+		return newId;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index " + index + " out of range for size " + size);
+		}
+	}
+
+	private class TweetList extends AbstractList<Tweet> implements RandomAccess {
+		@Override
+		public Tweet get(int index) {
+			return TweetStore.this.get(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package twitter;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * UsernameDictionary is a symbol table that maps Twitter usernames to dense int
+ * ids 0, 1, 2, ... in order of first insertion.
+ * <p>
+ * Twitter usernames are case-insensitive, so a username is stored once, in its
+ * case-folded (upper case) form, and "ernie" and "ERNie" get the same id.
+ * <p>
+ * A UsernameDictionary is safe for use by multiple threads. Looking up a name
+ * or an id never blocks; inserting a new name only contends with threads that
+ * insert a name hashing to the same bin, or that grow the id table.
+ */
+public class UsernameDictionary {
+
+	private static final int CHUNK_BITS = 10;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+	private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+	private volatile String[][] names = new String[1][CHUNK_SIZE];
+	private final AtomicInteger nextId = new AtomicInteger();
+	/* Rep invariant:
+	 *    ids maps each stored case-folded username to its id
+	 *    0 <= id < nextId for every id in ids, and ids has no two equal ids
+	 *    names[id >> CHUNK_BITS][id & (CHUNK_SIZE - 1)] holds the username of
+	 *    id before its mapping is published in ids, and is null for an id not
+	 *    assigned yet
+	 */
+
+	/**
+	 * Get the id of a username, assigning the next id if it is new.
+	 *
+	 * @param username Twitter username, as defined by Tweet.getAuthor()'s spec.
+	 * @return the id of username; equal for usernames that differ only in case
+	 */
+	public int intern(String username) {
+		String folded = fold(username);
+		Integer id = ids.get(folded);
+		if (id != null) {
+			return id;
+		}
+		return ids.computeIfAbsent(folded, this::assignId);
+	}
+
+	/**
+	 * @param username Twitter username
+	 * @return the id of username, or -1 if it has not been interned
+	 */
+	public int lookup(String username) {
+		Integer id = ids.get(fold(username));
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @param id an id returned by intern() or lookup()
+	 * @return the case-folded username with that id
+	 * @throws IndexOutOfBoundsException if id has not been assigned, or its
+	 *                                   username is still being interned by another thread
+	 */
+	public String nameOf(int id) {
+		String[][] current = names;
+		int chunk = id >>> CHUNK_BITS;
+		String name = id >= 0 && chunk < current.length && current[chunk] != null
+				? current[chunk][id & (CHUNK_SIZE - 1)]
+				: null;
+		if (name == null) {
+			throw new IndexOutOfBoundsException("username id " + id + " is not assigned");
+		}
+		return name;
+	}
+
+	/**
+	 * While other threads intern new usernames this is only a snapshot: the
+	 * names of the newest ids below it may not be readable yet.
+	 *
+	 * @return number of ids assigned so far
+	 */
+	public int size() {
+		return nextId.get();
+	}
+
+	private Integer assignId(String folded) {
+		int id = nextId.getAndIncrement();
+		if (id < 0) {
+			throw new IllegalStateException("username dictionary is full");
+		}
+		chunkFor(id)[id & (CHUNK_SIZE - 1)] = folded;
+		return id;
+	}
+
+	private String[] chunkFor(int id) {
+		int chunk = id >>> CHUNK_BITS;
+		String[][] current = names;
+		if (chunk < current.length && current[chunk] != null) {
+			return current[chunk];
+		}
+		synchronized (this) {
+			current = names;
+			if (chunk >= current.length) {
+				current = Arrays.copyOf(current, Math.max(chunk + 1, 2 * current.length));
+			}
+			if (current[chunk] == null) {
+				current[chunk] = new String[CHUNK_SIZE];
+			}
+			names = current;
+			return current[chunk];
+		}
+	}
+
+	/**
+	 * Case-fold a username the way Twitter compares usernames.
+	 *
+	 * @param username Twitter username
+	 * @return username with a..z replaced by A..Z; username itself if it has no
+	 * lower case letters.
+	 */
+	public static String fold(String username) {
+		int length = username.length();
+		int i = 0;
+		while (i < length && !isLowerCase(username.charAt(i))) {
+			i++;
+		}
+		if (i == length) {
+			return username;
+		}
+		char[] folded = username.toCharArray();
+		for (; i < length; i++) {
+			if (isLowerCase(folded[i])) {
+				folded[i] -= 'a' - 'A';
+			}
+		}
+		return new String(folded);
+	}
+
+	private static boolean isLowerCase(char c) {
+		return c >= 'a' && c <= 'z';
+	}
+}
@@ -0,0 +1,144 @@
+package twitter;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utf8Text reads part of a byte array or ByteBuffer of UTF-8 text as a
+ * CharSequence of one char per byte, without decoding or copying it.
+ * <p>
+ * ASCII bytes read as the same chars. Every byte of a multi-byte character
+ * reads as a char in 0x80..0xFF, which is not a letter, digit, underscore,
+ * hyphen, "@", "#" or whitespace. So a scanner that only gives meaning to
+ * ASCII characters, such as MentionScanner, finds the same mentions and
+ * hashtags here as in the decoded text, and subSequence() of such a span is
+ * the same string.
+ * <p>
+ * One instance can be pointed at different texts with reset(), so scanning a
+ * store of texts allocates nothing per text.
+ */
+final class Utf8Text implements CharSequence {
+
+	private byte[] bytes;
+	private ByteBuffer buffer;
+	private int offset;
+	private int length;
+	/* Rep invariant:
+	 *    exactly one of bytes and buffer is non-null
+	 *    the sequence is bytes[offset..offset+length), or the bytes of buffer
+	 *    at absolute indices offset..offset+length
+	 */
+
+	Utf8Text() {
+		this(new byte[0], 0, 0);
+	}
+
+	Utf8Text(byte[] bytes, int offset, int length) {
+		reset(bytes, offset, length);
+	}
+
+	/**
+	 * Point this sequence at bytes[offset..offset+length).
+	 *
+	 * @return this sequence
+	 */
+	Utf8Text reset(byte[] bytes, int offset, int length) {
+		this.bytes = bytes;
+		this.buffer = null;
+		this.offset = offset;
+		this.length = length;
+		return this;
+	}
+
+	/**
+	 * Point this sequence at the bytes of buffer at absolute indices
+	 * offset..offset+length. The position and limit of buffer are not used or
+	 * changed.
+	 *
+	 * @return this sequence
+	 */
+	Utf8Text reset(ByteBuffer buffer, int offset, int length) {
+		this.bytes = null;
+		this.buffer = buffer;
+		this.offset = offset;
+		this.length = length;
+		return this;
+	}
+
+	/**
+	 * @return true iff every byte of this sequence is ASCII, so it reads the
+	 * same as the decoded text
+	 */
+	boolean isAscii() {
+		for (int i = 0; i < length; i++) {
+			if (byteAt(i) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the decoded text
+	 */
+	String decode() {
+		return new String(toBytes(0, length), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Write the bytes of this sequence to out.
+	 */
+	void writeTo(DataOutput out) throws IOException {
+		if (bytes != null) {
+			out.write(bytes, offset, length);
+		} else {
+			for (int i = 0; i < length; i++) {
+				out.write(buffer.get(offset + i));
+			}
+		}
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("index " + index + " out of range for length " + length);
+		}
+		return (char) (byteAt(index) & 0xFF);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start < 0 || end > length || start > end) {
+			throw new IndexOutOfBoundsException("range " + start + ".." + end + " out of range for length " + length);
+		}
+		return new String(toBytes(start, end), StandardCharsets.ISO_8859_1);
+	}
+
+	@Override
+	public String toString() {
+		return new String(toBytes(0, length), StandardCharsets.ISO_8859_1);
+	}
+
+	private byte byteAt(int index) {
+		return bytes != null ? bytes[offset + index] : buffer.get(offset + index);
+	}
+
+	private byte[] toBytes(int start, int end) {
+		byte[] result = new byte[end - start];
+		if (bytes != null) {
+			System.arraycopy(bytes, offset + start, result, 0, result.length);
+		} else {
+			for (int i = 0; i < result.length; i++) {
+				result[i] = buffer.get(offset + start + i);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,179 @@
+package twitter;
+
+import twitter.exception.NullOrEmptyTextOfTweetException;
+import twitter.exception.NullOrEmptyWordException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WordIndex answers Filter.containing() queries over a fixed corpus of tweets
+ * without parsing any tweet at query time.
+ * <p>
+ * Each tweet is split into words once, by the same rules as containing(), and
+ * every upper-cased word maps to a CompressedBitmap of the ordinals (input
+ * positions) of the tweets holding it. A query is then an or (any word), and
+ * (all words) or andNot (excluded words) of a few bitmaps, and the matching
+ * tweets come out of the result in input order.
+ * <p>
+ * A WordIndex is immutable, so it is safe for use by multiple threads.
+ */
+public class WordIndex {
+
+	private static final CompressedBitmap EMPTY = new CompressedBitmap();
+
+	private final Tweet[] tweets;
+	private final Map<String, CompressedBitmap> postings = new HashMap<>();
+	/* Rep invariant:
+	 *    for every key w of postings, postings.get(w) is nonempty and holds
+	 *    exactly the ordinals i such that Filter.getUppercaseWordsOfText(tweets[i].getText())
+	 *    contains w
+	 */
+
+	/**
+	 * Make an index of a list of tweets, splitting each tweet's text once.
+	 *
+	 * @param tweets a list of tweets with distinct ids, not modified by this method.
+	 * @throws NullOrEmptyTextOfTweetException if a tweet's text is empty
+	 */
+	public WordIndex(List<Tweet> tweets) throws NullOrEmptyTextOfTweetException {
+		this.tweets = tweets.toArray(new Tweet[tweets.size()]);
+		for (int i = 0; i < this.tweets.length; i++) {
+			String text = this.tweets[i].getText();
+			if (text.isEmpty()) {
+				throw new NullOrEmptyTextOfTweetException("text of tweet is empty string");
+			}
+			for (String word : Filter.getUppercaseWordsOfText(text)) {
+				postings.computeIfAbsent(word, w -> new CompressedBitmap()).add(i);
+			}
+		}
+	}
+
+	/**
+	 * Find tweets that contain at least one of some words.
+	 *
+	 * @param words a list of words to search for in the tweets.
+	 *              A word is a nonempty sequence of nonspace characters.
+	 * @return the same list as Filter.containing(tweets, words) for the indexed tweets
+	 * @throws NullOrEmptyWordException if a word is null, empty or contains a space
+	 */
+	public List<Tweet> containing(List<String> words) throws NullOrEmptyWordException {
+		return tweetsOf(anyOf(words));
+	}
+
+	/**
+	 * Find tweets that contain every one of some words.
+	 *
+	 * @param words a list of words to search for in the tweets.
+	 *              A word is a nonempty sequence of nonspace characters.
+	 * @return all and only the indexed tweets whose text includes all of the
+	 * words, compared as in Filter.containing(), in input order.
+	 * An empty words list matches every tweet.
+	 * @throws NullOrEmptyWordException if a word is null, empty or contains a space
+	 */
+	public List<Tweet> containingAll(List<String> words) throws NullOrEmptyWordException {
+		return tweetsOf(allOf(words));
+	}
+
+	/**
+	 * Find tweets that contain at least one of some words and none of others.
+	 *
+	 * @param words         a list of words to search for in the tweets.
+	 * @param excludedWords a list of words that must not be in the tweets.
+	 *                      A word is a nonempty sequence of nonspace characters.
+	 * @return all and only the tweets of containing(words) whose text includes
+	 * none of excludedWords, in input order.
+	 * @throws NullOrEmptyWordException if a word is null, empty or contains a space
+	 */
+	public List<Tweet> containing(List<String> words, List<String> excludedWords) throws NullOrEmptyWordException {
+		return tweetsOf(anyOf(words).andNot(anyOf(excludedWords)));
+	}
+
+	/**
+	 * @param words a list of words, as for containing()
+	 * @return a new bitmap of the ordinals of the tweets holding at least one of the words
+	 * @throws NullOrEmptyWordException if a word is null, empty or contains a space
+	 */
+	public CompressedBitmap anyOf(List<String> words) throws NullOrEmptyWordException {
+		checkWords(words);
+		CompressedBitmap result = new CompressedBitmap();
+		for (String word : words) {
+			result = result.or(postingsOf(word));
+		}
+		return result;
+	}
+
+	/**
+	 * @param words a list of words, as for containing()
+	 * @return a new bitmap of the ordinals of the tweets holding all of the words
+	 * @throws NullOrEmptyWordException if a word is null, empty or contains a space
+	 */
+	public CompressedBitmap allOf(List<String> words) throws NullOrEmptyWordException {
+		checkWords(words);
+		if (words.isEmpty()) {
+			return all();
+		}
+		// or with the empty bitmap copies the postings, which must not escape
+		CompressedBitmap result = postingsOf(words.get(0)).or(EMPTY);
+		for (int i = 1; i < words.size() && !result.isEmpty(); i++) {
+			result = result.and(postingsOf(words.get(i)));
+		}
+		return result;
+	}
+
+	/**
+	 * @return a new bitmap of the ordinals of all indexed tweets
+	 */
+	public CompressedBitmap all() {
+		CompressedBitmap result = new CompressedBitmap();
+		for (int i = 0; i < tweets.length; i++) {
+			result.add(i);
+		}
+		return result;
+	}
+
+	/**
+	 * @param ordinals ordinals of indexed tweets
+	 * @return the tweets with those ordinals, in input order
+	 */
+	public List<Tweet> tweetsOf(CompressedBitmap ordinals) {
+		List<Tweet> result = new ArrayList<>(ordinals.cardinality());
+		ordinals.forEach(i -> result.add(tweets[i]));
+		return result;
+	}
+
+	/**
+	 * @param word a word, compared ignoring case
+	 * @return number of indexed tweets holding word
+	 */
+	public int countContaining(String word) {
+		return postingsOf(word).cardinality();
+	}
+
+	/**
+	 * @return number of distinct upper-cased words in the indexed tweets
+	 */
+	public int getWordCount() {
+		return postings.size();
+	}
+
+	/**
+	 * @return number of indexed tweets
+	 */
+	public int size() {
+		return tweets.length;
+	}
+
+	private CompressedBitmap postingsOf(String word) {
+		CompressedBitmap bitmap = postings.get(TextScanner.toUpperCase(word));
+		return bitmap == null ? EMPTY : bitmap;
+	}
+
+	private static void checkWords(List<String> words) throws NullOrEmptyWordException {
+		if (Filter.isWordsNullOrEmpty(words)) {
+			throw new NullOrEmptyWordException("words contain null or empty string");
+		}
+	}
+}
@@ -0,0 +1,288 @@
+package twitter;
+
+import twitter.exception.NullOrEmptyTextOfTweetException;
+import twitter.exception.NullOrEmptyWordException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * WordMatcher decides, for one list of query words, which tweets
+ * Filter.containing() would return, reading each tweet's text once without
+ * splitting it or allocating.
+ * <p>
+ * The upper-cased query words are compiled into an Aho-Corasick automaton
+ * over the ASCII letters they use, with a-z folded onto A-Z. Scanning a text
+ * feeds each character to the automaton; whenever a query word ends, the match
+ * is accepted only if it is exactly the part of its whitespace-delimited word
+ * that containing() compares, i.e. the word with the characters dropped by its
+ * extractWord() rule removed. The scan stops at the first accepted match.
+ * <p>
+ * Words holding a character outside ASCII are upper-cased by locale rules that
+ * can change their length, so those (rare) words are checked by cutting them
+ * out of the text and looking them up in a set instead.
+ * <p>
+ * A WordMatcher is immutable, so it is safe for use by multiple threads.
+ */
+public class WordMatcher {
+
+	private static final int ASCII = 0x80;
+	private static final int NONE = -1;
+
+	private final Set<String> uppercaseWords;
+	private final byte[] classOf = new byte[ASCII];
+	private final int numberOfClasses;
+	private final int[] transitions;
+	private final int[] matchLength;
+	private final int[] firstMatch;
+	private final int[] nextMatch;
+	/* Rep invariant:
+	 *    classOf[c] == 0 for every c not in an upper-cased ASCII query word,
+	 *    and classOf[c] == classOf[upper(c)] for a..z
+	 *    transitions[s * numberOfClasses + k] is the state reached from state s
+	 *    on a character of class k; state 0 is the root and class 0 leads to it
+	 *    matchLength[s] > 0 iff state s spells a whole query word, of that length
+	 *    firstMatch[s], nextMatch[firstMatch[s]], ... list the states spelling
+	 *    query words that are suffixes of state s, longest first, ending in NONE
+	 */
+
+	/**
+	 * Compile a list of query words.
+	 *
+	 * @param words a list of words to search for in tweets.
+	 *              A word is a nonempty sequence of nonspace characters.
+	 * @throws NullOrEmptyWordException if a word is null, empty or contains a space
+	 */
+	public WordMatcher(List<String> words) throws NullOrEmptyWordException {
+		if (Filter.isWordsNullOrEmpty(words)) {
+			throw new NullOrEmptyWordException("words contain null or empty string");
+		}
+		uppercaseWords = Filter.convertToUppercase(new HashSet<String>(words));
+
+		// words with other whitespace can never equal a word of a text
+		List<String> patterns = new ArrayList<>();
+		for (String word : uppercaseWords) {
+			if (isAsciiWord(word)) {
+				patterns.add(word);
+			}
+		}
+		Collections.sort(patterns);
+
+		int numberOfClasses = 1;
+		for (String pattern : patterns) {
+			for (int i = 0; i < pattern.length(); i++) {
+				char c = pattern.charAt(i);
+				if (classOf[c] == 0) {
+					classOf[c] = (byte) numberOfClasses++;
+				}
+			}
+		}
+		for (char c = 'a'; c <= 'z'; c++) {
+			classOf[c] = classOf[c - ('a' - 'A')];
+		}
+		this.numberOfClasses = numberOfClasses;
+
+		// trie of the patterns
+		int maxStates = 1;
+		for (String pattern : patterns) {
+			maxStates += pattern.length();
+		}
+		int[] trie = new int[maxStates * numberOfClasses];
+		Arrays.fill(trie, NONE);
+		int[] length = new int[maxStates];
+		int[] depth = new int[maxStates];
+		int states = 1;
+		for (String pattern : patterns) {
+			int state = 0;
+			for (int i = 0; i < pattern.length(); i++) {
+				int slot = state * numberOfClasses + classOf[pattern.charAt(i)];
+				if (trie[slot] == NONE) {
+					depth[states] = depth[state] + 1;
+					trie[slot] = states++;
+				}
+				state = trie[slot];
+			}
+			length[state] = pattern.length();
+		}
+
+		// failure links in breadth-first order turn the trie into a full automaton
+		transitions = Arrays.copyOf(trie, states * numberOfClasses);
+		matchLength = Arrays.copyOf(length, states);
+		firstMatch = new int[states];
+		nextMatch = new int[states];
+		int[] failure = new int[states];
+		int[] queue = new int[states];
+		int head = 0;
+		int tail = 0;
+		firstMatch[0] = NONE;
+		nextMatch[0] = NONE;
+		for (int k = 0; k < numberOfClasses; k++) {
+			int child = transitions[k];
+			if (child == NONE || k == 0) {
+				transitions[k] = 0;
+			} else {
+				failure[child] = 0;
+				queue[tail++] = child;
+			}
+		}
+		while (head < tail) {
+			int state = queue[head++];
+			nextMatch[state] = firstMatch[failure[state]];
+			firstMatch[state] = matchLength[state] > 0 ? state : nextMatch[state];
+			for (int k = 0; k < numberOfClasses; k++) {
+				int slot = state * numberOfClasses + k;
+				int child = transitions[slot];
+				int fallback = transitions[failure[state] * numberOfClasses + k];
+				if (child == NONE || k == 0) {
+					transitions[slot] = k == 0 ? 0 : fallback;
+				} else {
+					failure[child] = fallback;
+					queue[tail++] = child;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param text text of a tweet, not empty
+	 * @return true iff Filter.containing() would return a tweet with this text
+	 */
+	public boolean matches(CharSequence text) {
+		int end = text.length();
+		int start = 0;
+		while (start < end && text.charAt(start) <= ' ') {
+			start++;
+		}
+		while (start < end && text.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (start == end) {
+			// let the original word rules decide about blank texts
+			return !Collections.disjoint(Filter.getUppercaseWordsOfText(text.toString()), uppercaseWords);
+		}
+
+		int state = 0;
+		int wordStart = start;
+		boolean asciiWord = true;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (TextScanner.isWhitespace(c)) {
+				if (!asciiWord && matchesNonAsciiWord(text, wordStart, i)) {
+					return true;
+				}
+				state = 0;
+				wordStart = i + 1;
+				asciiWord = true;
+				continue;
+			}
+			if (c >= ASCII) {
+				state = 0;
+				asciiWord = false;
+				continue;
+			}
+			state = transitions[state * numberOfClasses + classOf[c]];
+			for (int match = firstMatch[state]; match != NONE; match = nextMatch[match]) {
+				int matchEnd = i + 1;
+				int matchStart = matchEnd - matchLength[match];
+				if (matchStart >= wordStart && isComparedPart(text, wordStart, matchStart, matchEnd, end)) {
+					return true;
+				}
+			}
+		}
+		return !asciiWord && matchesNonAsciiWord(text, wordStart, end);
+	}
+
+	/**
+	 * @param tweet a tweet
+	 * @return true iff Filter.containing() would return tweet
+	 * @throws NullOrEmptyTextOfTweetException if the tweet's text is empty
+	 */
+	public boolean matches(Tweet tweet) throws NullOrEmptyTextOfTweetException {
+		String text = tweet.getText();
+		if (text.isEmpty()) {
+			throw new NullOrEmptyTextOfTweetException("text of tweet is empty string");
+		}
+		return matches(text);
+	}
+
+	/**
+	 * Find tweets that contain the query words.
+	 *
+	 * @param tweets a list of tweets with distinct ids, not modified by this method.
+	 * @return the same list as Filter.containing(tweets, words)
+	 * @throws NullOrEmptyTextOfTweetException if a tweet's text is empty
+	 */
+	public List<Tweet> filter(List<Tweet> tweets) throws NullOrEmptyTextOfTweetException {
+		List<Tweet> result = new ArrayList<>();
+		for (Tweet tweet : tweets) {
+			if (matches(tweet)) {
+				result.add(tweet);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the upper-cased query words
+	 */
+	public Set<String> getWords() {
+		return Collections.unmodifiableSet(uppercaseWords);
+	}
+
+	/**
+	 * Check whether text[matchStart..matchEnd) is exactly the part of the word
+	 * starting at wordStart that extractWord() keeps.
+	 */
+	private static boolean isComparedPart(CharSequence text, int wordStart, int matchStart, int matchEnd, int end) {
+		int wordEnd;
+		if (matchEnd == end || TextScanner.isWhitespace(text.charAt(matchEnd))) {
+			wordEnd = matchEnd;
+		} else if (matchEnd + 1 == end || TextScanner.isWhitespace(text.charAt(matchEnd + 1))) {
+			wordEnd = matchEnd + 1;
+		} else {
+			return false;
+		}
+		return matchStart == comparedStart(text, wordStart) && matchEnd == comparedEnd(text, wordStart, wordEnd);
+	}
+
+	private boolean matchesNonAsciiWord(CharSequence text, int wordStart, int wordEnd) {
+		int from = comparedStart(text, wordStart);
+		int to = comparedEnd(text, wordStart, wordEnd);
+		return from < to && uppercaseWords.contains(TextScanner.toUpperCase(text.subSequence(from, to).toString()));
+	}
+
+	/*
+	 * extractWord() drops the first character unless it is a letter strictly
+	 * between a and z (or A and Z); only if it kept the first character does it
+	 * drop a last character failing the same test.
+	 */
+
+	private static int comparedStart(CharSequence text, int wordStart) {
+		return isKeptCharacter(text.charAt(wordStart)) ? wordStart : wordStart + 1;
+	}
+
+	private static int comparedEnd(CharSequence text, int wordStart, int wordEnd) {
+		if (!isKeptCharacter(text.charAt(wordStart))) {
+			return wordEnd;
+		}
+		return isKeptCharacter(text.charAt(wordEnd - 1)) ? wordEnd : wordEnd - 1;
+	}
+
+	private static boolean isKeptCharacter(char c) {
+		return (c > 'a' && c < 'z') || (c > 'A' && c < 'Z');
+	}
+
+	private static boolean isAsciiWord(String word) {
+		for (int i = 0; i < word.length(); i++) {
+			char c = word.charAt(i);
+			if (c >= ASCII || TextScanner.isWhitespace(c)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
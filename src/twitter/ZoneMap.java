@@ -0,0 +1,71 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * ZoneMap summarizes a group of tweets so that a query can rule the whole
+ * group out without reading it: the earliest and latest timestamp, a
+ * BloomFilter of the case-folded authors, and a BloomFilter of the upper-cased
+ * words that Filter.containing() compares.
+ */
+final class ZoneMap {
+
+	private final Instant min;
+	private final Instant max;
+	private final BloomFilter authors;
+	private final BloomFilter terms;
+
+	/**
+	 * @param min     earliest timestamp of the tweets
+	 * @param max     latest timestamp of the tweets
+	 * @param authors filter holding every author of the tweets
+	 * @param terms   filter holding Filter.getUppercaseWordsOfText() of every text
+	 */
+	ZoneMap(Instant min, Instant max, BloomFilter authors, BloomFilter terms) {
+		this.min = min;
+		this.max = max;
+		this.authors = authors;
+		this.terms = terms;
+	}
+
+	/**
+	 * @return false if no tweet of the group was sent during timespan
+	 */
+	boolean mayOverlap(Timespan timespan) {
+		return !max.isBefore(timespan.getStart()) && !min.isAfter(timespan.getEnd());
+	}
+
+	/**
+	 * @return true iff every tweet of the group was sent during timespan
+	 */
+	boolean isWithin(Timespan timespan) {
+		return !min.isBefore(timespan.getStart()) && !max.isAfter(timespan.getEnd());
+	}
+
+	/**
+	 * @return false if no tweet of the group was written by username
+	 */
+	boolean mayHaveAuthor(String username) {
+		return authors.mightContain(username);
+	}
+
+	/**
+	 * @param uppercaseWords upper-cased query words
+	 * @return false if no text of the group contains any of the words, as
+	 * compared by Filter.containing()
+	 */
+	boolean mayContainAny(Collection<String> uppercaseWords) {
+		for (String word : uppercaseWords) {
+			if (terms.mightContain(word)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return "[" + min + ", " + max + "]";
+	}
+}
@@ -0,0 +1,21 @@
+package twitter.exception;
+
+/**
+ * Carries one of the checked exceptions of this package out of a lazily
+ * evaluated Stream or Iterator, which cannot throw it directly.
+ */
+public class UncheckedTweetException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public UncheckedTweetException(Exception cause) {
+		super(cause.getMessage(), cause);
+	}
+
+	/**
+	 * @return the checked exception raised for the tweet
+	 */
+	@Override
+	public synchronized Exception getCause() {
+		return (Exception) super.getCause();
+	}
+}
@@ -0,0 +1,72 @@
+package twitter;
+
+import org.junit.Test;
+import twitter.exception.NullOrEmptyAuthorException;
+import twitter.exception.UnqualifiedUsernameException;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AuthorIndexTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on tweets by username: 0 | 1 | > 1, written with different case
+	 * partition on username: indexed | not indexed | not a valid username
+	 * partition on authors: valid | null or empty | not a valid username
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+	private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+	private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d1);
+	private static final Tweet tweet3 = new Tweet(3, "ALYSSA", "see you there", d1);
+	private static final Tweet tweet4 = new Tweet(4, "Eva", "sounds good", d1);
+
+	private static final List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3, tweet4);
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers > 1 tweets with different case, 1 tweet, indexed username
+	@Test
+	public void testWrittenByMatchesFilter() throws NullOrEmptyAuthorException, UnqualifiedUsernameException {
+		AuthorIndex index = new AuthorIndex(tweets);
+
+		assertEquals("expected tweets in input order", Filter.writtenBy(tweets, "Alyssa"), index.writtenBy("Alyssa"));
+		assertEquals("expected one tweet", Arrays.asList(tweet4), index.writtenBy("eva"));
+		assertEquals("expected three authors", 3, index.getAuthorCount());
+		assertEquals("expected two tweets by alyssa", 2, index.countWrittenBy("aLySsA"));
+	}
+
+	// covers 0 tweets, username not indexed
+	@Test
+	public void testWrittenByUnknownUser() throws NullOrEmptyAuthorException, UnqualifiedUsernameException {
+		assertTrue("expected no tweets", new AuthorIndex(tweets).writtenBy("rivest").isEmpty());
+	}
+
+	// covers username not valid
+	@Test(expected = UnqualifiedUsernameException.class)
+	public void testWrittenByUnqualifiedUsername() throws NullOrEmptyAuthorException, UnqualifiedUsernameException {
+		new AuthorIndex(tweets).writtenBy("bit diddle");
+	}
+
+	// covers author empty
+	@Test(expected = NullOrEmptyAuthorException.class)
+	public void testEmptyAuthor() throws NullOrEmptyAuthorException, UnqualifiedUsernameException {
+		new AuthorIndex(Arrays.asList(tweet1, new Tweet(5, "", "anonymous", d1)));
+	}
+
+	// covers author not a valid username
+	@Test(expected = UnqualifiedUsernameException.class)
+	public void testUnqualifiedAuthor() throws NullOrEmptyAuthorException, UnqualifiedUsernameException {
+		new AuthorIndex(Arrays.asList(tweet1, new Tweet(5, "233*+=", "anonymous", d1)));
+	}
+}
@@ -0,0 +1,147 @@
+package twitter;
+
+import org.junit.Test;
+import twitter.exception.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchFilterTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on queries: none, containing only, writtenBy only, both
+	 * partition on shared terms: queries share no word, queries share words,
+	 *                            one query holds several words of one tweet
+	 * partition on tweets: none, some
+	 * partition on invalid input: empty word, invalid username, invalid author
+	 *                             with and without writtenBy queries, empty text
+	 *                             with and without containing queries
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+	private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+	private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d1);
+	private static final Tweet tweet3 = new Tweet(3, "Alyssa", "see you there", d1);
+
+	private static final List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3);
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers no queries, no tweets
+	@Test
+	public void testEmpty() throws Exception {
+		BatchFilter batch = new BatchFilter();
+
+		assertTrue("expected no results", batch.filter(tweets).isEmpty());
+		batch.addWrittenBy("alyssa");
+		assertEquals("expected one empty result", Arrays.asList(Collections.emptyList()),
+				batch.filter(Collections.<Tweet>emptyList()));
+	}
+
+	// covers both kinds, shared words, several words of one tweet in one query
+	@Test
+	public void testMatchesFilter() throws Exception {
+		BatchFilter batch = new BatchFilter();
+		int talk = batch.addContaining(Arrays.asList("talk", "rivest"));
+		int byAlyssa = batch.addWrittenBy("ALYSSA");
+		int there = batch.addContaining(Arrays.asList("there", "TALK"));
+
+		List<List<Tweet>> results = batch.filter(tweets);
+
+		assertEquals("expected query count", 3, batch.getQueryCount());
+		assertEquals("expected talk tweets once each", Arrays.asList(tweet1, tweet2), results.get(talk));
+		assertEquals("expected alyssa tweets", Arrays.asList(tweet1, tweet3), results.get(byAlyssa));
+		assertEquals("expected there tweets", Filter.containing(tweets, Arrays.asList("there", "TALK")), results.get(there));
+	}
+
+	// covers many random queries against Filter
+	@Test
+	public void testRandomQueriesMatchFilter() throws Exception {
+		Random random = new Random(20);
+		String[] authors = {"alyssa", "bbitdiddle", "eva", "Ben"};
+		String[] words = {"talk", "rivest", "#hype", "minutes", "see", "you", "there", "Me", "#abcd", "z."};
+		List<Tweet> corpus = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			StringBuilder text = new StringBuilder();
+			for (int w = 0; w <= random.nextInt(5); w++) {
+				text.append(words[random.nextInt(words.length)]).append(' ');
+			}
+			corpus.add(new Tweet(i, authors[random.nextInt(authors.length)], text.toString(), d1));
+		}
+
+		BatchFilter batch = new BatchFilter();
+		List<List<Tweet>> expected = new ArrayList<>();
+		for (int q = 0; q < 100; q++) {
+			if (random.nextBoolean()) {
+				String author = authors[random.nextInt(authors.length)];
+				batch.addWrittenBy(author);
+				expected.add(Filter.writtenBy(corpus, author));
+			} else {
+				List<String> queryWords = new ArrayList<>();
+				for (int w = 0; w <= random.nextInt(3); w++) {
+					queryWords.add(words[random.nextInt(words.length)]);
+				}
+				batch.addContaining(queryWords);
+				expected.add(Filter.containing(corpus, queryWords));
+			}
+		}
+
+		assertEquals("expected Filter results", expected, batch.filter(corpus));
+	}
+
+	// covers invalid author without writtenBy queries, empty text without containing queries
+	@Test
+	public void testUnreadFieldsNotChecked() throws Exception {
+		List<Tweet> badAuthor = Arrays.asList(new Tweet(4, "bit diddle", "talk", d1));
+		List<Tweet> emptyText = Arrays.asList(new Tweet(5, "eva", "", d1));
+
+		BatchFilter containing = new BatchFilter();
+		containing.addContaining(Arrays.asList("talk"));
+		assertEquals("expected match", Arrays.asList(badAuthor), containing.filter(badAuthor));
+
+		BatchFilter writtenBy = new BatchFilter();
+		writtenBy.addWrittenBy("eva");
+		assertEquals("expected match", Arrays.asList(emptyText), writtenBy.filter(emptyText));
+	}
+
+	// covers invalid author with writtenBy queries
+	@Test(expected = UnqualifiedUsernameException.class)
+	public void testInvalidAuthor() throws Exception {
+		BatchFilter batch = new BatchFilter();
+		batch.addWrittenBy("alyssa");
+		batch.filter(Arrays.asList(new Tweet(4, "bit diddle", "talk", d1)));
+	}
+
+	// covers empty text with containing queries
+	@Test(expected = NullOrEmptyTextOfTweetException.class)
+	public void testEmptyText() throws Exception {
+		BatchFilter batch = new BatchFilter();
+		batch.addContaining(Arrays.asList("talk"));
+		batch.filter(Arrays.asList(new Tweet(5, "eva", "", d1)));
+	}
+
+	// covers empty word
+	@Test(expected = NullOrEmptyWordException.class)
+	public void testEmptyWord() throws NullOrEmptyWordException {
+		new BatchFilter().addContaining(Arrays.asList("talk", ""));
+	}
+
+	// covers invalid username
+	@Test(expected = UnqualifiedUsernameException.class)
+	public void testInvalidUsername() throws UnqualifiedUsernameException {
+		new BatchFilter().addWrittenBy("bit diddle");
+	}
+}
@@ -0,0 +1,56 @@
+package twitter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BloomFilterTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on expected items: 0, > 0
+	 * partition on item: added, added in other case, not added
+	 */
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers 0 expected items, not added
+	@Test
+	public void testEmpty() {
+		assertFalse("expected absent", new BloomFilter(0).mightContain("alyssa"));
+	}
+
+	// covers > 0 expected items, added, added in other case
+	@Test
+	public void testNoFalseNegatives() {
+		BloomFilter filter = new BloomFilter(1000);
+		for (int i = 0; i < 1000; i++) {
+			filter.add("user" + i);
+		}
+		for (int i = 0; i < 1000; i++) {
+			assertTrue("expected present", filter.mightContain("user" + i));
+			assertTrue("expected present ignoring case", filter.mightContain("USER" + i));
+		}
+	}
+
+	// covers not added
+	@Test
+	public void testFalsePositiveRate() {
+		BloomFilter filter = new BloomFilter(1000);
+		for (int i = 0; i < 1000; i++) {
+			filter.add("user" + i);
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 10000; i++) {
+			if (filter.mightContain("other" + i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue("expected about 1% false positives, got " + falsePositives, falsePositives < 300);
+	}
+}
@@ -0,0 +1,113 @@
+package twitter;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompressedBitmapTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on members per chunk: 0 | 1..4096 (array) | > 4096 (bitmap)
+	 * partition on chunks: 0 | 1 | > 1, sharing keys with the other operand or not
+	 * partition on add order: ascending | any order, with duplicates
+	 * partition on operation: or | and | andNot, mixing array and bitmap chunks
+	 */
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers 0 chunks
+	@Test
+	public void testEmpty() {
+		CompressedBitmap bitmap = new CompressedBitmap();
+
+		assertTrue("expected empty", bitmap.isEmpty());
+		assertEquals("expected no members", 0, bitmap.cardinality());
+		assertFalse("expected no member", bitmap.contains(0));
+		assertTrue("expected empty or", bitmap.or(bitmap).isEmpty());
+	}
+
+	// covers any order with duplicates, > 1 chunks
+	@Test
+	public void testAddAnyOrder() {
+		CompressedBitmap bitmap = new CompressedBitmap();
+		int[] values = {70000, 3, 1 << 30, 3, 0, 65535, 65536};
+		for (int value : values) {
+			bitmap.add(value);
+		}
+
+		assertArrayEquals("expected sorted distinct members",
+				new int[]{0, 3, 65535, 65536, 70000, 1 << 30}, bitmap.toArray());
+		assertTrue("expected member", bitmap.contains(65536));
+		assertFalse("expected no member", bitmap.contains(4));
+		assertFalse("expected no negative member", bitmap.contains(-1));
+	}
+
+	// covers > 4096 members per chunk, ascending order
+	@Test
+	public void testDenseChunk() {
+		CompressedBitmap bitmap = new CompressedBitmap();
+		for (int i = 0; i < 10000; i++) {
+			bitmap.add(2 * i);
+		}
+
+		assertEquals("expected all members", 10000, bitmap.cardinality());
+		assertTrue("expected member", bitmap.contains(19998));
+		assertFalse("expected no odd member", bitmap.contains(19997));
+		assertEquals("expected members ascending", 19998, bitmap.toArray()[9999]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAddNegative() {
+		new CompressedBitmap().add(-1);
+	}
+
+	// covers or, and, andNot over mixed array and bitmap chunks, shared and unshared keys
+	@Test
+	public void testOperationsMatchBitSet() {
+		Random random = new Random(12);
+		for (int round = 0; round < 20; round++) {
+			BitSet expectedA = new BitSet();
+			BitSet expectedB = new BitSet();
+			CompressedBitmap a = randomBitmap(random, expectedA);
+			CompressedBitmap b = randomBitmap(random, expectedB);
+
+			BitSet or = (BitSet) expectedA.clone();
+			or.or(expectedB);
+			BitSet and = (BitSet) expectedA.clone();
+			and.and(expectedB);
+			BitSet andNot = (BitSet) expectedA.clone();
+			andNot.andNot(expectedB);
+
+			assertArrayEquals("expected or", or.stream().toArray(), a.or(b).toArray());
+			assertArrayEquals("expected and", and.stream().toArray(), a.and(b).toArray());
+			assertArrayEquals("expected andNot", andNot.stream().toArray(), a.andNot(b).toArray());
+			assertArrayEquals("expected operands unchanged", expectedA.stream().toArray(), a.toArray());
+			assertEquals("expected cardinality", expectedA.cardinality(), a.cardinality());
+		}
+	}
+
+	private static CompressedBitmap randomBitmap(Random random, BitSet expected) {
+		CompressedBitmap bitmap = new CompressedBitmap();
+		for (int chunk = 0; chunk < 4; chunk++) {
+			// sparse, dense or missing chunks
+			int members = random.nextInt(3) == 0 ? 0 : random.nextBoolean() ? random.nextInt(100) : 3000 + random.nextInt(40000);
+			for (int i = 0; i < members; i++) {
+				int value = chunk << 16 | random.nextInt(1 << 16);
+				bitmap.add(value);
+				expected.set(value);
+			}
+		}
+		return bitmap;
+	}
+}
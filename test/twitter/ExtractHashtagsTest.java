@@ -0,0 +1,64 @@
+package twitter;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.junit.Assert.*;
+
+public class ExtractHashtagsTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * GetHashtags, CountHashtags
+	 *
+	 * partition on number of tweets: 0 | > 0
+	 * partition on hashtags per tweet: 0 | 1 | > 1
+	 * partition on case: same tag with different case
+	 * partition on repeats: tag used once | more than once, in one or several tweets
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+	private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+
+	private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+	private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype #MIT", d2);
+	private static final Tweet tweet3 = new Tweet(3, "Eva", "#Hype at #mit, #hype everywhere", d2);
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers 0 tweets
+	@Test
+	public void testGetHashtagsEmpty() {
+		assertTrue("expected empty set", Extract.getHashtags(new ArrayList<>()).isEmpty());
+		assertTrue("expected empty counts", Extract.countHashtags(new ArrayList<>()).isEmpty());
+	}
+
+	// covers 0 hashtags, > 1 hashtags, different case
+	@Test
+	public void testGetHashtagsCaseInsensitive() {
+		Set<String> hashtags = Extract.getHashtags(Arrays.asList(tweet1, tweet2, tweet3));
+
+		assertEquals("expected two tags", 2, hashtags.size());
+		assertThat("expected first spellings", hashtags, hasItems("hype", "MIT"));
+	}
+
+	// covers tags used more than once, in one and several tweets
+	@Test
+	public void testCountHashtags() {
+		StringIntMap counts = Extract.countHashtags(Arrays.asList(tweet1, tweet2, tweet3));
+
+		assertEquals("expected two tags", 2, counts.size());
+		assertEquals("expected HYPE used 3 times", 3, counts.get("HYPE"));
+		assertEquals("expected MIT used 2 times", 2, counts.get("MIT"));
+		assertEquals("expected unused tag to count 0", 0, counts.get("RIVEST"));
+	}
+}
@@ -0,0 +1,87 @@
+package twitter;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExtractParallelTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * GetMentionedUsersParallel
+	 *
+	 * partition on number of tweets: 0 | <= cutoff | > cutoff
+	 * partition on list type: random access | sequential access
+	 * partition on case: same username mentioned with different case in different chunks
+	 * partition on cutoff: > 0 | <= 0
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+	private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+	private static List<Tweet> makeTweets(int count) {
+		List<Tweet> tweets = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String text = "@user" + (i % 37) + " and @USER" + (i % 11) + " and bitdiddle@mit.edu";
+			tweets.add(new Tweet(i, "author" + i, text, d1));
+		}
+		return tweets;
+	}
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers 0 tweets
+	@Test
+	public void testGetMentionedUsersParallelEmpty() {
+		Set<String> mentionedUsers = Extract.getMentionedUsersParallel(new ArrayList<>(), pool);
+
+		assertTrue("expected empty set", mentionedUsers.isEmpty());
+	}
+
+	// covers number of tweets <= cutoff
+	@Test
+	public void testGetMentionedUsersParallelBelowCutoff() {
+		List<Tweet> tweets = makeTweets(10);
+
+		assertEquals("expected same as sequential", Extract.getMentionedUsers(tweets),
+				Extract.getMentionedUsersParallel(tweets, pool, 100));
+	}
+
+	// covers number of tweets > cutoff, different case in different chunks
+	@Test
+	public void testGetMentionedUsersParallelAboveCutoff() {
+		List<Tweet> tweets = makeTweets(1000);
+		Set<String> mentionedUsers = Extract.getMentionedUsersParallel(tweets, pool, 7);
+
+		assertEquals("expected same as sequential", Extract.getMentionedUsers(tweets), mentionedUsers);
+		assertEquals("expected each username at most once", 37, mentionedUsers.size());
+	}
+
+	// covers sequential access list
+	@Test
+	public void testGetMentionedUsersParallelLinkedList() {
+		List<Tweet> tweets = new LinkedList<>(makeTweets(100));
+
+		assertEquals("expected same as sequential", Extract.getMentionedUsers(tweets),
+				Extract.getMentionedUsersParallel(tweets, pool, 3));
+	}
+
+	// covers cutoff <= 0
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetMentionedUsersParallelNonPositiveCutoff() {
+		Extract.getMentionedUsersParallel(makeTweets(10), pool, 0);
+	}
+}
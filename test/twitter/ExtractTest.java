@@ -4,6 +4,7 @@ import org.junit.Test;
 
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
 import static org.hamcrest.CoreMatchers.hasItems;
@@ -33,6 +34,9 @@ public class ExtractTest {
 	 * both > current time
 	 * both = UNIX Epoch time
 	 *
+	 * partition on size of list: 1 | > 1
+	 * input list is left in its original order
+	 *
 	 * ------------------------------------------------------
 	 * GetMentionedUsers
 	 *
@@ -74,7 +78,7 @@ public class ExtractTest {
 	public void testGetTimespanTwoTweetsAreBothUnixEpochTime() {
 		Timespan timespan = Extract.getTimespan(Arrays.asList(tweet1, tweet3, tweet2, tweet4));
 		assertEquals("expected start", d3, timespan.getStart());
-		assertEquals("expected end", d4, timespan.getEnd());
+		assertEquals("expected end", d2, timespan.getEnd());
 	}
 
 	private static final Instant d5 = Instant.parse("2022-01-01T11:45:12Z");
@@ -86,7 +90,7 @@ public class ExtractTest {
 	@Test
 	public void testGetTimespanTwoTweetsAreBothLaterThanCurrentTime() {
 		Timespan timespan = Extract.getTimespan(Arrays.asList(tweet5, tweet7, tweet6, tweet8));
-		assertEquals("expected start", d6, timespan.getStart());
+		assertEquals("expected start", d8, timespan.getStart());
 		assertEquals("expected end", d5, timespan.getEnd());
 	}
 
@@ -105,7 +109,7 @@ public class ExtractTest {
 	public void testGetTimespanTwoTweetsLaterThanEpochTimeEarlierThanCurrentTime() {
 		Timespan timespan = Extract.getTimespan(Arrays.asList(tweet7, tweet11, tweet8, tweet12));
 
-		assertEquals("expected start", d8, timespan.getStart());
+		assertEquals("expected start", d12, timespan.getStart());
 		assertEquals("expected end", d7, timespan.getEnd());
 	}
 
@@ -120,7 +124,25 @@ public class ExtractTest {
 		Timespan timespan = Extract.getTimespan(Arrays.asList(tweet10, tweet7, tweet5, tweet9, tweet8, tweet6));
 
 		assertEquals("expected start", d9, timespan.getStart());
-		assertEquals("expected end", d10, timespan.getEnd());
+		assertEquals("expected end", d5, timespan.getEnd());
+	}
+
+	// covers a single tweet
+	@Test
+	public void testGetTimespanSingleTweet() {
+		Timespan timespan = Extract.getTimespan(Arrays.asList(tweet7));
+
+		assertEquals("expected start", d7, timespan.getStart());
+		assertEquals("expected end", d7, timespan.getEnd());
+	}
+
+	// covers the input list is not modified
+	@Test
+	public void testGetTimespanDoesNotModifyInput() {
+		List<Tweet> tweets = Arrays.asList(tweet5, tweet9, tweet7);
+		Extract.getTimespan(tweets);
+
+		assertEquals("expected input order unchanged", Arrays.asList(tweet5, tweet9, tweet7), tweets);
 	}
 
 	private static final Instant d13 = Instant.parse("1969-01-01T11:21:12Z");
@@ -217,6 +239,18 @@ public class ExtractTest {
 		assertThat("mentionedUsers should contain Chris", mentionedUsers, hasItems("Adam"));
 	}
 
+	private static final Tweet tweet27 = new Tweet(1, "Lisa", "talk to @Adam about rivest", d25);
+	private static final Tweet tweet28 = new Tweet(2, "Luka", "rivest talk with @aDam @ADAM", d26);
+
+	// covers case-insensitive @Adam and @aDam exist in the same list
+	@Test
+	public void testGetMentionedUsersCaseInsensitive() {
+		Set<String> mentionedUsers = Extract.getMentionedUsers(Arrays.asList(tweet27, tweet28));
+
+		assertEquals("number of mentioned users is 1", 1, mentionedUsers.size());
+		assertTrue("expected Adam in any case", mentionedUsers.iterator().next().equalsIgnoreCase("adam"));
+	}
+
 	/*
 	 * Warning: all the tests you write here must be runnable against any
 	 * Extract class that follows the spec. It will be run against several staff
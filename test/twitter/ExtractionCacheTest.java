@@ -0,0 +1,101 @@
+package twitter;
+
+import org.junit.Test;
+import twitter.exception.NullOrEmptyTextOfTweetException;
+import twitter.exception.NullOrEmptyWordException;
+import twitter.exception.UnqualifiedUsernameException;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExtractionCacheTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on lookup: first lookup of a tweet | repeated lookup | lookup after eviction
+	 * partition on part: mentioned users | words
+	 * partition on id reuse: same id with a different text
+	 * partition on callers: guessFollowsGraph | containing, with and without cache
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+	private static final Tweet tweet1 = new Tweet(1, "alyssa", "talk to @Bert and @ernie about Rivest", d1);
+	private static final Tweet tweet2 = new Tweet(2, "bert", "@Alyssa see you at the talk", d1);
+	private static final Tweet tweet3 = new Tweet(3, "ernie", "no mentions here", d1);
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers first and repeated lookup of mentioned users
+	@Test
+	public void testGetMentionedUsersHitAndMiss() {
+		ExtractionCache cache = new ExtractionCache(10);
+
+		assertEquals("expected folded mentions", new HashSet<>(Arrays.asList("BERT", "ERNIE")), cache.getMentionedUsers(tweet1));
+		assertEquals("expected same mentions", new HashSet<>(Arrays.asList("BERT", "ERNIE")), cache.getMentionedUsers(tweet1));
+		assertEquals("expected one miss", 1, cache.getMissCount());
+		assertEquals("expected one hit", 1, cache.getHitCount());
+	}
+
+	// covers words, first and repeated lookup
+	@Test
+	public void testGetWords() {
+		ExtractionCache cache = new ExtractionCache(10);
+		Set<String> words = cache.getWords(tweet3);
+
+		assertEquals("expected upper-cased words", new HashSet<>(Arrays.asList("NO", "MENTIONS", "HERE")), words);
+		assertEquals("expected cached words", words, cache.getWords(tweet3));
+		assertEquals("expected one hit", 1, cache.getHitCount());
+	}
+
+	// covers lookup after eviction
+	@Test
+	public void testEviction() {
+		ExtractionCache cache = new ExtractionCache(1);
+		cache.getMentionedUsers(tweet1);
+		cache.getMentionedUsers(tweet2);
+		cache.getMentionedUsers(tweet1);
+
+		assertEquals("expected one tweet cached", 1, cache.size());
+		assertEquals("expected two evictions", 2, cache.getEvictionCount());
+		assertEquals("expected three misses", 3, cache.getMissCount());
+	}
+
+	// covers same id with a different text
+	@Test
+	public void testSameIdDifferentText() {
+		ExtractionCache cache = new ExtractionCache(10);
+		cache.getMentionedUsers(tweet1);
+
+		assertEquals("expected mentions of new text", Collections.singleton("CHRIS"),
+				cache.getMentionedUsers(new Tweet(1, "alyssa", "hi @chris", d1)));
+	}
+
+	// covers guessFollowsGraph and containing with and without cache
+	@Test
+	public void testCallersGiveSameResults() throws UnqualifiedUsernameException, NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		ExtractionCache cache = new ExtractionCache(10);
+		List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3);
+		List<String> words = Arrays.asList("rivest", "TALK");
+
+		assertEquals("expected same graph", SocialNetwork.guessFollowsGraph(tweets), SocialNetwork.guessFollowsGraph(tweets, cache));
+		assertEquals("expected same graph from cache", SocialNetwork.guessFollowsGraph(tweets), SocialNetwork.guessFollowsGraph(tweets, cache));
+		assertEquals("expected same tweets", Filter.containing(tweets, words), Filter.containing(tweets, words, cache));
+		assertEquals("expected same tweets from cache", Filter.containing(tweets, words), Filter.containing(tweets, words, cache));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPositiveMaxEntries() {
+		new ExtractionCache(0);
+	}
+}
@@ -0,0 +1,179 @@
+package twitter;
+
+import org.junit.Test;
+import twitter.exception.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FilterLatestTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on input order: oldest first, newest first, unordered, TimeIndex
+	 * partition on n: 0, < matches, >= matches, Integer.MAX_VALUE
+	 * partition on equal timestamps: none, some
+	 * partition on operation: latest, latestWrittenBy, latestContaining
+	 * partition on invalid input: n < 0, null timestamp, invalid username,
+	 *                             invalid author among tested tweets
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+	private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+	private static final Instant d3 = Instant.parse("2016-02-17T12:00:00Z");
+
+	private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+	private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d2);
+	private static final Tweet tweet3 = new Tweet(3, "Alyssa", "see you there", d3);
+	private static final Tweet tweet4 = new Tweet(4, "alyssa", "talk to me", d3);
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers oldest first, n < matches, some equal timestamps, latest
+	@Test
+	public void testOldestFirstStopsEarly() throws NullTimestampException {
+		AtomicInteger tested = new AtomicInteger();
+		List<Tweet> result = Filter.latest(Arrays.asList(tweet1, tweet2, tweet3, tweet4), tweet -> {
+			tested.incrementAndGet();
+			return true;
+		}, 2);
+
+		assertEquals("expected newest, greatest id first", Arrays.asList(tweet4, tweet3), result);
+		assertEquals("expected only the newest tweets tested", 2, tested.get());
+	}
+
+	// covers newest first, n >= matches
+	@Test
+	public void testNewestFirst() throws NullTimestampException {
+		List<Tweet> result = Filter.latest(new LinkedList<>(Arrays.asList(tweet3, tweet2, tweet1)),
+				tweet -> tweet.getText().contains("talk"), 5);
+
+		assertEquals("expected matches newest first", Arrays.asList(tweet2, tweet1), result);
+	}
+
+	// covers unordered, n = 0
+	@Test
+	public void testUnorderedAndZero() throws NullTimestampException {
+		List<Tweet> unordered = Arrays.asList(tweet2, tweet4, tweet1, tweet3);
+
+		assertEquals("expected two newest", Arrays.asList(tweet4, tweet3), Filter.latest(unordered, tweet -> true, 2));
+		assertTrue("expected no tweets", Filter.latest(unordered, tweet -> true, 0).isEmpty());
+	}
+
+	// covers unordered, n = Integer.MAX_VALUE
+	@Test
+	public void testUnorderedMaxN() throws NullTimestampException {
+		List<Tweet> unordered = Arrays.asList(tweet2, tweet4, tweet1, tweet3);
+
+		assertEquals("expected all tweets newest first", Arrays.asList(tweet4, tweet3, tweet2, tweet1),
+				Filter.latest(unordered, tweet -> true, Integer.MAX_VALUE));
+	}
+
+	// covers latestWrittenBy, latestContaining
+	@Test
+	public void testWrittenByAndContaining() throws Exception {
+		List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3, tweet4);
+
+		assertEquals("expected alyssa's newest", Arrays.asList(tweet4, tweet3), Filter.latestWrittenBy(tweets, "ALYSSA", 2));
+		assertEquals("expected talk tweets", Arrays.asList(tweet4, tweet2, tweet1),
+				Filter.latestContaining(tweets, Arrays.asList("talk"), 10));
+	}
+
+	// covers all orders against sorting the full result
+	@Test
+	public void testRandomMatchesSortedFilter() throws Exception {
+		Random random = new Random(19);
+		for (int round = 0; round < 50; round++) {
+			List<Tweet> tweets = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				tweets.add(new Tweet(i, random.nextBoolean() ? "alyssa" : "eva", "talk " + i,
+						d1.plusSeconds(random.nextInt(50))));
+			}
+			if (round % 3 == 0) {
+				tweets.sort(Comparator.comparing(Tweet::getTimestamp));
+			} else if (round % 3 == 1) {
+				tweets.sort(Comparator.comparing(Tweet::getTimestamp).reversed());
+			}
+			int n = random.nextInt(120);
+
+			List<Tweet> expected = Filter.writtenBy(tweets, "alyssa");
+			expected.sort(Comparator.comparing(Tweet::getTimestamp).thenComparingLong(Tweet::getId).reversed());
+			expected = expected.subList(0, Math.min(n, expected.size()));
+
+			assertEquals("expected newest matches", expected, Filter.latestWrittenBy(tweets, "alyssa", n));
+		}
+	}
+
+	// covers TimeIndex, with appends out of time order and outlying timestamps
+	@Test
+	public void testRandomTimeIndexMatchesList() throws Exception {
+		Random random = new Random(10);
+		for (int round = 0; round < 50; round++) {
+			List<Tweet> tweets = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				Instant timestamp = random.nextInt(50) == 0 ? Instant.MAX.minusSeconds(random.nextInt(3))
+						: d1.plusSeconds(random.nextInt(50));
+				tweets.add(new Tweet(i, random.nextBoolean() ? "alyssa" : "eva", "talk " + i, timestamp));
+			}
+			TimeIndex index = new TimeIndex(tweets.subList(0, 100));
+			index.addAll(tweets.subList(100, 200));
+			int n = random.nextInt(120);
+
+			assertEquals("expected same as the list", Filter.latest(tweets, tweet -> tweet.getAuthor().equals("eva"), n),
+					Filter.latest(index, tweet -> tweet.getAuthor().equals("eva"), n));
+		}
+	}
+
+	// covers TimeIndex, n < matches
+	@Test
+	public void testTimeIndexStopsEarly() throws Exception {
+		List<Tweet> tweets = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			tweets.add(new Tweet(i, "alyssa", "talk " + i, d1.plusSeconds(i)));
+		}
+		AtomicInteger tested = new AtomicInteger();
+
+		List<Tweet> result = Filter.latest(new TimeIndex(tweets), tweet -> tested.incrementAndGet() > 0, 2);
+
+		assertEquals("expected two newest", Arrays.asList(tweets.get(999), tweets.get(998)), result);
+		assertEquals("expected only the newest tested", 2, tested.get());
+	}
+
+	// covers n < 0
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeN() throws NullTimestampException {
+		Filter.latest(Collections.<Tweet>emptyList(), tweet -> true, -1);
+	}
+
+	// covers null timestamp
+	@Test(expected = NullTimestampException.class)
+	public void testNullTimestamp() throws NullTimestampException {
+		Filter.latest(Arrays.asList(tweet1, new Tweet(5, "eva", "talk", null)), tweet -> true, 1);
+	}
+
+	// covers invalid username
+	@Test(expected = UnqualifiedUsernameException.class)
+	public void testInvalidUsername() throws Exception {
+		Filter.latestWrittenBy(Arrays.asList(tweet1), "bit diddle", 1);
+	}
+
+	// covers invalid author among tested tweets
+	@Test(expected = NullOrEmptyAuthorException.class)
+	public void testEmptyAuthorTested() throws Exception {
+		Filter.latestWrittenBy(Arrays.asList(tweet1, new Tweet(5, "", "talk", d3)), "alyssa", 1);
+	}
+}
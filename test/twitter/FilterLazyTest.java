@@ -0,0 +1,142 @@
+package twitter;
+
+import org.junit.Test;
+import twitter.exception.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FilterLazyTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on input: Stream | Iterator, finite | unbounded
+	 * partition on operation: writtenBy | inTimespan | containing
+	 * partition on consumer: reads every result | limits results
+	 * partition on invalid tweet: none | before the results read | after the results read
+	 * partition on invalid argument: username, timespan, words
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+	private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+
+	private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+	private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d2);
+	private static final Tweet tweet3 = new Tweet(3, "Alyssa", "see you there", d2);
+	private static final Tweet badAuthor = new Tweet(4, "bit diddle", "rivest talk", d1);
+
+	private static final List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3);
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers Stream, finite, every operation, reads every result
+	@Test
+	public void testStreamsMatchLists() throws Exception {
+		Timespan timespan = new Timespan(d2, d2);
+		List<String> words = Arrays.asList("TALK");
+
+		assertEquals("expected writtenBy", Filter.writtenBy(tweets, "alyssa"),
+				Filter.writtenBy(tweets.stream(), "alyssa").collect(Collectors.toList()));
+		assertEquals("expected inTimespan", Filter.inTimespan(tweets, timespan),
+				Filter.inTimespan(tweets.stream(), timespan).collect(Collectors.toList()));
+		assertEquals("expected containing", Filter.containing(tweets, words),
+				Filter.containing(tweets.stream(), words).collect(Collectors.toList()));
+	}
+
+	// covers Iterator, finite
+	@Test
+	public void testIteratorsMatchLists() throws Exception {
+		Iterator<Tweet> result = Filter.containing(Filter.writtenBy(tweets.iterator(), "ALYSSA"), Arrays.asList("rivest"));
+
+		assertTrue("expected a tweet", result.hasNext());
+		assertEquals("expected first tweet", tweet1, result.next());
+		assertFalse("expected no more tweets", result.hasNext());
+	}
+
+	// covers unbounded, limits results
+	@Test
+	public void testUnboundedStreamShortCircuits() throws Exception {
+		AtomicInteger read = new AtomicInteger();
+		Stream<Tweet> unbounded = Stream.iterate(1L, id -> id + 1)
+				.map(id -> new Tweet(id, id % 2 == 0 ? "alyssa" : "ben", "talk " + id, d1))
+				.peek(tweet -> read.incrementAndGet());
+
+		List<Tweet> result = Filter.writtenBy(unbounded, "alyssa").limit(3).collect(Collectors.toList());
+
+		assertEquals("expected three tweets", 3, result.size());
+		assertEquals("expected last id", 6, result.get(2).getId());
+		assertEquals("expected only needed tweets read", 6, read.get());
+	}
+
+	// covers invalid tweet after the results read
+	@Test
+	public void testInvalidTweetNotReached() throws Exception {
+		Iterator<Tweet> result = Filter.writtenBy(Arrays.asList(tweet1, badAuthor).iterator(), "alyssa");
+
+		assertEquals("expected first tweet", tweet1, result.next());
+	}
+
+	// covers invalid tweet before the results read
+	@Test
+	public void testInvalidTweetReached() throws Exception {
+		List<Tweet> read = new ArrayList<>();
+		try {
+			Filter.writtenBy(Stream.of(tweet1, badAuthor, tweet3), "alyssa").forEach(read::add);
+			fail("expected exception");
+		} catch (UncheckedTweetException e) {
+			assertTrue("expected unqualified author", e.getCause() instanceof UnqualifiedUsernameException);
+		}
+		assertEquals("expected tweets before the invalid one", Arrays.asList(tweet1), read);
+	}
+
+	// covers invalid tweet in inTimespan and containing
+	@Test
+	public void testInvalidTweetsWrapped() throws Exception {
+		Tweet noText = new Tweet(5, "eva", "", d1);
+		try {
+			Filter.containing(Stream.of(noText), Arrays.asList("talk")).count();
+			fail("expected exception");
+		} catch (UncheckedTweetException e) {
+			assertTrue("expected empty text", e.getCause() instanceof NullOrEmptyTextOfTweetException);
+		}
+		try {
+			Filter.inTimespan(Stream.of(new Tweet(6, "eva", "talk", null)), new Timespan(d1, d2)).count();
+			fail("expected exception");
+		} catch (UncheckedTweetException e) {
+			assertTrue("expected null timestamp", e.getCause() instanceof NullTimestampException);
+		}
+	}
+
+	// covers invalid username
+	@Test(expected = UnqualifiedUsernameException.class)
+	public void testUnqualifiedUsername() throws Exception {
+		Filter.writtenBy(tweets.stream(), "bit diddle");
+	}
+
+	// covers invalid timespan
+	@Test(expected = NullTimestampException.class)
+	public void testNullTimespan() throws Exception {
+		Filter.inTimespan(tweets.iterator(), null);
+	}
+
+	// covers invalid words
+	@Test(expected = NullOrEmptyWordException.class)
+	public void testEmptyWord() throws Exception {
+		Filter.containing(tweets.stream(), Arrays.asList(""));
+	}
+}
@@ -0,0 +1,170 @@
+package twitter;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FollowsGraphTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on edges: none, some, duplicates, self edges, to non-authors
+	 * partition on building: once, again after more edges
+	 * partition on lookup: author, non-author, other case, absent
+	 * partition on mutual followers: none, some
+	 * partition on view: get, equals a HashMap, modified
+	 * partition on intersect: empty, disjoint, overlapping
+	 * partition on invalid use: author added after an edge to a non-author
+	 */
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers no edges
+	@Test
+	public void testNoEdges() {
+		FollowsGraph.Builder builder = new FollowsGraph.Builder();
+		builder.addAuthor("alyssa");
+		FollowsGraph graph = builder.build();
+
+		assertEquals("expected one person", 1, graph.size());
+		assertEquals("expected no edges", 0, graph.getEdgeCount());
+		assertEquals("expected empty row", new HashSet<>(), graph.asMap().get("ALYSSA"));
+	}
+
+	// covers some edges, duplicates, self edges, to non-authors, author, non-author,
+	// other case, absent, get
+	@Test
+	public void testEdges() {
+		FollowsGraph.Builder builder = new FollowsGraph.Builder();
+		int alyssa = builder.addAuthor("alyssa");
+		int ben = builder.addAuthor("Ben");
+		builder.addFollows(alyssa, "ben");
+		builder.addFollows(alyssa, "BEN");
+		builder.addFollows(alyssa, "Alyssa");
+		builder.addFollows(ben, "eva");
+		FollowsGraph graph = builder.build();
+
+		assertEquals("expected three people", 3, graph.size());
+		assertEquals("expected two authors", 2, graph.getAuthorCount());
+		assertEquals("expected two edges", 2, graph.getEdgeCount());
+		assertTrue("expected follows ignoring case", graph.follows("ALYSSA", "ben"));
+		assertFalse("expected no self edge", graph.follows("alyssa", "alyssa"));
+		assertFalse("expected non-author follows nobody", graph.follows("eva", "ben"));
+		assertFalse("expected absent person", graph.follows("alyssa", "eva2"));
+		assertEquals("expected one follower", 1, graph.getFollowerCount(graph.getId("eva")));
+		assertEquals("expected folded name", "EVA", graph.getName(graph.getId("Eva")));
+
+		Map<String, Set<String>> map = graph.asMap();
+		assertEquals("expected folded row", new HashSet<>(Arrays.asList("BEN")), map.get("ALYSSA"));
+		assertNull("expected keys are folded names", map.get("alyssa"));
+		assertNull("expected non-author not a key", map.get("EVA"));
+		assertFalse("expected row holds folded names", map.get("BEN").contains("eva"));
+	}
+
+	// covers building again after more edges
+	@Test
+	public void testBuildAgain() {
+		FollowsGraph.Builder builder = new FollowsGraph.Builder();
+		int alyssa = builder.addAuthor("alyssa");
+		builder.addFollows(alyssa, "ben");
+		FollowsGraph first = builder.build();
+		builder.addFollows(alyssa, "eva");
+		FollowsGraph second = builder.build();
+
+		assertEquals("expected first graph unchanged", 2, first.size());
+		assertEquals("expected first graph unchanged", -1, first.getId("eva"));
+		assertEquals("expected new edge", new HashSet<>(Arrays.asList("BEN", "EVA")), second.asMap().get("ALYSSA"));
+	}
+
+	// covers no mutual followers, some
+	@Test
+	public void testMutualFollowers() {
+		FollowsGraph.Builder builder = new FollowsGraph.Builder();
+		int alyssa = builder.addAuthor("alyssa");
+		int ben = builder.addAuthor("ben");
+		int eva = builder.addAuthor("eva");
+		builder.addFollows(alyssa, ben);
+		builder.addFollows(alyssa, eva);
+		builder.addFollows(ben, alyssa);
+		builder.addFollows(eva, "mit");
+		FollowsGraph graph = builder.build();
+
+		assertArrayEquals("expected ben", new int[]{ben}, graph.getMutualFollowers(alyssa));
+		assertArrayEquals("expected none", new int[0], graph.getMutualFollowers(eva));
+		assertArrayEquals("expected none for non-author", new int[0], graph.getMutualFollowers(graph.getId("mit")));
+	}
+
+	// covers equals a HashMap
+	@Test
+	public void testRandomGraphEqualsHashMap() {
+		Random random = new Random(22);
+		for (int round = 0; round < 50; round++) {
+			int people = 1 + random.nextInt(30);
+			int authors = 1 + random.nextInt(people);
+			FollowsGraph.Builder builder = new FollowsGraph.Builder();
+			Map<String, Set<String>> expected = new HashMap<>();
+			for (int a = 0; a < authors; a++) {
+				builder.addAuthor("user" + a);
+				expected.put("USER" + a, new HashSet<>());
+			}
+			for (int e = random.nextInt(100); e > 0; e--) {
+				int a = random.nextInt(authors);
+				int b = random.nextInt(people);
+				builder.addFollows(a, random.nextBoolean() ? "user" + b : "USER" + b);
+				if (a != b) {
+					expected.get("USER" + a).add("USER" + b);
+				}
+			}
+			Map<String, Set<String>> map = builder.build().asMap();
+
+			assertEquals("expected same network", expected, map);
+			assertEquals("expected same network", map, expected);
+			assertEquals("expected same hash code", expected.hashCode(), map.hashCode());
+		}
+	}
+
+	// covers modified
+	@Test(expected = UnsupportedOperationException.class)
+	public void testViewReadOnly() {
+		FollowsGraph.Builder builder = new FollowsGraph.Builder();
+		builder.addAuthor("alyssa");
+		builder.build().asMap().get("ALYSSA").add("BEN");
+	}
+
+	// covers intersect empty, disjoint, overlapping
+	@Test
+	public void testIntersect() {
+		int[] result = new int[4];
+		int[] a = {1, 3, 5, 7, 9};
+		int[] b = {0, 3, 4, 7, 8, 9};
+
+		assertEquals("expected empty", 0, FollowsGraph.intersect(a, 0, 0, b, 0, b.length, result));
+		assertEquals("expected disjoint", 0, FollowsGraph.intersect(a, 0, 1, b, 0, 2, result));
+		assertEquals("expected overlap", 3, FollowsGraph.intersect(a, 0, a.length, b, 0, b.length, result));
+		assertArrayEquals("expected common ids", new int[]{3, 7, 9}, Arrays.copyOf(result, 3));
+	}
+
+	// covers author added after an edge to a non-author
+	@Test(expected = IllegalStateException.class)
+	public void testAuthorAfterEdge() {
+		FollowsGraph.Builder builder = new FollowsGraph.Builder();
+		int alyssa = builder.addAuthor("alyssa");
+		builder.addFollows(alyssa, "ben");
+		builder.addAuthor("eva");
+	}
+}
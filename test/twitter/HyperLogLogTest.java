@@ -0,0 +1,103 @@
+package twitter;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HyperLogLogTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on number of distinct items: 0 | small (linear counting range) | large
+	 * partition on duplicates: same item repeated | same username in different case
+	 * merge: equal precision | different precision
+	 * byte array: round trip | not a sketch
+	 * estimateMentionedUserCount: tweets with repeated mentions
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	private static void assertWithin(String message, long expected, long actual, double relativeError) {
+		assertTrue(message + ": expected about " + expected + " but was " + actual,
+				Math.abs(actual - expected) <= relativeError * expected);
+	}
+
+	// covers 0 items
+	@Test
+	public void testEstimateEmpty() {
+		assertEquals("expected 0 for empty sketch", 0, new HyperLogLog().estimate());
+	}
+
+	// covers small count, repeats and different case
+	@Test
+	public void testEstimateSmallWithDuplicates() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (int i = 0; i < 100; i++) {
+			sketch.add("user" + i);
+			sketch.add("USER" + i);
+		}
+
+		assertWithin("expected about 100", 100, sketch.estimate(), 0.05);
+	}
+
+	// covers large count, merge of equal precision
+	@Test
+	public void testEstimateLargeMerged() {
+		HyperLogLog left = new HyperLogLog(12);
+		HyperLogLog right = new HyperLogLog(12);
+		for (int i = 0; i < 60000; i++) {
+			left.add("user" + i);
+			right.add("user" + (i + 40000));
+		}
+
+		assertWithin("expected about 100000", 100000, left.merge(right).estimate(), 0.06);
+	}
+
+	// covers merge of different precision
+	@Test(expected = IllegalArgumentException.class)
+	public void testMergeDifferentPrecision() {
+		new HyperLogLog(10).merge(new HyperLogLog(12));
+	}
+
+	// covers byte array round trip
+	@Test
+	public void testByteArrayRoundTrip() {
+		HyperLogLog sketch = new HyperLogLog(8);
+		for (int i = 0; i < 1000; i++) {
+			sketch.add("user" + i);
+		}
+		HyperLogLog restored = HyperLogLog.fromByteArray(sketch.toByteArray());
+
+		assertEquals("expected equal sketch", sketch, restored);
+		assertEquals("expected same estimate", sketch.estimate(), restored.estimate());
+	}
+
+	// covers bytes that are not a sketch
+	@Test(expected = IllegalArgumentException.class)
+	public void testFromByteArrayCorrupt() {
+		HyperLogLog.fromByteArray(new byte[]{1, 8, 0});
+	}
+
+	// covers estimateMentionedUserCount with repeated mentions
+	@Test
+	public void testEstimateMentionedUserCount() {
+		List<Tweet> tweets = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			tweets.add(new Tweet(i, "alyssa", "@user" + (i % 500) + " and @USER" + (i % 300), d1));
+		}
+
+		assertWithin("expected about the exact count", Extract.getMentionedUsers(tweets).size(),
+				Extract.estimateMentionedUserCount(tweets), 0.05);
+	}
+}
@@ -0,0 +1,131 @@
+package twitter;
+
+import org.junit.Test;
+import twitter.exception.UnqualifiedUsernameException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalFollowsGraphTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on batches: none, one, several
+	 * partition on batch: empty, mentions new people, repeats edges, self mention
+	 * partition on mutual pairs made: none, one, several closing triads
+	 * partition on k: 0, < people with followers, >= people with followers
+	 * partition on invalid input: invalid author in a batch, k < 0
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers no batches, k >= people with followers
+	@Test
+	public void testEmpty() {
+		IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+
+		assertTrue("expected empty graph", graph.getFollowsGraph().isEmpty());
+		assertTrue("expected no influencers", graph.influencers().isEmpty());
+		assertEquals("expected no edges", 0, graph.getEdgeCount());
+	}
+
+	// covers one batch, mentions new people, self mention, no mutual pairs
+	@Test
+	public void testOneBatch() throws UnqualifiedUsernameException {
+		IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+		graph.addTweets(Arrays.asList(
+				new Tweet(1, "alyssa", "@ben @Alyssa talk", d1),
+				new Tweet(2, "eva", "@BEN see you", d1)));
+
+		assertEquals("expected folded network", SocialNetwork.guessFollowsGraph(Arrays.asList(
+				new Tweet(1, "alyssa", "@ben @Alyssa talk", d1),
+				new Tweet(2, "eva", "@BEN see you", d1))), graph.getFollowsGraph());
+		assertEquals("expected two followers", 2, graph.getFollowerCount("Ben"));
+		assertEquals("expected no followers", 0, graph.getFollowerCount("mit"));
+		assertEquals("expected ben first", Arrays.asList("BEN"), graph.influencers());
+	}
+
+	// covers several batches, empty batch, repeats edges, several closing triads
+	@Test
+	public void testTriadClosedAcrossBatches() throws UnqualifiedUsernameException {
+		IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+		graph.addTweets(Arrays.asList(
+				new Tweet(1, "alyssa", "@ben", d1),
+				new Tweet(2, "ben", "@alyssa @eva", d1)));
+		assertEquals("expected no closure yet", 3, graph.getEdgeCount());
+
+		graph.addTweets(Collections.<Tweet>emptyList());
+		graph.addTweets(Arrays.asList(
+				new Tweet(3, "eva", "@ben", d1),
+				new Tweet(4, "alyssa", "@ben again", d1)));
+
+		assertTrue("expected alyssa follows eva", graph.getFollowsGraph().get("ALYSSA").contains("EVA"));
+		assertTrue("expected eva follows alyssa", graph.getFollowsGraph().get("EVA").contains("ALYSSA"));
+		assertEquals("expected two followers each, by name", Arrays.asList("ALYSSA", "BEN", "EVA"), graph.influencers());
+	}
+
+	// covers k = 0, k < people with followers, several batches against the full rebuild
+	@Test
+	public void testRandomBatchesMatchRebuild() throws UnqualifiedUsernameException {
+		Random random = new Random(25);
+		for (int round = 0; round < 30; round++) {
+			int people = 2 + random.nextInt(25);
+			IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+			List<Tweet> history = new ArrayList<>();
+			for (int batch = 0; batch < 10; batch++) {
+				List<Tweet> tweets = new ArrayList<>();
+				for (int i = random.nextInt(15); i > 0; i--) {
+					StringBuilder text = new StringBuilder("talk");
+					for (int m = random.nextInt(4); m > 0; m--) {
+						text.append(random.nextBoolean() ? " @user" : " @USER").append(random.nextInt(people));
+					}
+					tweets.add(new Tweet(history.size() + tweets.size(), "user" + random.nextInt(people),
+							text.toString(), d1));
+				}
+				graph.addTweets(tweets);
+				history.addAll(tweets);
+
+				assertEquals("expected same network", SocialNetwork.guessFollowsGraph(history), graph.getFollowsGraph());
+				List<String> expected = SocialNetwork.influencers(SocialNetwork.guessFollowsGraph(history));
+				assertEquals("expected same influencers", expected, graph.influencers());
+				int k = random.nextInt(5);
+				assertEquals("expected top k", expected.subList(0, Math.min(k, expected.size())), graph.influencers(k));
+			}
+		}
+	}
+
+	// covers invalid author in a batch
+	@Test
+	public void testInvalidAuthorAddsNothing() throws UnqualifiedUsernameException {
+		IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+		graph.addTweets(Arrays.asList(new Tweet(1, "alyssa", "@ben", d1)));
+		try {
+			graph.addTweets(Arrays.asList(new Tweet(2, "eva", "@ben", d1), new Tweet(3, "bit diddle", "@ben", d1)));
+		} catch (UnqualifiedUsernameException e) {
+			assertEquals("expected first batch only",
+					Collections.singletonMap("ALYSSA", new HashSet<>(Arrays.asList("BEN"))), graph.getFollowsGraph());
+			return;
+		}
+		throw new AssertionError("expected UnqualifiedUsernameException");
+	}
+
+	// covers k < 0
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeK() {
+		new IncrementalFollowsGraph().influencers(-1);
+	}
+}
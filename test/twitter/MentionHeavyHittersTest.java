@@ -0,0 +1,110 @@
+package twitter;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MentionHeavyHittersTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on distinct usernames: <= capacity (exact counts) | > capacity
+	 * partition on mentions per tweet: same user repeated in a tweet | different case
+	 * partition on k: 0 | < number of counters | > number of counters
+	 * merge: both summaries not full | both full
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+	private static Tweet tweet(long id, String text) {
+		return new Tweet(id, "alyssa", text, d1);
+	}
+
+	/** Tweets in which user0 is mentioned most often, then user1, and many rare users once each. */
+	private static List<Tweet> skewedTweets(int offset) {
+		List<Tweet> tweets = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			tweets.add(tweet(offset + i, "@user0 @rare" + (offset + i) + (i % 2 == 0 ? " @user1" : "")));
+		}
+		return tweets;
+	}
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers distinct <= capacity, repeated user in a tweet, different case, k > counters
+	@Test
+	public void testExactCounts() {
+		MentionHeavyHitters heavyHitters = new MentionHeavyHitters(10);
+		heavyHitters.add(tweet(1, "@bob @BOB @alice"));
+		heavyHitters.add(tweet(2, "@Bob"));
+		List<MentionHeavyHitters.HeavyHitter> top = heavyHitters.top(5);
+
+		assertEquals("expected two users", 2, top.size());
+		assertEquals("expected bob first", "BOB", top.get(0).getUsername());
+		assertEquals("expected one mention per tweet", 2, top.get(0).getCount());
+		assertEquals("expected no error", 0, top.get(0).getError());
+		assertEquals("expected alice second", "ALICE", top.get(1).getUsername());
+	}
+
+	// covers distinct > capacity, k < counters, k = 0
+	@Test
+	public void testSkewedStream() {
+		MentionHeavyHitters heavyHitters = MentionHeavyHitters.withMaxError(0.1);
+		heavyHitters.addAll(skewedTweets(0));
+		List<MentionHeavyHitters.HeavyHitter> top = heavyHitters.top(2);
+
+		assertEquals("expected user0 first", "USER0", top.get(0).getUsername());
+		assertEquals("expected user1 second", "USER1", top.get(1).getUsername());
+		for (MentionHeavyHitters.HeavyHitter heavyHitter : top) {
+			long trueCount = heavyHitter.getUsername().equals("USER0") ? 300 : 150;
+			assertTrue("expected count to bound true count", heavyHitter.getGuaranteedCount() <= trueCount && trueCount <= heavyHitter.getCount());
+			assertTrue("expected error within bound", heavyHitter.getError() <= heavyHitters.getTotal() / 10);
+		}
+		assertTrue("expected empty list for k = 0", heavyHitters.top(0).isEmpty());
+	}
+
+	// covers merge of full summaries
+	@Test
+	public void testMergeFull() {
+		MentionHeavyHitters left = new MentionHeavyHitters(10);
+		MentionHeavyHitters right = new MentionHeavyHitters(10);
+		left.addAll(skewedTweets(0));
+		right.addAll(skewedTweets(1000));
+		left.merge(right);
+		List<MentionHeavyHitters.HeavyHitter> top = left.top(2);
+
+		assertEquals("expected total of both", 1500, left.getTotal());
+		assertEquals("expected user0 first", "USER0", top.get(0).getUsername());
+		assertTrue("expected merged count to bound true count", top.get(0).getGuaranteedCount() <= 600 && 600 <= top.get(0).getCount());
+		assertEquals("expected user1 second", "USER1", top.get(1).getUsername());
+	}
+
+	// covers merge of summaries that are not full
+	@Test
+	public void testMergeNotFull() {
+		MentionHeavyHitters left = new MentionHeavyHitters(10);
+		MentionHeavyHitters right = new MentionHeavyHitters(10);
+		left.add(tweet(1, "@bob @alice"));
+		right.add(tweet(2, "@bob @carol"));
+		List<MentionHeavyHitters.HeavyHitter> top = left.merge(right).top(3);
+
+		assertEquals("expected bob first", "BOB", top.get(0).getUsername());
+		assertEquals("expected exact merged count", 2, top.get(0).getCount());
+		assertEquals("expected no error", 0, top.get(0).getError());
+		assertEquals("expected three users", 3, top.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPositiveCapacity() {
+		new MentionHeavyHitters(0);
+	}
+}
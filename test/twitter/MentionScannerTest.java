@@ -0,0 +1,116 @@
+package twitter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class MentionScannerTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on number of mentions: 0 | 1 | > 1
+	 * partition on what ends a mention: space | next @ | end of text | other character
+	 * partition on scanner reuse: first scan | scan after a previous scan
+	 * partition on output: int buffer | SpanConsumer callback
+	 * partition on hashtags: not requested | requested, preceded by start of text |
+	 *                        by space | by a tag character
+	 */
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers 0 mentions
+	@Test
+	public void testScanNoMentions() {
+		MentionScanner scanner = new MentionScanner();
+
+		assertEquals("expected no mentions", 0, scanner.scan("rivest talk in 30 minutes #hype"));
+	}
+
+	// covers 1 mention ended by a space, offset and length of the span
+	@Test
+	public void testScanMentionEndedBySpace() {
+		MentionScanner scanner = new MentionScanner();
+		String text = "talk @Adam_1 now";
+
+		assertEquals("expected one mention", 1, scanner.scan(text));
+		assertEquals("expected offset after @", 6, scanner.getOffset(0));
+		assertEquals("expected length of username", 6, scanner.getLength(0));
+		assertEquals("expected username", "Adam_1", scanner.getMention(0));
+	}
+
+	// covers > 1 mentions ended by next @ and by end of text
+	@Test
+	public void testScanMentionsEndedByNextAtAndEndOfText() {
+		MentionScanner scanner = new MentionScanner();
+
+		assertEquals("expected two mentions", 2, scanner.scan("@bob@alice"));
+		assertEquals("expected first username", "bob", scanner.getMention(0));
+		assertEquals("expected second username", "alice", scanner.getMention(1));
+	}
+
+	// covers mention ended by other character, e.g. an email address
+	@Test
+	public void testScanMentionEndedByOtherCharacter() {
+		MentionScanner scanner = new MentionScanner();
+
+		assertEquals("expected no mentions", 0, scanner.scan("bitdiddle@mit.edu and @+Adam"));
+	}
+
+	// covers scan after a previous scan
+	@Test
+	public void testScanReusesScanner() {
+		MentionScanner scanner = new MentionScanner();
+		scanner.scan("@a1 @b2 @c3 @d4 @e5 @f6 @g7 @h8 @i9 @j10");
+
+		assertEquals("expected one mention", 1, scanner.scan("hello @Chris"));
+		assertEquals("expected username of second scan", "Chris", scanner.getMention(0));
+	}
+
+	// covers SpanConsumer callback
+	@Test
+	public void testScanWithConsumer() {
+		List<String> mentions = new ArrayList<>();
+		MentionScanner.scan("@Adam and @Chris.", (text, offset, length) ->
+				mentions.add(text.subSequence(offset, offset + length).toString()));
+
+		assertEquals("expected mentions in order", Arrays.asList("Adam"), mentions);
+	}
+
+	// covers hashtags not requested
+	@Test
+	public void testScanIgnoresHashtags() {
+		MentionScanner scanner = new MentionScanner();
+		scanner.scan("#mit talk by @rivest");
+
+		assertEquals("expected no hashtags", 0, scanner.hashtagCount());
+	}
+
+	// covers hashtags requested, preceded by start of text, space and tag character
+	@Test
+	public void testScanWithHashtags() {
+		MentionScanner scanner = new MentionScanner();
+
+		assertEquals("expected one mention", 1, scanner.scanWithHashtags("#mit talk by @rivest #hype, not a#b or #"));
+		assertEquals("expected username", "rivest", scanner.getMention(0));
+		assertEquals("expected two hashtags", 2, scanner.hashtagCount());
+		assertEquals("expected first tag", "mit", scanner.getHashtag(0));
+		assertEquals("expected second tag", "hype", scanner.getHashtag(1));
+		assertEquals("expected offset after #", 22, scanner.getHashtagOffset(1));
+		assertEquals("expected length of tag", 4, scanner.getHashtagLength(1));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetMentionOutOfRange() {
+		MentionScanner scanner = new MentionScanner();
+		scanner.scan("@Adam");
+		scanner.getMention(1);
+	}
+}
@@ -0,0 +1,164 @@
+package twitter;
+
+import org.junit.Test;
+import twitter.exception.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PartitionedTweetsTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on bucket width: hourly, daily, other; invalid
+	 * partition on input order: by time, not by time
+	 * partition on query: inTimespan, writtenBy, containing, and, or, not
+	 * partition on partitions: all skipped, some skipped, taken whole, scanned
+	 * partition on invalid tweet: null or invalid author, null timestamp, empty text
+	 * partition on text: has words, blank
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers hourly, by time, inTimespan, some skipped, taken whole, scanned
+	@Test
+	public void testRecentTimespanSkipsOldPartitions() throws Exception {
+		List<Tweet> tweets = new ArrayList<>();
+		for (int i = 0; i < 48 * 6; i++) {
+			tweets.add(new Tweet(i, "alyssa", "talk " + i, d1.plusSeconds(600L * i)));
+		}
+		PartitionedTweets partitioned = new PartitionedTweets(tweets, PartitionedTweets.HOURLY);
+		Timespan lastHours = new Timespan(d1.plusSeconds(600L * 270 + 300), d1.plusSeconds(600L * 300));
+		TweetQuery query = TweetQuery.inTimespan(lastHours);
+
+		PartitionedTweets.Scan scan = partitioned.execute(query);
+
+		assertEquals("expected 48 partitions", 48, partitioned.getPartitionCount());
+		assertEquals("expected tweets", query.execute(tweets), scan.getTweets());
+		assertEquals("expected first partition scanned", 1, scan.getPartitionsScanned());
+		assertEquals("expected last partitions taken whole", 2, scan.getPartitionsTakenWhole());
+		assertEquals("expected older partitions skipped", 45, scan.getPartitionsSkipped());
+	}
+
+	// covers daily, writtenBy, containing, all skipped
+	@Test
+	public void testBloomFiltersSkipPartitions() throws Exception {
+		List<Tweet> tweets = Arrays.asList(
+				new Tweet(1, "alyssa", "rivest talk", d1),
+				new Tweet(2, "bbitdiddle", "see you", d1.plus(Duration.ofDays(1))));
+		PartitionedTweets partitioned = new PartitionedTweets(tweets, PartitionedTweets.DAILY);
+
+		PartitionedTweets.Scan byEva = partitioned.execute(TweetQuery.writtenBy("eva"));
+		assertTrue("expected no tweets", byEva.getTweets().isEmpty());
+		assertEquals("expected partitions skipped", 2, byEva.getPartitionsSkipped());
+
+		PartitionedTweets.Scan aboutRivest = partitioned.execute(TweetQuery.containing(Arrays.asList("RIVEST")));
+		assertEquals("expected tweet", Arrays.asList(tweets.get(0)), aboutRivest.getTweets());
+		assertEquals("expected one partition scanned", 1, aboutRivest.getPartitionsScanned());
+		assertEquals("expected one partition skipped", 1, aboutRivest.getPartitionsSkipped());
+	}
+
+	// covers other width, not by time, and, or, not
+	@Test
+	public void testRandomQueriesMatchExecute() throws Exception {
+		Random random = new Random(18);
+		String[] authors = {"alyssa", "bbitdiddle", "eva", "Ben"};
+		String[] words = {"talk", "rivest", "#hype", "minutes", "see", "you", "there", "Me"};
+		List<Tweet> tweets = new ArrayList<>();
+		for (int i = 0; i < 400; i++) {
+			StringBuilder text = new StringBuilder();
+			for (int w = 0; w <= random.nextInt(4); w++) {
+				text.append(words[random.nextInt(words.length)]).append(' ');
+			}
+			tweets.add(new Tweet(i, authors[random.nextInt(authors.length)], text.toString(),
+					d1.plusSeconds(random.nextInt(86400))));
+		}
+		for (Duration width : Arrays.asList(PartitionedTweets.HOURLY, Duration.ofMinutes(7), PartitionedTweets.DAILY)) {
+			PartitionedTweets partitioned = new PartitionedTweets(tweets, width);
+			for (int round = 0; round < 50; round++) {
+				TweetQuery query = randomLeaf(random, authors, words);
+				int operands = random.nextInt(3);
+				for (int i = 0; i < operands; i++) {
+					TweetQuery other = random.nextBoolean() ? randomLeaf(random, authors, words) : randomLeaf(random, authors, words).not();
+					query = random.nextBoolean() ? query.and(other) : query.or(other);
+				}
+				PartitionedTweets.Scan scan = partitioned.execute(query);
+
+				assertEquals("expected same tweets for " + query, query.execute(tweets), scan.getTweets());
+				assertEquals("expected every partition counted", partitioned.getPartitionCount(),
+						scan.getPartitionsScanned() + scan.getPartitionsSkipped() + scan.getPartitionsTakenWhole());
+			}
+		}
+	}
+
+	// covers blank text, hourly, inTimespan, writtenBy
+	@Test
+	public void testBlankText() throws Exception {
+		List<Tweet> tweets = Arrays.asList(
+				new Tweet(1, "alyssa", " ", d1),
+				new Tweet(2, "bbitdiddle", "rivest talk", d1));
+		PartitionedTweets partitioned = new PartitionedTweets(tweets, PartitionedTweets.HOURLY);
+		Timespan timespan = new Timespan(d1, d1.plusSeconds(60));
+
+		assertEquals("expected tweets in timespan", Filter.inTimespan(tweets, timespan),
+				partitioned.execute(TweetQuery.inTimespan(timespan)).getTweets());
+		assertEquals("expected alyssa's tweet", Filter.writtenBy(tweets, "alyssa"),
+				partitioned.execute(TweetQuery.writtenBy("alyssa")).getTweets());
+	}
+
+	// covers invalid bucket width
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidBucketWidth() throws Exception {
+		new PartitionedTweets(Collections.<Tweet>emptyList(), Duration.ofMillis(1500));
+	}
+
+	// covers invalid author
+	@Test(expected = UnqualifiedUsernameException.class)
+	public void testInvalidAuthor() throws Exception {
+		new PartitionedTweets(Arrays.asList(new Tweet(1, "bit diddle", "talk", d1)), PartitionedTweets.HOURLY);
+	}
+
+	// covers null author
+	@Test(expected = NullOrEmptyAuthorException.class)
+	public void testNullAuthor() throws Exception {
+		new PartitionedTweets(Arrays.asList(new Tweet(1, null, "talk", d1)), PartitionedTweets.HOURLY);
+	}
+
+	// covers null timestamp
+	@Test(expected = NullTimestampException.class)
+	public void testNullTimestamp() throws Exception {
+		new PartitionedTweets(Arrays.asList(new Tweet(1, "eva", "talk", null)), PartitionedTweets.HOURLY);
+	}
+
+	// covers empty text
+	@Test(expected = NullOrEmptyTextOfTweetException.class)
+	public void testEmptyText() throws Exception {
+		new PartitionedTweets(Arrays.asList(new Tweet(1, "eva", "", d1)), PartitionedTweets.HOURLY);
+	}
+
+	private static TweetQuery randomLeaf(Random random, String[] authors, String[] words) throws Exception {
+		switch (random.nextInt(3)) {
+			case 0:
+				return TweetQuery.writtenBy(authors[random.nextInt(authors.length)]);
+			case 1:
+				Instant start = d1.plusSeconds(random.nextInt(86400));
+				return TweetQuery.inTimespan(new Timespan(start, start.plusSeconds(random.nextInt(4 * 3600))));
+			default:
+				return TweetQuery.containing(Arrays.asList(words[random.nextInt(words.length)]));
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package twitter;
+
+import twitter.exception.UnqualifiedUsernameException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Times guessFollowsGraph() and guessFollowsGraphParallel() on 10^3 to 10^6
+ * authors, and for the smaller sizes the quadratic follower scan
+ * guessFollowsGraph() used before building the reverse adjacency in the same
+ * pass as the follows graph. Run with:
+ * java -cp bin twitter.SocialNetworkBenchmark [largest authors] [mentions per author]
+ * <p>
+ * Each author only mentions authors after it, so nobody has a mutual follower
+ * and the timings are those of the adjacency and mutual passes, not of the
+ * triadic closure edges.
+ */
+public class SocialNetworkBenchmark {
+
+	private static final int LARGEST_QUADRATIC = 30000;
+
+	public static void main(String[] args) throws UnqualifiedUsernameException {
+		int largest = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		int mentions = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		Random random = new Random(6005);
+		for (int authors = 1000; authors <= largest; authors *= 10) {
+			List<Tweet> tweets = new ArrayList<>(authors);
+			for (int i = 0; i < authors; i++) {
+				StringBuilder text = new StringBuilder("talk");
+				for (int m = 0; m < mentions && i + 1 < authors; m++) {
+					text.append(" @user").append(i + 1 + random.nextInt(authors - i - 1));
+				}
+				tweets.add(new Tweet(i, "user" + i, text.toString(), Instant.EPOCH));
+			}
+
+			long start = System.nanoTime();
+			Map<String, Set<String>> graph = SocialNetwork.guessFollowsGraph(tweets);
+			long build = System.nanoTime() - start;
+			long edges = 0;
+			for (Set<String> followed : graph.values()) {
+				edges += followed.size();
+			}
+			System.out.printf("%d authors, %d edges: guessFollowsGraph %.1f ms", authors, edges, build / 1e6);
+
+			start = System.nanoTime();
+			Map<String, Set<String>> parallelGraph = SocialNetwork.guessFollowsGraphParallel(tweets, pool);
+			long parallel = System.nanoTime() - start;
+			if (!parallelGraph.equals(graph)) {
+				throw new AssertionError("parallel graph differs");
+			}
+			System.out.printf(", parallel on %d threads %.1f ms", pool.getParallelism(), parallel / 1e6);
+
+			if (authors <= LARGEST_QUADRATIC) {
+				Map<String, Set<String>> copy = new HashMap<>();
+				for (Map.Entry<String, Set<String>> entry : graph.entrySet()) {
+					copy.put(entry.getKey(), new HashSet<>(entry.getValue()));
+				}
+				start = System.nanoTime();
+				int followed = followersByScan(copy).size();
+				long scan = System.nanoTime() - start;
+				System.out.printf(", quadratic follower scan alone %.1f ms for %d people", scan / 1e6, followed);
+			}
+			System.out.println();
+		}
+	}
+
+	/**
+	 * The follower computation of guessFollowsGraph() before the reverse
+	 * adjacency was built with the graph.
+	 */
+	private static Map<String, Set<String>> followersByScan(Map<String, Set<String>> peopleFollowedByPerson) {
+		Map<String, Set<String>> result = new HashMap<>(1000);
+		for (String first : peopleFollowedByPerson.keySet()) {
+			Set<String> followers = new HashSet<>(1000);
+			for (String second : peopleFollowedByPerson.keySet()) {
+				if (!second.equals(first) && peopleFollowedByPerson.get(second).contains(first)) {
+					followers.add(second);
+				}
+			}
+			result.put(first, followers);
+		}
+		return result;
+	}
+}
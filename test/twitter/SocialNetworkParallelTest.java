@@ -0,0 +1,117 @@
+package twitter;
+
+import org.junit.Test;
+import twitter.exception.UnqualifiedUsernameException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SocialNetworkParallelTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * GuessFollowsGraphParallel
+	 *
+	 * partition on number of tweets: 0 | <= cutoff | > cutoff
+	 * partition on list type: random access | sequential access
+	 * partition on authors: one tweet each | repeated across chunks, in different case
+	 * partition on triadic closure edges: none | some, across shards
+	 * partition on pool: one thread | several
+	 * partition on invalid input: invalid author in a later chunk | null author | cutoff <= 0
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+	private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers 0 tweets
+	@Test
+	public void testEmpty() throws UnqualifiedUsernameException {
+		assertTrue("expected empty graph", SocialNetwork.guessFollowsGraphParallel(new ArrayList<>(), pool).isEmpty());
+	}
+
+	// covers <= cutoff, random access, one tweet each, no closure edges
+	@Test
+	public void testSingleChunk() throws UnqualifiedUsernameException {
+		List<Tweet> tweets = Arrays.asList(
+				new Tweet(1, "alyssa", "@ben see you", d1),
+				new Tweet(2, "eva", "talk @MIT @eva", d1));
+
+		assertEquals("expected same graph", SocialNetwork.guessFollowsGraph(tweets),
+				SocialNetwork.guessFollowsGraphParallel(tweets, pool));
+	}
+
+	// covers > cutoff, sequential access, repeated across chunks, some closure edges
+	@Test
+	public void testManyChunks() throws UnqualifiedUsernameException {
+		List<Tweet> tweets = new LinkedList<>();
+		for (int i = 0; i < 500; i++) {
+			String author = (i % 2 == 0 ? "user" : "USER") + (i % 40);
+			tweets.add(new Tweet(i, author, "talk @user" + ((i * 7) % 40) + " @Other" + (i % 13), d1));
+		}
+
+		assertEquals("expected same graph", SocialNetwork.guessFollowsGraph(tweets),
+				SocialNetwork.guessFollowsGraphParallel(tweets, pool, 16));
+	}
+
+	// covers one thread, several, random graphs with closure edges
+	@Test
+	public void testRandomMatchesSequential() throws UnqualifiedUsernameException {
+		Random random = new Random(24);
+		ForkJoinPool single = new ForkJoinPool(1);
+		for (int round = 0; round < 50; round++) {
+			int people = 2 + random.nextInt(30);
+			List<Tweet> tweets = new ArrayList<>();
+			for (int i = random.nextInt(200); i > 0; i--) {
+				StringBuilder text = new StringBuilder("talk");
+				for (int m = random.nextInt(4); m > 0; m--) {
+					text.append(" @user").append(random.nextInt(people));
+				}
+				tweets.add(new Tweet(i, "user" + random.nextInt(people), text.toString(), d1));
+			}
+			int cutoff = 1 + random.nextInt(20);
+
+			assertEquals("expected same graph", SocialNetwork.guessFollowsGraph(tweets),
+					SocialNetwork.guessFollowsGraphParallel(tweets, pool, cutoff));
+			assertEquals("expected same graph on one thread", SocialNetwork.guessFollowsGraph(tweets),
+					SocialNetwork.guessFollowsGraphParallel(tweets, single, cutoff));
+		}
+		single.shutdown();
+	}
+
+	// covers invalid author in a later chunk
+	@Test(expected = UnqualifiedUsernameException.class)
+	public void testInvalidAuthor() throws UnqualifiedUsernameException {
+		List<Tweet> tweets = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			tweets.add(new Tweet(i, i == 90 ? "bit diddle" : "alyssa", "talk", d1));
+		}
+		SocialNetwork.guessFollowsGraphParallel(tweets, pool, 8);
+	}
+
+	// covers null author
+	@Test(expected = NullPointerException.class)
+	public void testNullAuthor() throws UnqualifiedUsernameException {
+		SocialNetwork.guessFollowsGraphParallel(Arrays.asList(new Tweet(1, null, "talk", d1)), pool);
+	}
+
+	// covers cutoff <= 0
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPositiveCutoff() throws UnqualifiedUsernameException {
+		SocialNetwork.guessFollowsGraphParallel(new ArrayList<>(), pool, 0);
+	}
+}
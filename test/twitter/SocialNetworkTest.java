@@ -19,6 +19,7 @@ public class SocialNetworkTest {
 	 * username doesn't cater rule of naming
 	 * a tweet's author equals to @-mentioned username
 	 * text of tweets contains no @-mention
+	 * returned social network is modified by the caller
 	 *
 	 */
 	@Rule
@@ -37,6 +38,15 @@ public class SocialNetworkTest {
 	}
 
 
+	@Test
+	public void testGuessFollowsGraphIsMutable() throws UnqualifiedUsernameException {
+		Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(Arrays.asList(tweet9, tweet10));
+
+		followsGraph.computeIfAbsent("MIT", key -> new HashSet<>()).add("ALYSSA");
+		followsGraph.values().iterator().next().add("BEN");
+		assertTrue("expected added edge", followsGraph.get("MIT").contains("ALYSSA"));
+	}
+
 	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
 	private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
 
@@ -0,0 +1,80 @@
+package twitter;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TextScannerTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * every case is run in both SCALAR and SWAR mode and compared with the
+	 * String method it replaces
+	 *
+	 * indexOf: found in first 4 chars | found after several blocks | not found
+	 * splitWords: leading/trailing whitespace | runs of mixed \s characters |
+	 *             control characters that are trimmed but not \s | blank text
+	 * toUpperCase: ASCII lower case | already upper case | non-ASCII characters
+	 */
+
+	private static final TextScanner.Mode initialMode = TextScanner.getMode();
+
+	@After
+	public void restoreMode() {
+		TextScanner.setMode(initialMode);
+	}
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	private static final String longText = "rivest talk in 30 minutes, then lunch, then another talk "
+			+ "and finally the reception in the lobby, send questions to @bitdiddle";
+
+	// covers found in first 4 chars, after several blocks, not found
+	@Test
+	public void testIndexOf() {
+		for (TextScanner.Mode mode : TextScanner.Mode.values()) {
+			TextScanner.setMode(mode);
+
+			assertEquals("expected first @ in " + mode, 1, TextScanner.indexOf("a@b@", '@', 0));
+			assertEquals("expected @ after from in " + mode, 3, TextScanner.indexOf("a@b@", '@', 2));
+			assertEquals("expected @ in long text in " + mode, longText.indexOf('@'), TextScanner.indexOf(longText, '@', 5));
+			assertEquals("expected no @ in " + mode, -1, TextScanner.indexOf(longText, '#', 0));
+		}
+	}
+
+	// covers leading/trailing whitespace, mixed \s runs, trimmed control characters, blank text
+	@Test
+	public void testSplitWords() {
+		List<String> texts = Arrays.asList("  talk\tabout \r\n rivest  ", "\u0001a\u0001 b", "   ", longText);
+		for (TextScanner.Mode mode : TextScanner.Mode.values()) {
+			TextScanner.setMode(mode);
+			for (String text : texts) {
+				List<String> words = new ArrayList<>();
+				TextScanner.splitWords(text, words);
+
+				assertEquals("expected same words as split in " + mode, Arrays.asList(text.trim().split("\\s+")), words);
+			}
+		}
+	}
+
+	// covers ASCII lower case, already upper case, non-ASCII characters
+	@Test
+	public void testToUpperCase() {
+		List<String> words = Arrays.asList("obama", "OBAMA", "Caf\u00e9", "a_z{`@", longText);
+		for (TextScanner.Mode mode : TextScanner.Mode.values()) {
+			TextScanner.setMode(mode);
+			for (String word : words) {
+				assertEquals("expected same as String.toUpperCase in " + mode, word.toUpperCase(), TextScanner.toUpperCase(word));
+			}
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package twitter;
+
+import org.junit.Test;
+import twitter.exception.NullTimestampException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimeIndexTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on input order: sorted by time | unsorted
+	 * partition on timespan: empty result | tweets on both endpoints | whole range |
+	 *                        bounds outside the packable range
+	 * partition on appends: none | in time order | out of time order, enough to merge
+	 * partition on timestamps: equal timestamps | differ only in nanos |
+	 *                          outside the packable range, before or after it
+	 * null timestamp of tweet | null timespan
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+	private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+	private static final Instant d3 = Instant.parse("2016-02-17T12:00:00Z");
+
+	private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d2);
+	private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d1);
+	private static final Tweet tweet3 = new Tweet(3, "Eva", "rivest talk in 30 minutes #hype", d3);
+	private static final Tweet tweet4 = new Tweet(4, "Lisa", "rivest talk in 30 minutes #hype", d2);
+	private static final Tweet tweet5 = new Tweet(5, "Luka", "a nanosecond later", d2.plusNanos(1));
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers unsorted input, tweets on both endpoints, equal timestamps
+	@Test
+	public void testInTimespanEndpointsInInputOrder() throws NullTimestampException {
+		TimeIndex index = new TimeIndex(Arrays.asList(tweet1, tweet2, tweet3, tweet4));
+
+		assertEquals("expected endpoints included, input order", Arrays.asList(tweet1, tweet2, tweet4),
+				index.inTimespan(new Timespan(d1, d2)));
+		assertEquals("expected time order", Arrays.asList(tweet2, tweet1, tweet4),
+				index.inTimespanByTime(new Timespan(d1, d2)));
+	}
+
+	// covers empty result, timestamps that differ only in nanos
+	@Test
+	public void testInTimespanNanos() throws NullTimestampException {
+		TimeIndex index = new TimeIndex(Arrays.asList(tweet1, tweet5));
+
+		assertEquals("expected only the later tweet", Collections.singletonList(tweet5),
+				index.inTimespan(new Timespan(d2.plusNanos(1), d3)));
+		assertTrue("expected no tweets", index.inTimespan(new Timespan(d3, d3.plusSeconds(1))).isEmpty());
+	}
+
+	// covers bounds outside the packable range
+	@Test
+	public void testInTimespanUnboundedRange() throws NullTimestampException {
+		TimeIndex index = new TimeIndex(Arrays.asList(tweet1, tweet2));
+
+		assertEquals("expected all tweets", Arrays.asList(tweet1, tweet2), index.inTimespan(new Timespan(Instant.MIN, Instant.MAX)));
+	}
+
+	// covers timestamps outside the packable range, before and after it
+	@Test
+	public void testTimestampsOutsidePackableRange() throws NullTimestampException {
+		Tweet ancient = new Tweet(6, "alyssa", "long ago", Instant.parse("1000-01-01T00:00:00Z"));
+		Tweet distant = new Tweet(7, "alyssa", "far ahead", Instant.parse("3000-01-01T00:00:00Z"));
+		Tweet later = new Tweet(8, "alyssa", "further ahead", Instant.MAX);
+		List<Tweet> tweets = Arrays.asList(later, tweet1, distant, ancient);
+		TimeIndex index = new TimeIndex(tweets);
+		index.add(new Tweet(9, "alyssa", "before them all", Instant.MIN));
+
+		assertEquals("expected every tweet indexed", 5, index.size());
+		Timespan all = new Timespan(Instant.MIN.plusSeconds(1), Instant.MAX);
+		assertEquals("expected same tweets as Filter", Filter.inTimespan(tweets, all), index.inTimespan(all));
+		assertEquals("expected time order", Arrays.asList(ancient, tweet1, distant, later), index.inTimespanByTime(all));
+		Timespan future = new Timespan(Instant.parse("2900-01-01T00:00:00Z"), Instant.parse("3000-01-01T00:00:00Z"));
+		assertEquals("expected endpoint included", Arrays.asList(distant), index.inTimespan(future));
+	}
+
+	// covers appends in and out of time order, enough to merge, sorted input
+	@Test
+	public void testAppendsMatchFilter() throws NullTimestampException {
+		Random random = new Random(6005);
+		List<Tweet> tweets = new ArrayList<>();
+		TimeIndex index = new TimeIndex();
+		for (int i = 0; i < 2000; i++) {
+			Tweet tweet = new Tweet(i, "user", "text", d1.plusSeconds(i < 1000 ? i : random.nextInt(3000)));
+			tweets.add(tweet);
+			index.add(tweet);
+		}
+
+		assertEquals("expected every tweet indexed", 2000, index.size());
+		for (int i = 0; i < 50; i++) {
+			Instant start = d1.plusSeconds(random.nextInt(3000));
+			Timespan timespan = new Timespan(start, start.plusSeconds(random.nextInt(500)));
+			assertEquals("expected same tweets as Filter", Filter.inTimespan(tweets, timespan), index.inTimespan(timespan));
+		}
+	}
+
+	// covers null timestamp of tweet
+	@Test(expected = NullTimestampException.class)
+	public void testNullTimestampOfTweet() throws NullTimestampException {
+		new TimeIndex(Arrays.asList(tweet1, new Tweet(6, "Luka", "no time", null)));
+	}
+
+	// covers null timespan
+	@Test(expected = NullTimestampException.class)
+	public void testNullTimespan() throws NullTimestampException {
+		new TimeIndex(Arrays.asList(tweet1)).inTimespan(null);
+	}
+}
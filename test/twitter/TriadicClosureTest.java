@@ -0,0 +1,162 @@
+package twitter;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TriadicClosureTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on mutual followers of a person: 0, 1, >= 2
+	 * partition on pairs: closed through one person, through several
+	 * partition on fan-out cap: unlimited, below some mutual degrees, 0
+	 * partition on edge: new, already in the graph
+	 * partition on caller: findEdges, getTriadicClosurePeople, guessFollowsGraph
+	 * partition on invalid cap: < 0
+	 */
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers 0 mutual followers, 1
+	@Test
+	public void testNoPairs() {
+		FollowsGraph graph = graph(new String[][]{{"alyssa", "ben"}, {"ben", "alyssa"}, {"eva", "ben"}});
+
+		assertEquals("expected no edges", 0, new TriadicClosure().findEdges(graph).length);
+	}
+
+	// covers >= 2, closed through one person, through several, new, findEdges
+	@Test
+	public void testPairsUpMutualFollowers() {
+		FollowsGraph graph = graph(new String[][]{
+				{"alyssa", "ben"}, {"ben", "alyssa"}, {"ben", "eva"}, {"eva", "ben"},
+				{"alyssa", "mit"}, {"mit", "alyssa"}, {"eva", "mit"}, {"mit", "eva"}});
+		int alyssa = graph.getId("alyssa");
+		int eva = graph.getId("eva");
+
+		long[] edges = new TriadicClosure().findEdges(graph);
+
+		long[] expected = {TriadicClosure.pack(alyssa, eva), TriadicClosure.pack(eva, alyssa),
+				TriadicClosure.pack(graph.getId("ben"), graph.getId("mit")),
+				TriadicClosure.pack(graph.getId("mit"), graph.getId("ben"))};
+		Arrays.sort(expected);
+		assertArrayEquals("expected each pair once", expected, edges);
+		assertEquals("expected follower", alyssa, TriadicClosure.getFollower(TriadicClosure.pack(alyssa, eva)));
+		assertEquals("expected followee", eva, TriadicClosure.getFollowee(TriadicClosure.pack(alyssa, eva)));
+	}
+
+	// covers already in the graph
+	@Test
+	public void testIncludesExistingEdges() {
+		FollowsGraph graph = graph(new String[][]{
+				{"alyssa", "ben"}, {"ben", "alyssa"}, {"ben", "eva"}, {"eva", "ben"}, {"alyssa", "eva"}});
+
+		assertEquals("expected both directions", 2, new TriadicClosure().findEdges(graph).length);
+	}
+
+	// covers cap below some mutual degrees, cap 0
+	@Test
+	public void testFanOutCap() {
+		String[][] edges = new String[2 * 5 + 4][];
+		for (int i = 0; i < 5; i++) {
+			edges[2 * i] = new String[]{"celebrity", "fan" + i};
+			edges[2 * i + 1] = new String[]{"fan" + i, "celebrity"};
+		}
+		edges[10] = new String[]{"alyssa", "ben"};
+		edges[11] = new String[]{"ben", "alyssa"};
+		edges[12] = new String[]{"ben", "eva"};
+		edges[13] = new String[]{"eva", "ben"};
+		FollowsGraph graph = graph(edges);
+
+		assertEquals("expected all pairs", 5 * 4 + 2, new TriadicClosure().findEdges(graph).length);
+		assertEquals("expected celebrity skipped", 2, new TriadicClosure(2).findEdges(graph).length);
+		assertEquals("expected everyone skipped", 0, new TriadicClosure(0).findEdges(graph).length);
+	}
+
+	// covers getTriadicClosurePeople, guessFollowsGraph against a brute force closure
+	@Test
+	public void testRandomMatchesBruteForce() throws Exception {
+		Random random = new Random(23);
+		for (int round = 0; round < 100; round++) {
+			int people = 2 + random.nextInt(12);
+			Map<String, Set<String>> follows = new HashMap<>();
+			StringBuilder[] texts = new StringBuilder[people];
+			for (int p = 0; p < people; p++) {
+				follows.put("USER" + p, new HashSet<>());
+				texts[p] = new StringBuilder("talk");
+			}
+			for (int e = random.nextInt(4 * people); e > 0; e--) {
+				int a = random.nextInt(people);
+				int b = random.nextInt(people);
+				texts[a].append(" @user").append(b);
+				if (a != b) {
+					follows.get("USER" + a).add("USER" + b);
+				}
+			}
+			Map<String, Set<String>> mutual = new HashMap<>();
+			for (String a : follows.keySet()) {
+				mutual.put(a, new HashSet<>());
+				for (String b : follows.get(a)) {
+					if (follows.get(b).contains(a)) {
+						mutual.get(a).add(b);
+					}
+				}
+			}
+			Map<String, Set<String>> expected = new HashMap<>();
+			Map<String, Set<String>> closure = new HashMap<>();
+			for (String a : follows.keySet()) {
+				expected.put(a, new HashSet<>(follows.get(a)));
+				for (String c : follows.keySet()) {
+					Set<String> common = new HashSet<>(mutual.get(a));
+					common.retainAll(mutual.get(c));
+					if (!a.equals(c) && !common.isEmpty()) {
+						expected.get(a).add(c);
+						closure.computeIfAbsent(a, key -> new HashSet<>()).add(c);
+					}
+				}
+			}
+			Tweet[] tweets = new Tweet[people];
+			for (int p = 0; p < people; p++) {
+				tweets[p] = new Tweet(p, "user" + p, texts[p].toString(), Instant.EPOCH);
+			}
+
+			assertEquals("expected closure", closure, SocialNetwork.getTriadicClosurePeople(mutual));
+			assertEquals("expected graph", expected, SocialNetwork.guessFollowsGraph(Arrays.asList(tweets)));
+		}
+	}
+
+	// covers cap < 0
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeCap() {
+		new TriadicClosure(-1);
+	}
+
+	/**
+	 * @param edges pairs of (follower, followee); every follower is an author
+	 */
+	private static FollowsGraph graph(String[][] edges) {
+		FollowsGraph.Builder builder = new FollowsGraph.Builder();
+		Map<String, Integer> ids = new HashMap<>();
+		for (String[] edge : edges) {
+			ids.put(edge[0], builder.addAuthor(edge[0]));
+		}
+		for (String[] edge : edges) {
+			builder.addFollows(ids.get(edge[0]), edge[1]);
+		}
+		return builder.build();
+	}
+}
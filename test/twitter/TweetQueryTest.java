@@ -0,0 +1,185 @@
+package twitter;
+
+import org.junit.Test;
+import twitter.exception.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TweetQueryTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on query: one condition | and | or | not | nested
+	 * partition on indexes: none | some of the conditions | all of the conditions
+	 * partition on tweets matched: 0 | 1 | > 1
+	 * partition on invalid input: invalid username, null timespan, empty word,
+	 *                             tweet with empty text read by the query
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+	private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+	private static final Instant d3 = Instant.parse("2016-02-17T12:00:00Z");
+
+	private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+	private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d2);
+	private static final Tweet tweet3 = new Tweet(3, "Alyssa", "see you there", d3);
+	private static final Tweet tweet4 = new Tweet(4, "eva", "Talk to Me", d3);
+
+	private static final List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3, tweet4);
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers one condition, no indexes, > 1 tweets
+	@Test
+	public void testSingleConditionMatchesFilter() throws Exception {
+		Timespan timespan = new Timespan(d2, d3);
+
+		assertEquals("expected writtenBy", Filter.writtenBy(tweets, "ALYSSA"), TweetQuery.writtenBy("ALYSSA").execute(tweets));
+		assertEquals("expected inTimespan", Filter.inTimespan(tweets, timespan), TweetQuery.inTimespan(timespan).execute(tweets));
+		assertEquals("expected containing", Filter.containing(tweets, Arrays.asList("talk")),
+				TweetQuery.containing(Arrays.asList("talk")).execute(tweets));
+	}
+
+	// covers and, or, not, 1 tweet, 0 tweets
+	@Test
+	public void testCombinations() throws Exception {
+		TweetQuery byAlyssa = TweetQuery.writtenBy("alyssa");
+		TweetQuery aboutTalk = TweetQuery.containing(Arrays.asList("talk"));
+
+		assertEquals("expected and", Arrays.asList(tweet1), byAlyssa.and(aboutTalk).execute(tweets));
+		assertEquals("expected or", Arrays.asList(tweet1, tweet2, tweet3, tweet4), byAlyssa.or(aboutTalk).execute(tweets));
+		assertEquals("expected and not", Arrays.asList(tweet3), byAlyssa.and(aboutTalk.not()).execute(tweets));
+		assertTrue("expected no tweets", byAlyssa.and(byAlyssa.not()).execute(tweets).isEmpty());
+	}
+
+	// covers all conditions indexed, some conditions indexed
+	@Test
+	public void testIndexes() throws Exception {
+		TweetQuery.Indexes all = new TweetQuery.Indexes(tweets, new AuthorIndex(tweets), new TimeIndex(tweets), new WordIndex(tweets));
+		TweetQuery.Indexes authorsOnly = new TweetQuery.Indexes(tweets, new AuthorIndex(tweets), null, null);
+		TweetQuery query = TweetQuery.writtenBy("alyssa").and(TweetQuery.inTimespan(new Timespan(d1, d2)).not())
+				.or(TweetQuery.containing(Arrays.asList("hype")));
+
+		assertEquals("expected tweets", Arrays.asList(tweet2, tweet3), query.execute(tweets));
+		assertEquals("expected same tweets with all indexes", query.execute(tweets), query.execute(all));
+		assertEquals("expected same tweets with some indexes", query.execute(tweets), query.execute(authorsOnly));
+		assertTrue("expected index lookup", query.explain(all).startsWith("index lookup of 2 of 4 tweets"));
+		assertTrue("expected scan", query.explain(tweets).startsWith("scan of 4 tweets"));
+	}
+
+	// covers and with an index: the indexed condition picks the candidates
+	@Test
+	public void testExplainIndexedAnd() throws Exception {
+		TweetQuery.Indexes indexes = new TweetQuery.Indexes(tweets, new AuthorIndex(tweets), null, null);
+		TweetQuery query = TweetQuery.containing(Arrays.asList("talk")).and(TweetQuery.writtenBy("eva"));
+		String plan = query.explain(indexes);
+
+		assertTrue("expected candidates from index: " + plan, plan.startsWith("index lookup, then scan of 1 of 4 tweets"));
+		assertTrue("expected indexed condition: " + plan, plan.contains("writtenBy(eva) [index, 1 tweets]"));
+		assertEquals("expected one tweet", Arrays.asList(tweet4), query.execute(indexes));
+	}
+
+	// covers nested, random queries against Filter-based evaluation
+	@Test
+	public void testRandomQueriesMatchFilter() throws Exception {
+		Random random = new Random(14);
+		String[] authors = {"alyssa", "ben", "eva"};
+		String[] words = {"talk", "rivest", "hype", "see", "much", "minutes"};
+		List<Tweet> corpus = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			StringBuilder text = new StringBuilder();
+			for (int w = 0; w < 4; w++) {
+				text.append(words[random.nextInt(words.length)]).append(' ');
+			}
+			corpus.add(new Tweet(i, authors[random.nextInt(authors.length)], text.toString(),
+					d1.plusSeconds(random.nextInt(7200))));
+		}
+		TweetQuery.Indexes indexes = new TweetQuery.Indexes(corpus, new AuthorIndex(corpus), new TimeIndex(corpus), null);
+
+		for (int round = 0; round < 50; round++) {
+			TweetQuery query = null;
+			List<Tweet> expected = null;
+			for (int term = 0; term < 3; term++) {
+				TweetQuery condition;
+				List<Tweet> matching;
+				switch (random.nextInt(3)) {
+					case 0:
+						String author = authors[random.nextInt(authors.length)];
+						condition = TweetQuery.writtenBy(author);
+						matching = Filter.writtenBy(corpus, author);
+						break;
+					case 1:
+						Instant start = d1.plusSeconds(random.nextInt(7200));
+						Timespan timespan = new Timespan(start, start.plusSeconds(random.nextInt(3600)));
+						condition = TweetQuery.inTimespan(timespan);
+						matching = Filter.inTimespan(corpus, timespan);
+						break;
+					default:
+						List<String> queryWords = Arrays.asList(words[random.nextInt(words.length)]);
+						condition = TweetQuery.containing(queryWords);
+						matching = Filter.containing(corpus, queryWords);
+				}
+				if (random.nextBoolean()) {
+					condition = condition.not();
+					List<Tweet> rest = new ArrayList<>(corpus);
+					rest.removeAll(matching);
+					matching = rest;
+				}
+				if (query == null) {
+					query = condition;
+					expected = matching;
+				} else if (random.nextBoolean()) {
+					query = query.and(condition);
+					expected.retainAll(matching);
+				} else {
+					query = query.or(condition);
+					List<Tweet> union = new ArrayList<>();
+					for (Tweet tweet : corpus) {
+						if (expected.contains(tweet) || matching.contains(tweet)) {
+							union.add(tweet);
+						}
+					}
+					expected = union;
+				}
+			}
+			assertEquals("expected " + query, expected, query.execute(corpus));
+			assertEquals("expected " + query + " with indexes", expected, query.execute(indexes));
+		}
+	}
+
+	// covers tweet with empty text read by the query
+	@Test(expected = NullOrEmptyTextOfTweetException.class)
+	public void testEmptyText() throws Exception {
+		TweetQuery.containing(Arrays.asList("talk")).or(TweetQuery.writtenBy("eva"))
+				.execute(Arrays.asList(tweet1, new Tweet(5, "eva", "", d1)));
+	}
+
+	// covers invalid username
+	@Test(expected = UnqualifiedUsernameException.class)
+	public void testUnqualifiedUsername() throws Exception {
+		TweetQuery.writtenBy("bit diddle");
+	}
+
+	// covers null timespan
+	@Test(expected = NullTimestampException.class)
+	public void testNullTimespan() throws Exception {
+		TweetQuery.inTimespan(null);
+	}
+
+	// covers empty word
+	@Test(expected = NullOrEmptyWordException.class)
+	public void testEmptyWord() throws Exception {
+		TweetQuery.containing(Arrays.asList(""));
+	}
+}
@@ -0,0 +1,171 @@
+package twitter;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import twitter.exception.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TweetSegmentTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on segment size: 0 tweets, 1 tweet, many tweets
+	 * partition on regions: 1, many with texts crossing region boundaries
+	 * partition on text: ASCII, non-ASCII, empty
+	 * partition on author and timestamp: present, null
+	 * partition on operation: get, asList, getTimespan, getMentionedUsers,
+	 *      writtenBy, inTimespan, containing, guessFollowsGraph; result same
+	 *      as the list version
+	 * partition on file: valid, wrong magic, other version, truncated
+	 */
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+	private static final Instant d2 = Instant.parse("2016-02-17T11:00:00.5Z");
+
+	private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much? @bbitdiddle", d1);
+	private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype @Alyssa", d2);
+	private static final Tweet tweet3 = new Tweet(3, "Alyssa", "caf\u00e9 \u00c9COLE @eva_lu-ator na\u00efve", d2);
+
+	private static final List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3);
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers 0 tweets
+	@Test
+	public void testEmptySegment() throws IOException {
+		TweetSegment segment = writeAndOpen(Collections.<Tweet>emptyList(), TweetSegment.REGION_SIZE);
+
+		assertEquals("expected no tweets", 0, segment.size());
+		assertTrue("expected no mentions", Extract.getMentionedUsers(segment).isEmpty());
+	}
+
+	// covers 1 tweet, non-ASCII text, get
+	@Test
+	public void testGetReturnsEqualTweet() throws IOException {
+		TweetSegment segment = writeAndOpen(Arrays.asList(tweet3), TweetSegment.REGION_SIZE);
+
+		Tweet tweet = segment.get(0);
+		assertEquals("expected id", tweet3.getId(), tweet.getId());
+		assertEquals("expected author", tweet3.getAuthor(), tweet.getAuthor());
+		assertEquals("expected text", tweet3.getText(), tweet.getText());
+		assertEquals("expected timestamp", tweet3.getTimestamp(), tweet.getTimestamp());
+	}
+
+	// covers null author, null timestamp, empty text
+	@Test
+	public void testNullFields() throws IOException {
+		TweetSegment segment = writeAndOpen(Arrays.asList(new Tweet(7, null, "", null)), TweetSegment.REGION_SIZE);
+
+		assertNull("expected null author", segment.getAuthor(0));
+		assertNull("expected null timestamp", segment.getTimestamp(0));
+		assertEquals("expected empty text", "", segment.getText(0));
+	}
+
+	// covers many tweets, 1 region, every operation
+	@Test
+	public void testOperationsMatchLists() throws Exception {
+		TweetSegment segment = writeAndOpen(tweets, TweetSegment.REGION_SIZE);
+
+		assertSameResults(tweets, segment, new Random(1));
+		assertEquals("expected both alyssa tweets", Arrays.asList(tweet1, tweet3), Filter.writtenBy(segment, "ALYSSA"));
+	}
+
+	// covers many regions with texts crossing region boundaries, asList
+	@Test
+	public void testManyRegions() throws Exception {
+		Random random = new Random(7);
+		List<Tweet> list = TweetStoreTest.randomTweets(random, 300);
+		for (long regionSize : new long[]{8, 64, 1000, 4096}) {
+			TweetSegment segment = writeAndOpen(list, regionSize);
+
+			assertEquals("expected all tweets", list.size(), segment.asList().size());
+			for (int i = 0; i < list.size(); i++) {
+				Tweet tweet = segment.asList().get(i);
+				assertEquals("expected id", list.get(i).getId(), tweet.getId());
+				assertEquals("expected author", list.get(i).getAuthor(), tweet.getAuthor());
+				assertEquals("expected text", list.get(i).getText(), tweet.getText());
+				assertEquals("expected timestamp", list.get(i).getTimestamp(), tweet.getTimestamp());
+			}
+			assertSameResults(list, segment, random);
+		}
+	}
+
+	// covers wrong magic
+	@Test(expected = IOException.class)
+	public void testNotASegment() throws IOException {
+		Path path = folder.newFile().toPath();
+		Files.write(path, new byte[100]);
+		TweetSegment.open(path);
+	}
+
+	// covers other version
+	@Test(expected = IOException.class)
+	public void testOtherVersion() throws IOException {
+		Path path = folder.newFile().toPath();
+		TweetSegment.write(tweets, path);
+		try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+			file.seek(4);
+			file.writeInt(TweetSegment.VERSION + 1);
+		}
+		TweetSegment.open(path);
+	}
+
+	// covers truncated file
+	@Test(expected = IOException.class)
+	public void testTruncated() throws IOException {
+		Path path = folder.newFile().toPath();
+		TweetSegment.write(tweets, path);
+		try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+			file.setLength(file.length() - 3);
+		}
+		TweetSegment.open(path);
+	}
+
+	private TweetSegment writeAndOpen(List<Tweet> list, long regionSize) throws IOException {
+		Path path = folder.newFile().toPath();
+		TweetSegment.write(list, path);
+		return TweetSegment.open(path, regionSize);
+	}
+
+	private static void assertSameResults(List<Tweet> list, TweetSegment segment, Random random) throws Exception {
+		String username = list.get(random.nextInt(list.size())).getAuthor().toUpperCase();
+		List<String> words = new ArrayList<>();
+		for (Tweet tweet : list) {
+			String[] textWords = tweet.getText().trim().split("\\s+");
+			words.add(textWords[random.nextInt(textWords.length)]);
+			if (words.size() == 2) {
+				break;
+			}
+		}
+		Timespan timespan = new Timespan(d1, d1.plusSeconds(random.nextInt(7200)));
+
+		assertEquals("expected timespan", Extract.getTimespan(list), Extract.getTimespan(segment));
+		assertEquals("expected mentions", Extract.getMentionedUsers(list), Extract.getMentionedUsers(segment));
+		assertEquals("expected writtenBy", Filter.writtenBy(list, username), Filter.writtenBy(segment, username));
+		assertEquals("expected inTimespan", Filter.inTimespan(list, timespan), Filter.inTimespan(segment, timespan));
+		assertEquals("expected containing", Filter.containing(list, words), Filter.containing(segment, words));
+		assertEquals("expected graph", SocialNetwork.guessFollowsGraph(list), SocialNetwork.guessFollowsGraph(segment));
+	}
+}
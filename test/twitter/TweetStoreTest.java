@@ -0,0 +1,220 @@
+package twitter;
+
+import org.junit.Test;
+import twitter.exception.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TweetStoreTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on store size: 0, 1, > initial capacity
+	 * partition on text: ASCII, non-ASCII, empty
+	 * partition on author: valid, same user in other case, invalid, null
+	 * partition on timestamp: present, null, sub-second
+	 * partition on access: get, column getters, asList
+	 * partition on operation: getTimespan, getMentionedUsers, writtenBy,
+	 *      inTimespan, containing, guessFollowsGraph; result same as the list version
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+	private static final Instant d2 = Instant.parse("2016-02-17T11:00:00.5Z");
+
+	private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much? @bbitdiddle", d1);
+	private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype @Alyssa", d2);
+	private static final Tweet tweet3 = new Tweet(3, "Alyssa", "caf\u00e9 \u00c9COLE @eva_lu-ator na\u00efve", d2);
+
+	private static final List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3);
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers size 0
+	@Test
+	public void testEmptyStore() {
+		TweetStore store = new TweetStore();
+
+		assertEquals("expected empty store", 0, store.size());
+		assertTrue("expected empty list", store.asList().isEmpty());
+		assertTrue("expected no mentions", Extract.getMentionedUsers(store).isEmpty());
+		try {
+			Extract.getTimespan(store);
+			fail("expected exception");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	// covers size 1, get, column getters, sub-second timestamp, non-ASCII text
+	@Test
+	public void testGetReturnsEqualTweet() {
+		TweetStore store = new TweetStore();
+		int index = store.add(tweet3);
+
+		assertEquals("expected first index", 0, index);
+		Tweet view = store.get(index);
+		assertEquals("expected id", tweet3.getId(), view.getId());
+		assertEquals("expected author", tweet3.getAuthor(), view.getAuthor());
+		assertEquals("expected text", tweet3.getText(), view.getText());
+		assertEquals("expected timestamp", tweet3.getTimestamp(), view.getTimestamp());
+		assertEquals("expected text column", tweet3.getText(), store.getText(index));
+		assertEquals("expected timestamp column", d2, store.getTimestamp(index));
+	}
+
+	// covers null author, null timestamp, empty text
+	@Test
+	public void testNullFields() {
+		TweetStore store = new TweetStore(Arrays.asList(new Tweet(7, null, "", null)));
+
+		assertNull("expected null author", store.getAuthor(0));
+		assertNull("expected null timestamp", store.getTimestamp(0));
+		assertEquals("expected empty text", "", store.getText(0));
+	}
+
+	// covers size > initial capacity, asList
+	@Test
+	public void testAsListGrowsWithStore() {
+		TweetStore store = new TweetStore();
+		List<Tweet> view = store.asList();
+		List<Tweet> added = randomTweets(new Random(1), 1000);
+		store.addAll(added);
+
+		assertEquals("expected all tweets", added.size(), view.size());
+		for (int i = 0; i < added.size(); i++) {
+			assertEquals("expected id", added.get(i).getId(), view.get(i).getId());
+			assertEquals("expected text", added.get(i).getText(), view.get(i).getText());
+			assertEquals("expected author", added.get(i).getAuthor(), view.get(i).getAuthor());
+			assertEquals("expected timestamp", added.get(i).getTimestamp(), view.get(i).getTimestamp());
+		}
+	}
+
+	// covers index out of range
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetOutOfRange() {
+		new TweetStore(tweets).get(3);
+	}
+
+	// covers getTimespan, getMentionedUsers
+	@Test
+	public void testExtractMatchesLists() {
+		TweetStore store = new TweetStore(tweets);
+
+		Timespan timespan = Extract.getTimespan(store);
+		assertEquals("expected start", d1, timespan.getStart());
+		assertEquals("expected end", d2, timespan.getEnd());
+		assertEquals("expected mentions", Extract.getMentionedUsers(tweets), Extract.getMentionedUsers(store));
+	}
+
+	// covers writtenBy with the same user in other case
+	@Test
+	public void testWrittenByIgnoresCase() throws UnqualifiedUsernameException, NullOrEmptyAuthorException {
+		TweetStore store = new TweetStore(tweets);
+
+		assertEquals("expected both alyssa tweets", Arrays.asList(tweet1, tweet3), Filter.writtenBy(store, "ALYSSA"));
+		assertTrue("expected no tweets", Filter.writtenBy(store, "eva").isEmpty());
+	}
+
+	// covers inTimespan, containing on non-ASCII text
+	@Test
+	public void testFilterMatchesLists() throws Exception {
+		TweetStore store = new TweetStore(tweets);
+		Timespan timespan = new Timespan(d2, d2);
+
+		assertEquals("expected inTimespan", Filter.inTimespan(tweets, timespan), Filter.inTimespan(store, timespan));
+		for (String word : Arrays.asList("talk", "\u00e9COLE", "caf", "na\u00cfV", "hype")) {
+			List<String> words = Collections.singletonList(word);
+			assertEquals("expected containing " + word, Filter.containing(tweets, words), Filter.containing(store, words));
+		}
+	}
+
+	// covers guessFollowsGraph
+	@Test
+	public void testGuessFollowsGraphMatchesList() throws UnqualifiedUsernameException {
+		TweetStore store = new TweetStore(tweets);
+
+		assertEquals("expected same graph", SocialNetwork.guessFollowsGraph(tweets), SocialNetwork.guessFollowsGraph(store));
+	}
+
+	// covers all operations on random tweets
+	@Test
+	public void testRandomStoresMatchLists() throws Exception {
+		Random random = new Random(42);
+		for (int round = 0; round < 20; round++) {
+			List<Tweet> list = randomTweets(random, 1 + random.nextInt(200));
+			TweetStore store = new TweetStore(list);
+			String username = list.get(random.nextInt(list.size())).getAuthor().toUpperCase();
+			List<String> words = Arrays.asList(WORDS[random.nextInt(WORDS.length)], WORDS[random.nextInt(WORDS.length)]);
+			Timespan timespan = new Timespan(d1, d1.plusSeconds(random.nextInt(3600)));
+
+			assertEquals("expected timespan", Extract.getTimespan(list), Extract.getTimespan(store));
+			assertEquals("expected mentions", Extract.getMentionedUsers(list), Extract.getMentionedUsers(store));
+			assertEquals("expected writtenBy", Filter.writtenBy(list, username), Filter.writtenBy(store, username));
+			assertEquals("expected inTimespan", Filter.inTimespan(list, timespan), Filter.inTimespan(store, timespan));
+			assertEquals("expected containing", Filter.containing(list, words), Filter.containing(store, words));
+			assertEquals("expected graph", SocialNetwork.guessFollowsGraph(list), SocialNetwork.guessFollowsGraph(store));
+		}
+	}
+
+	// covers invalid author
+	@Test(expected = UnqualifiedUsernameException.class)
+	public void testWrittenByUnqualifiedAuthor() throws UnqualifiedUsernameException, NullOrEmptyAuthorException {
+		Filter.writtenBy(new TweetStore(Arrays.asList(tweet1, new Tweet(4, "bit diddle", "talk", d1))), "alyssa");
+	}
+
+	// covers null author
+	@Test(expected = NullOrEmptyAuthorException.class)
+	public void testWrittenByNullAuthor() throws UnqualifiedUsernameException, NullOrEmptyAuthorException {
+		Filter.writtenBy(new TweetStore(Arrays.asList(new Tweet(4, null, "talk", d1))), "alyssa");
+	}
+
+	// covers null timestamp
+	@Test(expected = NullTimestampException.class)
+	public void testInTimespanNullTimestamp() throws NullTimestampException {
+		Filter.inTimespan(new TweetStore(Arrays.asList(new Tweet(4, "eva", "talk", null))), new Timespan(d1, d2));
+	}
+
+	// covers empty text
+	@Test(expected = NullOrEmptyTextOfTweetException.class)
+	public void testContainingEmptyText() throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		Filter.containing(new TweetStore(Arrays.asList(new Tweet(4, "eva", "", d1))), Arrays.asList("talk"));
+	}
+
+	// covers invalid author in guessFollowsGraph
+	@Test(expected = UnqualifiedUsernameException.class)
+	public void testGuessFollowsGraphUnqualifiedAuthor() throws UnqualifiedUsernameException {
+		SocialNetwork.guessFollowsGraph(new TweetStore(Arrays.asList(new Tweet(4, "bit diddle", "talk", d1))));
+	}
+
+	private static final String[] AUTHORS = {"alyssa", "Alyssa", "bbitdiddle", "eva_lu-ator", "EVA_LU-ATOR"};
+	private static final String[] WORDS = {"talk", "rivest", "#hype", "@alyssa", "@Eva_Lu-Ator", "caf\u00e9",
+			"\u00c9COLE", "na\u00efve", "x@bbitdiddle", "30", "Zebra", "mit.edu", "\t", "so"};
+
+	static List<Tweet> randomTweets(Random random, int count) {
+		List<Tweet> result = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			StringBuilder text = new StringBuilder();
+			int words = 1 + random.nextInt(6);
+			for (int w = 0; w < words; w++) {
+				text.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextBoolean() ? " " : "  ");
+			}
+			text.append(WORDS[random.nextInt(3)]);
+			result.add(new Tweet(i, AUTHORS[random.nextInt(AUTHORS.length)], text.toString(),
+					d1.plusSeconds(random.nextInt(3600)).plusNanos(random.nextInt(1000))));
+		}
+		return result;
+	}
+}
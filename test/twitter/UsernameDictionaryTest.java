@@ -0,0 +1,139 @@
+package twitter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class UsernameDictionaryTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on username: new | already interned | same name in different case
+	 * partition on lookup: interned | not interned
+	 * partition on number of ids: fits in first chunk | spans several chunks
+	 * partition on threads: 1 | > 1 inserting the same names | reading names while others insert
+	 * fold: username with lower case letters | without
+	 */
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers new, already interned, different case
+	@Test
+	public void testInternDenseIdsCaseInsensitive() {
+		UsernameDictionary dictionary = new UsernameDictionary();
+
+		assertEquals("expected first id", 0, dictionary.intern("ernie"));
+		assertEquals("expected second id", 1, dictionary.intern("bert"));
+		assertEquals("expected same id for different case", 0, dictionary.intern("ERNie"));
+		assertEquals("expected two names", 2, dictionary.size());
+		assertEquals("expected case-folded name", "ERNIE", dictionary.nameOf(0));
+	}
+
+	// covers lookup of interned and not interned names
+	@Test
+	public void testLookup() {
+		UsernameDictionary dictionary = new UsernameDictionary();
+		dictionary.intern("Adam");
+
+		assertEquals("expected id of interned name", 0, dictionary.lookup("aDAM"));
+		assertEquals("expected -1 for unknown name", -1, dictionary.lookup("Chris"));
+		assertEquals("expected lookup not to insert", 1, dictionary.size());
+	}
+
+	// covers ids spanning several chunks
+	@Test
+	public void testInternManyNames() {
+		UsernameDictionary dictionary = new UsernameDictionary();
+		for (int i = 0; i < 5000; i++) {
+			assertEquals("expected dense id", i, dictionary.intern("user" + i));
+		}
+
+		assertEquals("expected name of last id", "USER4999", dictionary.nameOf(4999));
+	}
+
+	// covers > 1 threads inserting the same names
+	@Test
+	public void testInternConcurrently() throws Exception {
+		UsernameDictionary dictionary = new UsernameDictionary();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < 3000; i++) {
+					dictionary.intern("user" + i);
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		assertEquals("expected each name once", 3000, dictionary.size());
+		Set<String> names = new HashSet<>();
+		for (int id = 0; id < dictionary.size(); id++) {
+			names.add(dictionary.nameOf(id));
+			assertEquals("expected id to map back to itself", id, dictionary.lookup(dictionary.nameOf(id)));
+		}
+		assertEquals("expected distinct names", 3000, names.size());
+	}
+
+	// covers reading names while others insert, ids spanning several chunks
+	@Test
+	public void testNameOfWhileInterning() throws Exception {
+		UsernameDictionary dictionary = new UsernameDictionary();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < 3; t++) {
+			int writer = t;
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < 20000; i++) {
+					dictionary.intern("user" + writer + "_" + i);
+				}
+			}));
+		}
+		Future<?> reader = executor.submit(() -> {
+			for (int i = 0; i < 20000; i++) {
+				int id = dictionary.lookup("user0_" + i);
+				while (id < 0) {
+					id = dictionary.lookup("user0_" + i);
+				}
+				assertEquals("expected name of a looked up id", "USER0_" + i, dictionary.nameOf(id));
+			}
+		});
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		reader.get();
+		executor.shutdown();
+
+		assertEquals("expected each name once", 60000, dictionary.size());
+	}
+
+	// covers fold with and without lower case letters
+	@Test
+	public void testFold() {
+		String upper = "ADAM_1-X";
+
+		assertEquals("expected upper case", "ADAM_1-X", UsernameDictionary.fold("aDam_1-x"));
+		assertSame("expected same string when already folded", upper, UsernameDictionary.fold(upper));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testNameOfOutOfRange() {
+		new UsernameDictionary().nameOf(0);
+	}
+}
@@ -0,0 +1,102 @@
+package twitter;
+
+import org.junit.Test;
+import twitter.exception.NullOrEmptyTextOfTweetException;
+import twitter.exception.NullOrEmptyWordException;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WordIndexTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on query: any word | all words | any word except others
+	 * partition on words: 0 | 1 | > 1, different case from the tweets, indexed or not
+	 * partition on tweets matched: 0 | 1 | > 1
+	 * partition on invalid input: empty word, word with space, empty tweet text
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+	private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+	private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d1);
+	private static final Tweet tweet3 = new Tweet(3, "eva", "Talk to Me about Obama", d1);
+	private static final Tweet tweet4 = new Tweet(4, "ben", "nothing here", d1);
+
+	private static final List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3, tweet4);
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers any word, > 1 words with different case, > 1 tweets matched
+	@Test
+	public void testContainingMatchesFilter() throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		WordIndex index = new WordIndex(tweets);
+		List<String> words = Arrays.asList("TALK", "obama", "hype");
+
+		assertEquals("expected same tweets as Filter", Filter.containing(tweets, words), index.containing(words));
+		assertEquals("expected tweets in input order", Arrays.asList(tweet1, tweet2, tweet3), index.containing(words));
+	}
+
+	// covers 1 word not indexed, 0 tweets matched
+	@Test
+	public void testContainingUnknownWord() throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		assertTrue("expected no tweets", new WordIndex(tweets).containing(Arrays.asList("zebra")).isEmpty());
+	}
+
+	// covers all words, 1 tweet matched, 0 words
+	@Test
+	public void testContainingAll() throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		WordIndex index = new WordIndex(tweets);
+
+		assertEquals("expected one tweet", Arrays.asList(tweet1), index.containingAll(Arrays.asList("Rivest", "much")));
+		assertEquals("expected every tweet", tweets, index.containingAll(Collections.emptyList()));
+		assertTrue("expected no tweets", index.containingAll(Arrays.asList("talk", "zebra")).isEmpty());
+	}
+
+	// covers any word except others
+	@Test
+	public void testContainingExcept() throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		WordIndex index = new WordIndex(tweets);
+
+		assertEquals("expected tweets without rivest", Arrays.asList(tweet3),
+				index.containing(Arrays.asList("talk"), Arrays.asList("RIVEST")));
+		assertEquals("expected counts ignoring case", 3, index.countContaining("Talk"));
+	}
+
+	// covers bitmaps returned are copies
+	@Test
+	public void testBitmapsNotShared() throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		WordIndex index = new WordIndex(tweets);
+		index.allOf(Arrays.asList("rivest")).add(3);
+
+		assertEquals("expected index unchanged", Arrays.asList(tweet1, tweet2), index.containing(Arrays.asList("rivest")));
+	}
+
+	// covers word with space
+	@Test(expected = NullOrEmptyWordException.class)
+	public void testWordWithSpace() throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		new WordIndex(tweets).containing(Arrays.asList("rivest talk"));
+	}
+
+	// covers empty word
+	@Test(expected = NullOrEmptyWordException.class)
+	public void testEmptyWord() throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		new WordIndex(tweets).containingAll(Arrays.asList(""));
+	}
+
+	// covers empty tweet text
+	@Test(expected = NullOrEmptyTextOfTweetException.class)
+	public void testEmptyText() throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		new WordIndex(Arrays.asList(tweet1, new Tweet(5, "eva", "", d1)));
+	}
+}
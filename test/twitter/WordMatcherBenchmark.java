@@ -0,0 +1,89 @@
+package twitter;
+
+import twitter.exception.NullOrEmptyTextOfTweetException;
+import twitter.exception.NullOrEmptyWordException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Compares WordMatcher with splitting every tweet on a regex, as containing()
+ * used to. Run with: java -cp bin twitter.WordMatcherBenchmark [tweets] [rounds]
+ */
+public class WordMatcherBenchmark {
+
+	private static final String[] VOCABULARY = {
+			"rivest", "talk", "minutes", "#hype", "about", "reasonable", "so", "much?",
+			"@alyssa", "obama", "(tonight)", "see", "you", "there", "6.005", "is", "it"
+	};
+
+	public static void main(String[] args) throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		int numberOfTweets = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+		Random random = new Random(6005);
+		List<Tweet> tweets = new ArrayList<>();
+		for (int i = 0; i < numberOfTweets; i++) {
+			StringBuilder text = new StringBuilder();
+			int length = 5 + random.nextInt(15);
+			for (int w = 0; w < length; w++) {
+				text.append(w == 0 ? "" : " ").append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+			}
+			text.append(" x").append(i);
+			tweets.add(new Tweet(i, "user" + (i % 1000), text.toString(), Instant.EPOCH));
+		}
+		List<String> words = Arrays.asList("RIVEST", "tonight", "x" + (numberOfTweets / 2));
+
+		for (int round = 0; round < rounds; round++) {
+			long start = System.nanoTime();
+			int regexMatches = containingBySplit(tweets, words).size();
+			long split = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			int matcherMatches = new WordMatcher(words).filter(tweets).size();
+			long matcher = System.nanoTime() - start;
+
+			if (regexMatches != matcherMatches) {
+				throw new AssertionError("results differ: " + regexMatches + " vs " + matcherMatches);
+			}
+			System.out.printf("round %d: regex split %.1f ms, WordMatcher %.1f ms (%.1fx), %d matches%n",
+					round, split / 1e6, matcher / 1e6, (double) split / matcher, matcherMatches);
+		}
+	}
+
+	/**
+	 * The word comparison of Filter.containing() before WordMatcher.
+	 */
+	private static List<Tweet> containingBySplit(List<Tweet> tweets, List<String> words) {
+		List<Tweet> result = new ArrayList<>();
+		for (Tweet tweet : tweets) {
+			Set<String> wordsSet = new HashSet<>();
+			for (String word : words) {
+				wordsSet.add(word.toUpperCase());
+			}
+			Set<String> wordsOfText = new HashSet<>();
+			for (String word : tweet.getText().trim().split("\\s+")) {
+				int length = word.length();
+				char first = word.charAt(0);
+				char last = word.charAt(length - 1);
+				if (!((first < 'z' && first > 'a') || (first < 'Z') && first > 'A')) {
+					word = word.substring(1);
+				}
+				if (!((last < 'z' && last > 'a') || (last < 'Z') && last > 'A')) {
+					word = word.substring(0, length - 1);
+				}
+				wordsOfText.add(word.toUpperCase());
+			}
+			wordsOfText.retainAll(wordsSet);
+			if (!wordsOfText.isEmpty()) {
+				result.add(tweet);
+			}
+		}
+		return result;
+	}
+}
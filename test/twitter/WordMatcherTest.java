@@ -0,0 +1,104 @@
+package twitter;
+
+import org.junit.Test;
+import twitter.exception.NullOrEmptyTextOfTweetException;
+import twitter.exception.NullOrEmptyWordException;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WordMatcherTest {
+
+	/*
+	 * Testing strategy
+	 *
+	 * partition on query words: 1 | > 1, one a suffix or prefix of another
+	 * partition on match position in text: none | first word | last word | inside a longer word
+	 * partition on characters dropped around the matched word: none | first | last | first and last
+	 * partition on case: same | different
+	 * partition on characters: ASCII | non-ASCII in the text or the query
+	 * partition on invalid input: empty word, word with space, empty tweet text
+	 */
+
+	private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+	private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+	private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d1);
+	private static final Tweet tweet3 = new Tweet(3, "eva", "Talk to Me about Obama", d1);
+
+	@Test(expected = AssertionError.class)
+	public void testAssertionsEnabled() {
+		assert false; // make sure assertions are enabled with VM argument: -ea
+	}
+
+	// covers > 1 words, different case, first and last word
+	@Test
+	public void testFilterMatchesContaining() throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3);
+		WordMatcher matcher = new WordMatcher(Arrays.asList("RIVEST", "me"));
+
+		assertEquals("expected tweets in input order", Arrays.asList(tweet1, tweet2, tweet3), matcher.filter(tweets));
+	}
+
+	// covers no match, match inside a longer word
+	@Test
+	public void testWholeWordsOnly() throws NullOrEmptyWordException {
+		WordMatcher matcher = new WordMatcher(Arrays.asList("talk"));
+
+		assertFalse("expected no match inside a word", matcher.matches("talking stalk"));
+		assertFalse("expected no match", matcher.matches("nothing here"));
+		assertTrue("expected match between spaces", matcher.matches("we  talk\tnow"));
+	}
+
+	// covers characters dropped around the matched word
+	@Test
+	public void testDroppedCharacters() throws NullOrEmptyWordException {
+		WordMatcher matcher = new WordMatcher(Arrays.asList("rivest"));
+
+		assertTrue("expected last character dropped", matcher.matches("about rivest?"));
+		assertTrue("expected first character dropped", matcher.matches("#rivest"));
+		assertFalse("expected only the first character dropped", matcher.matches("(rivest)"));
+		assertTrue("expected match including the last character", new WordMatcher(Arrays.asList("rivest)")).matches("(rivest)"));
+	}
+
+	// covers one word a suffix or prefix of another
+	@Test
+	public void testOverlappingWords() throws NullOrEmptyWordException {
+		WordMatcher matcher = new WordMatcher(Arrays.asList("bc", "abcd", "cd"));
+
+		assertTrue("expected suffix word", matcher.matches("xx #cd"));
+		assertTrue("expected longer word", matcher.matches("#abcd"));
+		assertFalse("expected no partial word", matcher.matches("xbcx bcdx"));
+	}
+
+	// covers non-ASCII characters in the text and the query
+	@Test
+	public void testNonAscii() throws NullOrEmptyWordException {
+		assertTrue("expected upper-cased match", new WordMatcher(Arrays.asList("caf\u00e9s")).matches("deux CAF\u00c9S"));
+		assertTrue("expected ASCII word after dropped character", new WordMatcher(Arrays.asList("hello")).matches("\u00e9hello"));
+		assertFalse("expected no match", new WordMatcher(Arrays.asList("cafes")).matches("caf\u00e9s"));
+	}
+
+	// covers word with space
+	@Test(expected = NullOrEmptyWordException.class)
+	public void testWordWithSpace() throws NullOrEmptyWordException {
+		new WordMatcher(Arrays.asList("rivest talk"));
+	}
+
+	// covers empty word
+	@Test(expected = NullOrEmptyWordException.class)
+	public void testEmptyWord() throws NullOrEmptyWordException {
+		new WordMatcher(Arrays.asList("talk", ""));
+	}
+
+	// covers empty tweet text
+	@Test(expected = NullOrEmptyTextOfTweetException.class)
+	public void testEmptyText() throws NullOrEmptyWordException, NullOrEmptyTextOfTweetException {
+		new WordMatcher(Arrays.asList("talk")).matches(new Tweet(4, "eva", "", d1));
+	}
+}